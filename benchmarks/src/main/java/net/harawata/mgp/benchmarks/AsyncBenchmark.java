@@ -0,0 +1,137 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp.benchmarks;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.annotations.InsertProvider;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.harawata.mgp.GizmoAsync;
+import net.harawata.mgp.MysqlProvider;
+
+/**
+ * Submits {@value #CALLS} concurrent inserts through {@link GizmoAsync} against an in-memory H2 database.
+ * <p>
+ * {@code virtual} uses virtual threads (requires Java 21 or later) and {@code platform} uses a cached pool of platform
+ * threads. In both cases, the number of concurrent calls is limited to the connection pool size.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AsyncBenchmark {
+
+  static final int CALLS = 2000;
+
+  @Param({ "virtual", "platform" })
+  private String threads;
+
+  @Param({ "10" })
+  private int poolSize;
+
+  private SqlSessionFactory sqlSessionFactory;
+  private ExecutorService executor;
+  private GizmoAsync<CompanyMapper> async;
+  private final AtomicInteger nextId = new AtomicInteger();
+
+  @Setup(Level.Trial)
+  public void setup() throws SQLException {
+    PooledDataSource dataSource = new PooledDataSource("org.h2.Driver",
+        "jdbc:h2:mem:async;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+    dataSource.setPoolMaximumActiveConnections(poolSize);
+    dataSource.setPoolMaximumIdleConnections(poolSize);
+    Configuration configuration = new Configuration(
+        new Environment("bench", new JdbcTransactionFactory(), dataSource));
+    configuration.addMapper(CompanyMapper.class);
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+    try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+      statement.execute("drop table if exists company");
+      statement.execute("create table company (id int primary key, name varchar(50), address varchar(50))");
+    }
+    executor = "virtual".equals(threads) ? newVirtualThreadExecutor() : Executors.newCachedThreadPool();
+    async = new GizmoAsync<>(sqlSessionFactory, CompanyMapper.class, poolSize, executor);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    executor.shutdown();
+    ((PooledDataSource) sqlSessionFactory.getConfiguration().getEnvironment().getDataSource()).forceCloseAll();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CALLS)
+  public void insert() {
+    CompletableFuture<?>[] futures = new CompletableFuture<?>[CALLS];
+    for (int i = 0; i < CALLS; i++) {
+      Company company = new Company();
+      company.setId(nextId.incrementAndGet());
+      company.setName("Gizmo");
+      company.setAddress("Tokyo");
+      futures[i] = async.submit(mapper -> mapper.insert(company));
+    }
+    CompletableFuture.allOf(futures).join();
+  }
+
+  private static ExecutorService newVirtualThreadExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Virtual threads require Java 21 or later.", e);
+    }
+  }
+
+  public interface CompanyMapper {
+    @InsertProvider(MysqlProvider.class)
+    int insert(Company company);
+  }
+}
@@ -0,0 +1,45 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp.benchmarks;
+
+public class DeepEntity1 extends DeepEntity0 {
+  private String level1A;
+  private String level1B;
+
+  public String getLevel1A() {
+    return level1A;
+  }
+
+  public void setLevel1A(String level1A) {
+    this.level1A = level1A;
+  }
+
+  public String getLevel1B() {
+    return level1B;
+  }
+
+  public void setLevel1B(String level1B) {
+    this.level1B = level1B;
+  }
+}
@@ -0,0 +1,161 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp.benchmarks;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.apache.ibatis.builder.annotation.ProviderContext;
+import org.apache.ibatis.reflection.ParamNameResolver;
+
+import net.harawata.mgp.GizmoProvider;
+import net.harawata.mgp.H2Provider;
+import net.harawata.mgp.MssqlProvider;
+import net.harawata.mgp.MysqlProvider;
+import net.harawata.mgp.OracleProvider;
+import net.harawata.mgp.PostgresProvider;
+
+/**
+ * Providers, entities and mapper methods shared by the provider benchmarks.
+ */
+final class Fixtures {
+
+  private static final Constructor<ProviderContext> providerContextConstructor;
+
+  static {
+    try {
+      // The constructor of ProviderContext is package-private.
+      providerContextConstructor = ProviderContext.class.getDeclaredConstructor(Class.class, Method.class,
+          String.class);
+      providerContextConstructor.setAccessible(true);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Failed to access the constructor of ProviderContext.", e);
+    }
+  }
+
+  private Fixtures() {
+  }
+
+  static GizmoProvider provider(String dialect) {
+    switch (dialect) {
+      case "mysql":
+        return new MysqlProvider();
+      case "mssql":
+        return new MssqlProvider();
+      case "oracle":
+        return new OracleProvider();
+      case "postgres":
+        return new PostgresProvider();
+      case "h2":
+        return new H2Provider();
+      default:
+        throw new IllegalArgumentException("Unknown dialect: " + dialect);
+    }
+  }
+
+  /**
+   * @param shape
+   *          {@code narrow} (4 columns), {@code wide} (120 columns) or {@code deep} (20 columns declared in 9 classes)
+   */
+  static Object entity(String shape) {
+    switch (shape) {
+      case "narrow":
+        Company company = new Company();
+        company.setId(1);
+        company.setName("Gizmo");
+        company.setAddress("Tokyo");
+        return company;
+      case "wide":
+        WideEntity wide = new WideEntity();
+        wide.setId(1);
+        wide.setName("Gizmo");
+        return wide;
+      case "deep":
+        DeepEntity deep = new DeepEntity();
+        deep.setId(1);
+        deep.setName("Gizmo");
+        return deep;
+      default:
+        throw new IllegalArgumentException("Unknown entity shape: " + shape);
+    }
+  }
+
+  static ProviderContext context(String mapperMethodName) {
+    Method mapperMethod = Arrays.stream(EntityMapper.class.getMethods())
+        .filter(m -> m.getName().equals(mapperMethodName)).findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("Unknown mapper method: " + mapperMethodName));
+    try {
+      return providerContextConstructor.newInstance(EntityMapper.class, mapperMethod, null);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Failed to create ProviderContext for " + mapperMethodName, e);
+    }
+  }
+
+  /**
+   * Builds the parameter object MyBatis passes to the provider of {@link EntityMapper#insertAll(List)}.
+   */
+  static Object listParam(Object entity, int rows) {
+    List<Object> list = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      list.add(entity);
+    }
+    return ParamNameResolver.wrapToMapIfCollection(list, "list");
+  }
+
+  /**
+   * Builds the parameter object MyBatis passes to the provider of {@link EntityMapper#update(Object, Integer, String)}.
+   */
+  static Object updateParam(Object entity) {
+    ParamMap<Object> param = new ParamMap<>();
+    param.put("entity", entity);
+    param.put("id", 1);
+    param.put("name", "Gizmo");
+    param.put("param1", entity);
+    param.put("param2", 1);
+    param.put("param3", "Gizmo");
+    return param;
+  }
+
+  /**
+   * The parameter types are {@code Object} so that the same methods can be used for all entity shapes. The
+   * providers determine the bean class from the runtime type.
+   */
+  public interface EntityMapper {
+    int insert(Object entity);
+
+    int insertAll(List<Object> list);
+
+    int update(Object entity, Integer id, String name);
+
+    int updateByIdAndName(Object entity);
+
+    int upsertOnId(Object entity);
+
+    int upsertAllOnId(List<Object> list);
+  }
+}
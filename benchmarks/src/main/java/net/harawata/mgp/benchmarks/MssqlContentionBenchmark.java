@@ -0,0 +1,159 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp.benchmarks;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.annotations.InsertProvider;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testcontainers.containers.MSSQLServerContainer;
+
+import net.harawata.mgp.DeadlockRetry;
+import net.harawata.mgp.MssqlProvider;
+
+/**
+ * Concurrent upserts on a small key range against SQL Server in a container (requires Docker).
+ * <p>
+ * Compares {@code MERGE ... WITH (HOLDLOCK)} with {@code UPDATE ... WITH (UPDLOCK, SERIALIZABLE)} + {@code INSERT}.
+ * Deadlocks are retried by {@link DeadlockRetry} and the number of retries is reported as the {@code deadlockRetries}
+ * secondary result of the {@code Throughput} mode. Use {@code SampleTime} results for the p99 latency.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MssqlContentionBenchmark {
+
+  @Param({ "MERGE", "UPDATE_THEN_INSERT" })
+  private MssqlProvider.UpsertStrategy strategy;
+
+  @Param({ "16" })
+  private int keyRange;
+
+  private MSSQLServerContainer<?> container;
+  private PooledDataSource dataSource;
+  private DeadlockRetry retry;
+  private Class<? extends CompanyMapper> mapperType;
+
+  @Setup(Level.Trial)
+  public void setup() throws SQLException {
+    container = new MSSQLServerContainer<>("mcr.microsoft.com/mssql/server:2022-latest").acceptLicense();
+    container.start();
+    dataSource = new PooledDataSource(container.getDriverClassName(), container.getJdbcUrl(),
+        container.getUsername(), container.getPassword());
+    dataSource.setPoolMaximumActiveConnections(16);
+    dataSource.setPoolMaximumIdleConnections(16);
+    try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+      statement.execute("drop table if exists company");
+      statement.execute("create table company (id int primary key, name varchar(50), address varchar(50))");
+    }
+    mapperType = strategy == MssqlProvider.UpsertStrategy.MERGE ? MergeMapper.class : UpdateThenInsertMapper.class;
+    Configuration configuration = new Configuration(
+        new Environment("bench", new JdbcTransactionFactory(), dataSource));
+    configuration.addMapper(mapperType);
+    SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+    retry = new DeadlockRetry(sqlSessionFactory).maxAttempts(10);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    dataSource.forceCloseAll();
+    container.stop();
+  }
+
+  @Benchmark
+  public int upsert(Retries retries) {
+    Company company = new Company();
+    company.setId(ThreadLocalRandom.current().nextInt(keyRange));
+    company.setName("Gizmo" + ThreadLocalRandom.current().nextInt(1000));
+    company.setAddress("Tokyo");
+    // The first attempt is not a retry
+    retries.deadlockRetries--;
+    return retry.execute(session -> {
+      retries.deadlockRetries++;
+      return session.getMapper(mapperType).upsertCompanyOnId(company);
+    });
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Retries {
+    public long deadlockRetries;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      deadlockRetries = 0;
+    }
+  }
+
+  public static class UpdateThenInsertProvider extends MssqlProvider {
+    @Override
+    protected UpsertStrategy getUpsertStrategy() {
+      return UpsertStrategy.UPDATE_THEN_INSERT;
+    }
+  }
+
+  public interface CompanyMapper {
+    int upsertCompanyOnId(Company company);
+  }
+
+  public interface MergeMapper extends CompanyMapper {
+    @Override
+    @InsertProvider(MssqlProvider.class)
+    int upsertCompanyOnId(Company company);
+  }
+
+  public interface UpdateThenInsertMapper extends CompanyMapper {
+    @Override
+    @InsertProvider(UpdateThenInsertProvider.class)
+    int upsertCompanyOnId(Company company);
+  }
+}
@@ -0,0 +1,137 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.builder.annotation.ProviderContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import net.harawata.mgp.GizmoProvider;
+
+/**
+ * Measures the provider methods of each dialect directly, i.e. without MyBatis' {@code ProviderSqlSource}.
+ * <p>
+ * When {@code cached} is {@code false}, the statement cache is cleared before each call so that the statement is
+ * generated every time. Entity metadata remains cached in both cases.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProviderBenchmark {
+
+  @Param({ "mysql", "mssql", "oracle", "postgres", "h2" })
+  private String dialect;
+
+  @Param({ "narrow", "wide", "deep" })
+  private String entityShape;
+
+  @Param({ "true", "false" })
+  private boolean cached;
+
+  private GizmoProvider provider;
+  private Object entity;
+  private Object listParam;
+  private Object updateParam;
+  private ProviderContext insertContext;
+  private ProviderContext insertAllContext;
+  private ProviderContext updateContext;
+  private ProviderContext updateByContext;
+
+  @Setup
+  public void setup() {
+    provider = Fixtures.provider(dialect);
+    entity = Fixtures.entity(entityShape);
+    listParam = Fixtures.listParam(entity, Math.min(100, provider.getMaxRowsPerStatement(entity.getClass())));
+    updateParam = Fixtures.updateParam(entity);
+    insertContext = Fixtures.context("insert");
+    insertAllContext = Fixtures.context("insertAll");
+    updateContext = Fixtures.context("update");
+    updateByContext = Fixtures.context("updateByIdAndName");
+  }
+
+  @Benchmark
+  public CharSequence insert() {
+    clearCache();
+    return provider.insert(entity, insertContext);
+  }
+
+  /**
+   * Up to 100 rows (fewer when the dialect's parameter limit does not allow it).
+   */
+  @Benchmark
+  public CharSequence insertAll() {
+    clearCache();
+    return provider.insertAll(insertAllContext, listParam);
+  }
+
+  /**
+   * Conditions specified with parameters, e.g. {@code update(entity, id, name)}.
+   */
+  @Benchmark
+  public CharSequence updateWithArgs() {
+    clearCache();
+    return provider.update(updateContext, updateParam);
+  }
+
+  /**
+   * Conditions specified with the method name, e.g. {@code updateByIdAndName(entity)}.
+   */
+  @Benchmark
+  public CharSequence updateByMethodName() {
+    clearCache();
+    return provider.update(updateByContext, entity);
+  }
+
+  private void clearCache() {
+    if (!cached) {
+      GizmoProvider.getStatementCache().clear();
+    }
+  }
+
+  /**
+   * Runs the benchmarks with the GC profiler to report allocation rates (same as {@code -prof gc}).
+   */
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(ProviderBenchmark.class.getSimpleName())
+        .include(UpsertBenchmark.class.getSimpleName()).addProfiler(GCProfiler.class).build()).run();
+  }
+}
@@ -0,0 +1,118 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.annotations.InsertProvider;
+import org.apache.ibatis.annotations.Lang;
+import org.apache.ibatis.annotations.UpdateProvider;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.harawata.mgp.GizmoLanguageDriver;
+import net.harawata.mgp.MysqlProvider;
+
+/**
+ * Compares the stock provider path (the provider output is parsed on every execution) with
+ * {@link GizmoLanguageDriver}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SqlSourceBenchmark {
+
+  private MappedStatement stockInsert;
+  private MappedStatement stockUpdate;
+  private MappedStatement gizmoInsert;
+  private MappedStatement gizmoUpdate;
+  private Company company;
+
+  @Setup
+  public void setup() {
+    Configuration configuration = new Configuration();
+    configuration.addMapper(StockMapper.class);
+    configuration.addMapper(GizmoMapper.class);
+    stockInsert = configuration.getMappedStatement(StockMapper.class.getName() + ".insert");
+    stockUpdate = configuration.getMappedStatement(StockMapper.class.getName() + ".updateById");
+    gizmoInsert = configuration.getMappedStatement(GizmoMapper.class.getName() + ".insert");
+    gizmoUpdate = configuration.getMappedStatement(GizmoMapper.class.getName() + ".updateById");
+    company = new Company();
+    company.setId(1);
+    company.setName("Gizmo");
+    company.setAddress("Tokyo");
+  }
+
+  @Benchmark
+  public BoundSql stockInsert() {
+    return stockInsert.getBoundSql(company);
+  }
+
+  @Benchmark
+  public BoundSql gizmoInsert() {
+    return gizmoInsert.getBoundSql(company);
+  }
+
+  @Benchmark
+  public BoundSql stockUpdate() {
+    return stockUpdate.getBoundSql(company);
+  }
+
+  @Benchmark
+  public BoundSql gizmoUpdate() {
+    return gizmoUpdate.getBoundSql(company);
+  }
+
+  public interface StockMapper {
+    @InsertProvider(MysqlProvider.class)
+    int insert(Company company);
+
+    @UpdateProvider(MysqlProvider.class)
+    int updateById(Company company);
+  }
+
+  public interface GizmoMapper {
+    @Lang(GizmoLanguageDriver.class)
+    @InsertProvider(MysqlProvider.class)
+    int insert(Company company);
+
+    @Lang(GizmoLanguageDriver.class)
+    @UpdateProvider(MysqlProvider.class)
+    int updateById(Company company);
+  }
+}
@@ -0,0 +1,95 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.builder.annotation.ProviderContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.harawata.mgp.GizmoProvider;
+
+/**
+ * Same as {@link ProviderBenchmark}, but for UPSERT which is supported by fewer dialects.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UpsertBenchmark {
+
+  @Param({ "mysql", "mssql", "oracle", "postgres", "h2" })
+  private String dialect;
+
+  @Param({ "narrow", "wide", "deep" })
+  private String entityShape;
+
+  @Param({ "true", "false" })
+  private boolean cached;
+
+  private GizmoProvider provider;
+  private Object entity;
+  private Object listParam;
+  private ProviderContext upsertContext;
+  private ProviderContext upsertAllContext;
+
+  @Setup
+  public void setup() {
+    provider = Fixtures.provider(dialect);
+    entity = Fixtures.entity(entityShape);
+    listParam = Fixtures.listParam(entity, Math.min(100, provider.getMaxRowsPerUpsert(entity.getClass())));
+    upsertContext = Fixtures.context("upsertOnId");
+    upsertAllContext = Fixtures.context("upsertAllOnId");
+  }
+
+  @Benchmark
+  public CharSequence upsert() {
+    clearCache();
+    return provider.upsert(entity, upsertContext);
+  }
+
+  @Benchmark
+  public CharSequence upsertAll() {
+    clearCache();
+    return provider.upsertAll(upsertAllContext, listParam);
+  }
+
+  private void clearCache() {
+    if (!cached) {
+      GizmoProvider.getStatementCache().clear();
+    }
+  }
+}
@@ -0,0 +1,1110 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp.benchmarks;
+
+/**
+ * An entity with 120 columns.
+ */
+public class WideEntity {
+  private Integer id;
+  private String name;
+  private String column001;
+  private String column002;
+  private String column003;
+  private String column004;
+  private String column005;
+  private String column006;
+  private String column007;
+  private String column008;
+  private String column009;
+  private String column010;
+  private String column011;
+  private String column012;
+  private String column013;
+  private String column014;
+  private String column015;
+  private String column016;
+  private String column017;
+  private String column018;
+  private String column019;
+  private String column020;
+  private String column021;
+  private String column022;
+  private String column023;
+  private String column024;
+  private String column025;
+  private String column026;
+  private String column027;
+  private String column028;
+  private String column029;
+  private String column030;
+  private String column031;
+  private String column032;
+  private String column033;
+  private String column034;
+  private String column035;
+  private String column036;
+  private String column037;
+  private String column038;
+  private String column039;
+  private String column040;
+  private String column041;
+  private String column042;
+  private String column043;
+  private String column044;
+  private String column045;
+  private String column046;
+  private String column047;
+  private String column048;
+  private String column049;
+  private String column050;
+  private String column051;
+  private String column052;
+  private String column053;
+  private String column054;
+  private String column055;
+  private String column056;
+  private String column057;
+  private String column058;
+  private String column059;
+  private String column060;
+  private String column061;
+  private String column062;
+  private String column063;
+  private String column064;
+  private String column065;
+  private String column066;
+  private String column067;
+  private String column068;
+  private String column069;
+  private String column070;
+  private String column071;
+  private String column072;
+  private String column073;
+  private String column074;
+  private String column075;
+  private String column076;
+  private String column077;
+  private String column078;
+  private String column079;
+  private String column080;
+  private String column081;
+  private String column082;
+  private String column083;
+  private String column084;
+  private String column085;
+  private String column086;
+  private String column087;
+  private String column088;
+  private String column089;
+  private String column090;
+  private String column091;
+  private String column092;
+  private String column093;
+  private String column094;
+  private String column095;
+  private String column096;
+  private String column097;
+  private String column098;
+  private String column099;
+  private String column100;
+  private String column101;
+  private String column102;
+  private String column103;
+  private String column104;
+  private String column105;
+  private String column106;
+  private String column107;
+  private String column108;
+  private String column109;
+  private String column110;
+  private String column111;
+  private String column112;
+  private String column113;
+  private String column114;
+  private String column115;
+  private String column116;
+  private String column117;
+  private String column118;
+
+  public Integer getId() {
+    return id;
+  }
+
+  public void setId(Integer id) {
+    this.id = id;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public String getColumn001() {
+    return column001;
+  }
+
+  public void setColumn001(String column001) {
+    this.column001 = column001;
+  }
+
+  public String getColumn002() {
+    return column002;
+  }
+
+  public void setColumn002(String column002) {
+    this.column002 = column002;
+  }
+
+  public String getColumn003() {
+    return column003;
+  }
+
+  public void setColumn003(String column003) {
+    this.column003 = column003;
+  }
+
+  public String getColumn004() {
+    return column004;
+  }
+
+  public void setColumn004(String column004) {
+    this.column004 = column004;
+  }
+
+  public String getColumn005() {
+    return column005;
+  }
+
+  public void setColumn005(String column005) {
+    this.column005 = column005;
+  }
+
+  public String getColumn006() {
+    return column006;
+  }
+
+  public void setColumn006(String column006) {
+    this.column006 = column006;
+  }
+
+  public String getColumn007() {
+    return column007;
+  }
+
+  public void setColumn007(String column007) {
+    this.column007 = column007;
+  }
+
+  public String getColumn008() {
+    return column008;
+  }
+
+  public void setColumn008(String column008) {
+    this.column008 = column008;
+  }
+
+  public String getColumn009() {
+    return column009;
+  }
+
+  public void setColumn009(String column009) {
+    this.column009 = column009;
+  }
+
+  public String getColumn010() {
+    return column010;
+  }
+
+  public void setColumn010(String column010) {
+    this.column010 = column010;
+  }
+
+  public String getColumn011() {
+    return column011;
+  }
+
+  public void setColumn011(String column011) {
+    this.column011 = column011;
+  }
+
+  public String getColumn012() {
+    return column012;
+  }
+
+  public void setColumn012(String column012) {
+    this.column012 = column012;
+  }
+
+  public String getColumn013() {
+    return column013;
+  }
+
+  public void setColumn013(String column013) {
+    this.column013 = column013;
+  }
+
+  public String getColumn014() {
+    return column014;
+  }
+
+  public void setColumn014(String column014) {
+    this.column014 = column014;
+  }
+
+  public String getColumn015() {
+    return column015;
+  }
+
+  public void setColumn015(String column015) {
+    this.column015 = column015;
+  }
+
+  public String getColumn016() {
+    return column016;
+  }
+
+  public void setColumn016(String column016) {
+    this.column016 = column016;
+  }
+
+  public String getColumn017() {
+    return column017;
+  }
+
+  public void setColumn017(String column017) {
+    this.column017 = column017;
+  }
+
+  public String getColumn018() {
+    return column018;
+  }
+
+  public void setColumn018(String column018) {
+    this.column018 = column018;
+  }
+
+  public String getColumn019() {
+    return column019;
+  }
+
+  public void setColumn019(String column019) {
+    this.column019 = column019;
+  }
+
+  public String getColumn020() {
+    return column020;
+  }
+
+  public void setColumn020(String column020) {
+    this.column020 = column020;
+  }
+
+  public String getColumn021() {
+    return column021;
+  }
+
+  public void setColumn021(String column021) {
+    this.column021 = column021;
+  }
+
+  public String getColumn022() {
+    return column022;
+  }
+
+  public void setColumn022(String column022) {
+    this.column022 = column022;
+  }
+
+  public String getColumn023() {
+    return column023;
+  }
+
+  public void setColumn023(String column023) {
+    this.column023 = column023;
+  }
+
+  public String getColumn024() {
+    return column024;
+  }
+
+  public void setColumn024(String column024) {
+    this.column024 = column024;
+  }
+
+  public String getColumn025() {
+    return column025;
+  }
+
+  public void setColumn025(String column025) {
+    this.column025 = column025;
+  }
+
+  public String getColumn026() {
+    return column026;
+  }
+
+  public void setColumn026(String column026) {
+    this.column026 = column026;
+  }
+
+  public String getColumn027() {
+    return column027;
+  }
+
+  public void setColumn027(String column027) {
+    this.column027 = column027;
+  }
+
+  public String getColumn028() {
+    return column028;
+  }
+
+  public void setColumn028(String column028) {
+    this.column028 = column028;
+  }
+
+  public String getColumn029() {
+    return column029;
+  }
+
+  public void setColumn029(String column029) {
+    this.column029 = column029;
+  }
+
+  public String getColumn030() {
+    return column030;
+  }
+
+  public void setColumn030(String column030) {
+    this.column030 = column030;
+  }
+
+  public String getColumn031() {
+    return column031;
+  }
+
+  public void setColumn031(String column031) {
+    this.column031 = column031;
+  }
+
+  public String getColumn032() {
+    return column032;
+  }
+
+  public void setColumn032(String column032) {
+    this.column032 = column032;
+  }
+
+  public String getColumn033() {
+    return column033;
+  }
+
+  public void setColumn033(String column033) {
+    this.column033 = column033;
+  }
+
+  public String getColumn034() {
+    return column034;
+  }
+
+  public void setColumn034(String column034) {
+    this.column034 = column034;
+  }
+
+  public String getColumn035() {
+    return column035;
+  }
+
+  public void setColumn035(String column035) {
+    this.column035 = column035;
+  }
+
+  public String getColumn036() {
+    return column036;
+  }
+
+  public void setColumn036(String column036) {
+    this.column036 = column036;
+  }
+
+  public String getColumn037() {
+    return column037;
+  }
+
+  public void setColumn037(String column037) {
+    this.column037 = column037;
+  }
+
+  public String getColumn038() {
+    return column038;
+  }
+
+  public void setColumn038(String column038) {
+    this.column038 = column038;
+  }
+
+  public String getColumn039() {
+    return column039;
+  }
+
+  public void setColumn039(String column039) {
+    this.column039 = column039;
+  }
+
+  public String getColumn040() {
+    return column040;
+  }
+
+  public void setColumn040(String column040) {
+    this.column040 = column040;
+  }
+
+  public String getColumn041() {
+    return column041;
+  }
+
+  public void setColumn041(String column041) {
+    this.column041 = column041;
+  }
+
+  public String getColumn042() {
+    return column042;
+  }
+
+  public void setColumn042(String column042) {
+    this.column042 = column042;
+  }
+
+  public String getColumn043() {
+    return column043;
+  }
+
+  public void setColumn043(String column043) {
+    this.column043 = column043;
+  }
+
+  public String getColumn044() {
+    return column044;
+  }
+
+  public void setColumn044(String column044) {
+    this.column044 = column044;
+  }
+
+  public String getColumn045() {
+    return column045;
+  }
+
+  public void setColumn045(String column045) {
+    this.column045 = column045;
+  }
+
+  public String getColumn046() {
+    return column046;
+  }
+
+  public void setColumn046(String column046) {
+    this.column046 = column046;
+  }
+
+  public String getColumn047() {
+    return column047;
+  }
+
+  public void setColumn047(String column047) {
+    this.column047 = column047;
+  }
+
+  public String getColumn048() {
+    return column048;
+  }
+
+  public void setColumn048(String column048) {
+    this.column048 = column048;
+  }
+
+  public String getColumn049() {
+    return column049;
+  }
+
+  public void setColumn049(String column049) {
+    this.column049 = column049;
+  }
+
+  public String getColumn050() {
+    return column050;
+  }
+
+  public void setColumn050(String column050) {
+    this.column050 = column050;
+  }
+
+  public String getColumn051() {
+    return column051;
+  }
+
+  public void setColumn051(String column051) {
+    this.column051 = column051;
+  }
+
+  public String getColumn052() {
+    return column052;
+  }
+
+  public void setColumn052(String column052) {
+    this.column052 = column052;
+  }
+
+  public String getColumn053() {
+    return column053;
+  }
+
+  public void setColumn053(String column053) {
+    this.column053 = column053;
+  }
+
+  public String getColumn054() {
+    return column054;
+  }
+
+  public void setColumn054(String column054) {
+    this.column054 = column054;
+  }
+
+  public String getColumn055() {
+    return column055;
+  }
+
+  public void setColumn055(String column055) {
+    this.column055 = column055;
+  }
+
+  public String getColumn056() {
+    return column056;
+  }
+
+  public void setColumn056(String column056) {
+    this.column056 = column056;
+  }
+
+  public String getColumn057() {
+    return column057;
+  }
+
+  public void setColumn057(String column057) {
+    this.column057 = column057;
+  }
+
+  public String getColumn058() {
+    return column058;
+  }
+
+  public void setColumn058(String column058) {
+    this.column058 = column058;
+  }
+
+  public String getColumn059() {
+    return column059;
+  }
+
+  public void setColumn059(String column059) {
+    this.column059 = column059;
+  }
+
+  public String getColumn060() {
+    return column060;
+  }
+
+  public void setColumn060(String column060) {
+    this.column060 = column060;
+  }
+
+  public String getColumn061() {
+    return column061;
+  }
+
+  public void setColumn061(String column061) {
+    this.column061 = column061;
+  }
+
+  public String getColumn062() {
+    return column062;
+  }
+
+  public void setColumn062(String column062) {
+    this.column062 = column062;
+  }
+
+  public String getColumn063() {
+    return column063;
+  }
+
+  public void setColumn063(String column063) {
+    this.column063 = column063;
+  }
+
+  public String getColumn064() {
+    return column064;
+  }
+
+  public void setColumn064(String column064) {
+    this.column064 = column064;
+  }
+
+  public String getColumn065() {
+    return column065;
+  }
+
+  public void setColumn065(String column065) {
+    this.column065 = column065;
+  }
+
+  public String getColumn066() {
+    return column066;
+  }
+
+  public void setColumn066(String column066) {
+    this.column066 = column066;
+  }
+
+  public String getColumn067() {
+    return column067;
+  }
+
+  public void setColumn067(String column067) {
+    this.column067 = column067;
+  }
+
+  public String getColumn068() {
+    return column068;
+  }
+
+  public void setColumn068(String column068) {
+    this.column068 = column068;
+  }
+
+  public String getColumn069() {
+    return column069;
+  }
+
+  public void setColumn069(String column069) {
+    this.column069 = column069;
+  }
+
+  public String getColumn070() {
+    return column070;
+  }
+
+  public void setColumn070(String column070) {
+    this.column070 = column070;
+  }
+
+  public String getColumn071() {
+    return column071;
+  }
+
+  public void setColumn071(String column071) {
+    this.column071 = column071;
+  }
+
+  public String getColumn072() {
+    return column072;
+  }
+
+  public void setColumn072(String column072) {
+    this.column072 = column072;
+  }
+
+  public String getColumn073() {
+    return column073;
+  }
+
+  public void setColumn073(String column073) {
+    this.column073 = column073;
+  }
+
+  public String getColumn074() {
+    return column074;
+  }
+
+  public void setColumn074(String column074) {
+    this.column074 = column074;
+  }
+
+  public String getColumn075() {
+    return column075;
+  }
+
+  public void setColumn075(String column075) {
+    this.column075 = column075;
+  }
+
+  public String getColumn076() {
+    return column076;
+  }
+
+  public void setColumn076(String column076) {
+    this.column076 = column076;
+  }
+
+  public String getColumn077() {
+    return column077;
+  }
+
+  public void setColumn077(String column077) {
+    this.column077 = column077;
+  }
+
+  public String getColumn078() {
+    return column078;
+  }
+
+  public void setColumn078(String column078) {
+    this.column078 = column078;
+  }
+
+  public String getColumn079() {
+    return column079;
+  }
+
+  public void setColumn079(String column079) {
+    this.column079 = column079;
+  }
+
+  public String getColumn080() {
+    return column080;
+  }
+
+  public void setColumn080(String column080) {
+    this.column080 = column080;
+  }
+
+  public String getColumn081() {
+    return column081;
+  }
+
+  public void setColumn081(String column081) {
+    this.column081 = column081;
+  }
+
+  public String getColumn082() {
+    return column082;
+  }
+
+  public void setColumn082(String column082) {
+    this.column082 = column082;
+  }
+
+  public String getColumn083() {
+    return column083;
+  }
+
+  public void setColumn083(String column083) {
+    this.column083 = column083;
+  }
+
+  public String getColumn084() {
+    return column084;
+  }
+
+  public void setColumn084(String column084) {
+    this.column084 = column084;
+  }
+
+  public String getColumn085() {
+    return column085;
+  }
+
+  public void setColumn085(String column085) {
+    this.column085 = column085;
+  }
+
+  public String getColumn086() {
+    return column086;
+  }
+
+  public void setColumn086(String column086) {
+    this.column086 = column086;
+  }
+
+  public String getColumn087() {
+    return column087;
+  }
+
+  public void setColumn087(String column087) {
+    this.column087 = column087;
+  }
+
+  public String getColumn088() {
+    return column088;
+  }
+
+  public void setColumn088(String column088) {
+    this.column088 = column088;
+  }
+
+  public String getColumn089() {
+    return column089;
+  }
+
+  public void setColumn089(String column089) {
+    this.column089 = column089;
+  }
+
+  public String getColumn090() {
+    return column090;
+  }
+
+  public void setColumn090(String column090) {
+    this.column090 = column090;
+  }
+
+  public String getColumn091() {
+    return column091;
+  }
+
+  public void setColumn091(String column091) {
+    this.column091 = column091;
+  }
+
+  public String getColumn092() {
+    return column092;
+  }
+
+  public void setColumn092(String column092) {
+    this.column092 = column092;
+  }
+
+  public String getColumn093() {
+    return column093;
+  }
+
+  public void setColumn093(String column093) {
+    this.column093 = column093;
+  }
+
+  public String getColumn094() {
+    return column094;
+  }
+
+  public void setColumn094(String column094) {
+    this.column094 = column094;
+  }
+
+  public String getColumn095() {
+    return column095;
+  }
+
+  public void setColumn095(String column095) {
+    this.column095 = column095;
+  }
+
+  public String getColumn096() {
+    return column096;
+  }
+
+  public void setColumn096(String column096) {
+    this.column096 = column096;
+  }
+
+  public String getColumn097() {
+    return column097;
+  }
+
+  public void setColumn097(String column097) {
+    this.column097 = column097;
+  }
+
+  public String getColumn098() {
+    return column098;
+  }
+
+  public void setColumn098(String column098) {
+    this.column098 = column098;
+  }
+
+  public String getColumn099() {
+    return column099;
+  }
+
+  public void setColumn099(String column099) {
+    this.column099 = column099;
+  }
+
+  public String getColumn100() {
+    return column100;
+  }
+
+  public void setColumn100(String column100) {
+    this.column100 = column100;
+  }
+
+  public String getColumn101() {
+    return column101;
+  }
+
+  public void setColumn101(String column101) {
+    this.column101 = column101;
+  }
+
+  public String getColumn102() {
+    return column102;
+  }
+
+  public void setColumn102(String column102) {
+    this.column102 = column102;
+  }
+
+  public String getColumn103() {
+    return column103;
+  }
+
+  public void setColumn103(String column103) {
+    this.column103 = column103;
+  }
+
+  public String getColumn104() {
+    return column104;
+  }
+
+  public void setColumn104(String column104) {
+    this.column104 = column104;
+  }
+
+  public String getColumn105() {
+    return column105;
+  }
+
+  public void setColumn105(String column105) {
+    this.column105 = column105;
+  }
+
+  public String getColumn106() {
+    return column106;
+  }
+
+  public void setColumn106(String column106) {
+    this.column106 = column106;
+  }
+
+  public String getColumn107() {
+    return column107;
+  }
+
+  public void setColumn107(String column107) {
+    this.column107 = column107;
+  }
+
+  public String getColumn108() {
+    return column108;
+  }
+
+  public void setColumn108(String column108) {
+    this.column108 = column108;
+  }
+
+  public String getColumn109() {
+    return column109;
+  }
+
+  public void setColumn109(String column109) {
+    this.column109 = column109;
+  }
+
+  public String getColumn110() {
+    return column110;
+  }
+
+  public void setColumn110(String column110) {
+    this.column110 = column110;
+  }
+
+  public String getColumn111() {
+    return column111;
+  }
+
+  public void setColumn111(String column111) {
+    this.column111 = column111;
+  }
+
+  public String getColumn112() {
+    return column112;
+  }
+
+  public void setColumn112(String column112) {
+    this.column112 = column112;
+  }
+
+  public String getColumn113() {
+    return column113;
+  }
+
+  public void setColumn113(String column113) {
+    this.column113 = column113;
+  }
+
+  public String getColumn114() {
+    return column114;
+  }
+
+  public void setColumn114(String column114) {
+    this.column114 = column114;
+  }
+
+  public String getColumn115() {
+    return column115;
+  }
+
+  public void setColumn115(String column115) {
+    this.column115 = column115;
+  }
+
+  public String getColumn116() {
+    return column116;
+  }
+
+  public void setColumn116(String column116) {
+    this.column116 = column116;
+  }
+
+  public String getColumn117() {
+    return column117;
+  }
+
+  public void setColumn117(String column117) {
+    this.column117 = column117;
+  }
+
+  public String getColumn118() {
+    return column118;
+  }
+
+  public void setColumn118(String column118) {
+    this.column118 = column118;
+  }
+}
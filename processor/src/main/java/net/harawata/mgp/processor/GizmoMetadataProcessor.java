@@ -0,0 +1,190 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+/**
+ * Generates a metadata class for each class annotated with {@code @Table}.
+ * <p>
+ * The generated class is named {@code <EntityClass>_GizmoMetadata} (for a nested class, the enclosing class names are
+ * joined with '_') and is used by the Gizmo providers instead of inspecting the entity class via reflection at runtime.
+ * Only explicitly specified table/column names are stored so that the default names are resolved by the provider.
+ */
+@SupportedAnnotationTypes("jakarta.persistence.Table")
+public class GizmoMetadataProcessor extends AbstractProcessor {
+
+  static final String SUFFIX = "_GizmoMetadata";
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (Element element : roundEnv.getElementsAnnotatedWith(Table.class)) {
+      if (element.getKind() != ElementKind.CLASS) {
+        continue;
+      }
+      TypeElement type = (TypeElement) element;
+      try {
+        generate(type);
+      } catch (IOException e) {
+        processingEnv.getMessager().printMessage(Kind.ERROR, "Failed to generate Gizmo metadata: " + e, type);
+      }
+    }
+    // Other processors may handle @Table as well.
+    return false;
+  }
+
+  private void generate(TypeElement type) throws IOException {
+    Elements elements = processingEnv.getElementUtils();
+    String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+    String className = flatName(type) + SUFFIX;
+
+    Table table = type.getAnnotation(Table.class);
+    String tableName = table.name().isEmpty() ? null : table.name();
+    String catalogOrSchema = !table.catalog().isEmpty() ? table.catalog()
+        : !table.schema().isEmpty() ? table.schema() : null;
+
+    List<VariableElement> fields = new ArrayList<>();
+    collectFields(fields, type);
+
+    String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+    try (PrintWriter out = new PrintWriter(processingEnv.getFiler().createSourceFile(qualifiedName, type)
+        .openWriter())) {
+      if (!packageName.isEmpty()) {
+        out.println("package " + packageName + ";");
+        out.println();
+      }
+      out.println("@javax.annotation.processing.Generated(\"" + getClass().getName() + "\")");
+      out.println("public final class " + className + " {");
+      out.println("  public static final String TABLE = " + literal(tableName) + ";");
+      out.println("  public static final String CATALOG_OR_SCHEMA = " + literal(catalogOrSchema) + ";");
+      out.println("  public static final String[] PROPERTIES = "
+          + array(fields, f -> literal(f.getSimpleName().toString())) + ";");
+      out.println("  public static final String[] COLUMNS = " + array(fields, f -> {
+        Column column = f.getAnnotation(Column.class);
+        return literal(column == null || column.name().isEmpty() ? null : column.name());
+      }) + ";");
+      out.println("  public static final boolean[] INSERTABLE = " + array(fields, f -> {
+        Column column = f.getAnnotation(Column.class);
+        // Identity columns are generated by the database
+        return String.valueOf((column == null || column.insertable()) && !isIdentity(f));
+      }) + ";");
+      out.println("  public static final boolean[] GENERATED = " + array(fields, f -> {
+        Column column = f.getAnnotation(Column.class);
+        return String.valueOf((column == null || column.insertable()) && isIdentity(f));
+      }) + ";");
+      out.println("  public static final boolean[] UPDATABLE = " + array(fields, f -> {
+        Column column = f.getAnnotation(Column.class);
+        return String.valueOf(column == null || column.updatable());
+      }) + ";");
+      out.println("  public static final String VERSION = " + literal(fields.stream()
+          .filter(f -> f.getAnnotation(Version.class) != null).map(f -> f.getSimpleName().toString()).findFirst()
+          .orElse(null)) + ";");
+      out.println();
+      out.println("  private " + className + "() {");
+      out.println("    super();");
+      out.println("  }");
+      out.println("}");
+    }
+  }
+
+  private void collectFields(List<VariableElement> fields, TypeElement type) {
+    if (type == null || type.getQualifiedName().contentEquals("java.lang.Object")) {
+      return;
+    }
+    for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+      if (!field.getModifiers().contains(Modifier.STATIC) && !ignoredType(field.asType())) {
+        fields.add(field);
+      }
+    }
+    TypeMirror superclass = type.getSuperclass();
+    if (superclass.getKind() == TypeKind.DECLARED) {
+      collectFields(fields, (TypeElement) processingEnv.getTypeUtils().asElement(superclass));
+    }
+  }
+
+  private static boolean isIdentity(VariableElement field) {
+    GeneratedValue generatedValue = field.getAnnotation(GeneratedValue.class);
+    return generatedValue != null && generatedValue.strategy() == GenerationType.IDENTITY;
+  }
+
+  private boolean ignoredType(TypeMirror fieldType) {
+    if (fieldType.getKind().isPrimitive()) {
+      return false;
+    }
+    Types types = processingEnv.getTypeUtils();
+    Elements elements = processingEnv.getElementUtils();
+    TypeMirror erasure = types.erasure(fieldType);
+    return types.isAssignable(erasure, types.erasure(elements.getTypeElement("java.util.Collection").asType()))
+        || types.isAssignable(erasure, types.erasure(elements.getTypeElement("java.util.Map").asType()));
+  }
+
+  private static String flatName(TypeElement type) {
+    Element enclosing = type.getEnclosingElement();
+    if (enclosing instanceof TypeElement) {
+      return flatName((TypeElement) enclosing) + "_" + type.getSimpleName();
+    }
+    return type.getSimpleName().toString();
+  }
+
+  private String literal(String value) {
+    return value == null ? "null" : processingEnv.getElementUtils().getConstantExpression(value);
+  }
+
+  private static String array(List<VariableElement> fields, Function<VariableElement, String> mapper) {
+    return fields.stream().map(mapper).collect(Collectors.joining(", ", "{ ", " }"));
+  }
+}
@@ -0,0 +1,109 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp.processor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GizmoMetadataProcessorTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void testGenerateMetadata() throws Exception {
+    Path src = tempDir.resolve("src/foo");
+    Files.createDirectories(src);
+    Files.write(src.resolve("Base.java"), List.of(
+        "package foo;",
+        "public class Base {",
+        "  @jakarta.persistence.Version",
+        "  private Integer version;",
+        "}"), StandardCharsets.UTF_8);
+    Files.write(src.resolve("User.java"), List.of(
+        "package foo;",
+        "import jakarta.persistence.*;",
+        "@Table(name = \"user_table\", schema = \"s\")",
+        "public class User extends Base {",
+        "  private static final long serialVersionUID = 1L;",
+        "  @Column(insertable = false, updatable = false)",
+        "  private Integer id;",
+        "  @Column(name = \"firstname\", updatable = false)",
+        "  private String firstName;",
+        "  private java.util.List<String> roles;",
+        "  private int[] scores;",
+        "  @Table",
+        "  public static class Nested {",
+        "    @GeneratedValue(strategy = GenerationType.IDENTITY)",
+        "    private Long id;",
+        "    private String name;",
+        "  }",
+        "}"), StandardCharsets.UTF_8);
+
+    Path classes = tempDir.resolve("classes");
+    Files.createDirectories(classes);
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    int result = compiler.run(null, null, null, "-classpath", System.getProperty("java.class.path"), "-processor",
+        GizmoMetadataProcessor.class.getName(), "-d", classes.toString(), "-s", classes.toString(),
+        src.resolve("Base.java").toString(), src.resolve("User.java").toString());
+    assertEquals(0, result);
+
+    try (URLClassLoader loader = new URLClassLoader(new URL[] { classes.toUri().toURL() })) {
+      Class<?> metadata = loader.loadClass("foo.User_GizmoMetadata");
+      assertEquals("user_table", metadata.getField("TABLE").get(null));
+      assertEquals("s", metadata.getField("CATALOG_OR_SCHEMA").get(null));
+      assertArrayEquals(new String[] { "id", "firstName", "scores", "version" },
+          (String[]) metadata.getField("PROPERTIES").get(null));
+      assertEquals(Arrays.asList(null, "firstname", null, null),
+          Arrays.asList((String[]) metadata.getField("COLUMNS").get(null)));
+      assertArrayEquals(new boolean[] { false, true, true, true },
+          (boolean[]) metadata.getField("INSERTABLE").get(null));
+      assertArrayEquals(new boolean[] { false, false, true, true },
+          (boolean[]) metadata.getField("UPDATABLE").get(null));
+      assertArrayEquals(new boolean[] { false, false, false, false },
+          (boolean[]) metadata.getField("GENERATED").get(null));
+      assertEquals("version", metadata.getField("VERSION").get(null));
+
+      Class<?> nested = loader.loadClass("foo.User_Nested_GizmoMetadata");
+      assertNull(nested.getField("TABLE").get(null));
+      assertArrayEquals(new String[] { "id", "name" }, (String[]) nested.getField("PROPERTIES").get(null));
+      assertArrayEquals(new boolean[] { false, true }, (boolean[]) nested.getField("INSERTABLE").get(null));
+      assertArrayEquals(new boolean[] { true, false }, (boolean[]) nested.getField("GENERATED").get(null));
+      assertNull(nested.getField("VERSION").get(null));
+    }
+  }
+}
@@ -0,0 +1,94 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Splits a list into chunks that fit in a multi-row statement.
+ *
+ * <pre>
+ * int count = Chunks.execute(MssqlProvider.class, users, mapper::insertUsers);
+ * </pre>
+ */
+public final class Chunks {
+
+  private Chunks() {
+    super();
+  }
+
+  /**
+   * Executes the multi-row statement for each chunk of the list.
+   *
+   * @param providerType
+   *          the provider that generates the statement
+   * @param beans
+   *          the beans to pass to the statement
+   * @param statement
+   *          the mapper method (e.g. {@code mapper::insertUsers})
+   *
+   * @return the sum of the update counts
+   */
+  public static <T> int execute(Class<? extends GizmoProvider> providerType, List<T> beans,
+      ToIntFunction<List<T>> statement) {
+    return execute(providerType, beans, statement, false);
+  }
+
+  /**
+   * Executes the multi-row UPSERT statement for each chunk of the list. The chunks can be smaller than those of
+   * {@link #execute(Class, List, ToIntFunction)} as UPSERT may bind more parameters per row (see
+   * {@link GizmoProvider#getMaxRowsPerUpsert(Class)}).
+   */
+  public static <T> int executeUpsert(Class<? extends GizmoProvider> providerType, List<T> beans,
+      ToIntFunction<List<T>> statement) {
+    return execute(providerType, beans, statement, true);
+  }
+
+  private static <T> int execute(Class<? extends GizmoProvider> providerType, List<T> beans,
+      ToIntFunction<List<T>> statement, boolean upsert) {
+    if (beans.isEmpty()) {
+      return 0;
+    }
+    GizmoProvider provider = newProvider(providerType);
+    Class<?> beanClass = beans.get(0).getClass();
+    int count = 0;
+    for (int i = 0; i < beans.size();) {
+      int remaining = beans.size() - i;
+      int chunkSize = upsert ? provider.getUpsertChunkSize(beanClass, remaining)
+          : provider.getChunkSize(beanClass, remaining);
+      count += statement.applyAsInt(beans.subList(i, i + chunkSize));
+      i += chunkSize;
+    }
+    return count;
+  }
+
+  static GizmoProvider newProvider(Class<? extends GizmoProvider> providerType) {
+    try {
+      return providerType.getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalArgumentException("Failed to instantiate " + providerType.getName(), e);
+    }
+  }
+}
@@ -0,0 +1,144 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+
+/**
+ * Runs a transaction and retries it when it is chosen as a deadlock victim.
+ * <p>
+ * The wait before each retry is a random value between 0 and {@code baseDelayMillis * 2^(attempt - 1)} (capped by
+ * {@code maxDelayMillis}), so that the transactions that deadlocked do not collide again.
+ *
+ * <pre>
+ * int count = new DeadlockRetry(sqlSessionFactory).maxAttempts(5)
+ *     .execute(session -&gt; session.getMapper(CompanyMapper.class).upsertCompanyOnId(company));
+ * </pre>
+ */
+public class DeadlockRetry {
+
+  private final SqlSessionFactory sqlSessionFactory;
+  private int maxAttempts = 5;
+  private long baseDelayMillis = 10;
+  private long maxDelayMillis = 1000;
+
+  public DeadlockRetry(SqlSessionFactory sqlSessionFactory) {
+    this.sqlSessionFactory = sqlSessionFactory;
+  }
+
+  /**
+   * The maximum number of attempts including the first one (default: 5).
+   */
+  public DeadlockRetry maxAttempts(int maxAttempts) {
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("maxAttempts must be positive.");
+    }
+    this.maxAttempts = maxAttempts;
+    return this;
+  }
+
+  /**
+   * @param baseDelayMillis
+   *          the upper bound of the wait before the first retry, doubled for each retry (default: 10). If it is 0,
+   *          the transaction is retried immediately.
+   * @param maxDelayMillis
+   *          the upper bound of the wait (default: 1000)
+   */
+  public DeadlockRetry backoff(long baseDelayMillis, long maxDelayMillis) {
+    if (baseDelayMillis < 0 || maxDelayMillis < baseDelayMillis) {
+      throw new IllegalArgumentException("Invalid backoff: " + baseDelayMillis + ", " + maxDelayMillis);
+    }
+    this.baseDelayMillis = baseDelayMillis;
+    this.maxDelayMillis = maxDelayMillis;
+    return this;
+  }
+
+  /**
+   * Opens a session, applies the function and commits. If a deadlock is detected, the transaction is rolled back and
+   * the function is applied again in a new session.
+   *
+   * @throws RuntimeException
+   *           the last exception if the function does not succeed within the maximum attempts or the exception is not
+   *           caused by a deadlock
+   */
+  public <T> T execute(Function<SqlSession, T> transaction) {
+    for (int attempt = 1;; attempt++) {
+      try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+        T result = transaction.apply(sqlSession);
+        sqlSession.commit();
+        return result;
+      } catch (RuntimeException e) {
+        // Closing the session rolls back the transaction
+        if (attempt >= maxAttempts || !isDeadlock(e)) {
+          throw e;
+        }
+        try {
+          Thread.sleep(getDelayMillis(attempt));
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+          throw e;
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the wait before the retry after the specified attempt failed.
+   */
+  protected long getDelayMillis(int attempt) {
+    if (baseDelayMillis == 0) {
+      return 0;
+    }
+    long bound = baseDelayMillis << Math.min(attempt - 1, 30);
+    if (bound <= 0 || bound > maxDelayMillis) {
+      bound = maxDelayMillis;
+    }
+    return ThreadLocalRandom.current().nextLong(bound + 1);
+  }
+
+  /**
+   * Returns {@code true} if the exception is caused by a deadlock, i.e. SQL Server error 1205, Oracle ORA-00060 or
+   * SQLSTATE 40001 (serialization failure, e.g. MySQL error 1213).
+   */
+  protected boolean isDeadlock(Throwable e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof SQLException) {
+        SQLException sqlException = (SQLException) cause;
+        String sqlState = sqlException.getSQLState();
+        int errorCode = sqlException.getErrorCode();
+        // MySQL error 1205 is a lock wait timeout (HY000)
+        if ("40001".equals(sqlState) || errorCode == 1205 && !"HY000".equals(sqlState)
+            || errorCode == 60 && "61000".equals(sqlState)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+}
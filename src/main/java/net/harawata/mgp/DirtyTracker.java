@@ -0,0 +1,161 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.reflection.Reflector;
+
+import net.harawata.mgp.EntityMetadata.Property;
+
+/**
+ * Keeps snapshots of bean properties so that {@code updateDirty...} statements contain only the changed properties.
+ * <p>
+ * Beans are tracked by identity and the snapshots are discarded when the beans are garbage collected. Only the
+ * updatable properties are kept, so the snapshot must not refer to the bean via those values. Property values
+ * are compared with {@link Objects#equals(Object, Object)}, so in-place modifications of mutable values (e.g.
+ * {@code java.util.Date}) are not detected.
+ *
+ * @see DirtyTrackingInterceptor
+ */
+public final class DirtyTracker {
+
+  private static final Map<IdentityKey, Map<String, Object>> snapshots = new ConcurrentHashMap<>();
+  private static final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+  private DirtyTracker() {
+    super();
+  }
+
+  /**
+   * Takes a snapshot of the bean's updatable properties. If the bean is already tracked, the snapshot is replaced.
+   */
+  public static void track(Object bean) {
+    expungeStaleEntries();
+    Reflector reflector = GizmoProvider.reflectorFactory.findForClass(bean.getClass());
+    List<Property> properties = GizmoProvider.getUpdatableProperties(bean.getClass());
+    Map<String, Object> snapshot = new HashMap<>(properties.size() * 4 / 3 + 1);
+    for (int i = 0; i < properties.size(); i++) {
+      String propertyName = properties.get(i).getName();
+      snapshot.put(propertyName, getValue(reflector, bean, propertyName));
+    }
+    snapshots.put(new IdentityKey(bean, queue), snapshot);
+  }
+
+  public static void untrack(Object bean) {
+    expungeStaleEntries();
+    snapshots.remove(new IdentityKey(bean, null));
+  }
+
+  public static boolean isTracked(Object bean) {
+    return snapshots.containsKey(new IdentityKey(bean, null));
+  }
+
+  /**
+   * Returns {@code true} if the bean is not tracked or any of its properties has changed since the snapshot.
+   */
+  public static boolean isDirty(Object bean) {
+    Map<String, Object> snapshot = snapshots.get(new IdentityKey(bean, null));
+    if (snapshot == null) {
+      return true;
+    }
+    Reflector reflector = GizmoProvider.reflectorFactory.findForClass(bean.getClass());
+    for (Map.Entry<String, Object> entry : snapshot.entrySet()) {
+      if (!Objects.equals(entry.getValue(), getValue(reflector, bean, entry.getKey()))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the indexes of the properties that have changed since the snapshot or {@code null} if the bean is not
+   * tracked.
+   */
+  static BitSet getChangedProperties(Object bean, List<Property> properties) {
+    Map<String, Object> snapshot = snapshots.get(new IdentityKey(bean, null));
+    if (snapshot == null) {
+      return null;
+    }
+    Reflector reflector = GizmoProvider.reflectorFactory.findForClass(bean.getClass());
+    BitSet changed = new BitSet(properties.size());
+    for (int i = 0; i < properties.size(); i++) {
+      String propertyName = properties.get(i).getName();
+      if (!snapshot.containsKey(propertyName)
+          || !Objects.equals(snapshot.get(propertyName), getValue(reflector, bean, propertyName))) {
+        changed.set(i);
+      }
+    }
+    return changed;
+  }
+
+  private static Object getValue(Reflector reflector, Object bean, String propertyName) {
+    try {
+      return reflector.getGetInvoker(propertyName).invoke(bean, null);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Failed to read the property '" + propertyName + "' of "
+          + bean.getClass().getName(), e);
+    }
+  }
+
+  private static void expungeStaleEntries() {
+    for (Reference<?> ref; (ref = queue.poll()) != null;) {
+      snapshots.remove(ref);
+    }
+  }
+
+  private static final class IdentityKey extends WeakReference<Object> {
+    private final int hashCode;
+
+    IdentityKey(Object referent, ReferenceQueue<Object> queue) {
+      super(referent, queue);
+      this.hashCode = System.identityHashCode(referent);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof IdentityKey)) {
+        return false;
+      }
+      Object referent = get();
+      return referent != null && referent == ((IdentityKey) obj).get();
+    }
+  }
+}
@@ -0,0 +1,109 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp;
+
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+
+/**
+ * Registers beans to {@link DirtyTracker} when they are loaded, and takes a new snapshot after a tracked bean is
+ * written.
+ * <p>
+ * Only the top-level result objects whose entity metadata has been loaded by a provider (i.e. beans written by
+ * generated statements) are tracked, not nested beans of associations or collections nor DTOs. Use
+ * {@link StatementPreloader} to track the beans loaded before the first write. A new snapshot is taken only if the
+ * update count is positive; with the BATCH executor, it is taken when {@code SqlSession#flushStatements()} returns
+ * the counts. If the transaction is rolled back after the update, call {@link DirtyTracker#untrack(Object)} or reload
+ * the bean.
+ *
+ * <pre>
+ * &lt;plugins&gt;
+ *   &lt;plugin interceptor="net.harawata.mgp.DirtyTrackingInterceptor" /&gt;
+ * &lt;/plugins&gt;
+ * </pre>
+ */
+@Intercepts({
+    @Signature(type = ResultSetHandler.class, method = "handleResultSets", args = { Statement.class }),
+    @Signature(type = Executor.class, method = "update", args = { MappedStatement.class, Object.class }),
+    @Signature(type = Executor.class, method = "flushStatements", args = {}) })
+public class DirtyTrackingInterceptor implements Interceptor {
+
+  private final TypeHandlerRegistry simpleTypes = new TypeHandlerRegistry();
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public Object intercept(Invocation invocation) throws Throwable {
+    Object result = invocation.proceed();
+    if (invocation.getTarget() instanceof ResultSetHandler) {
+      for (Object row : (List<?>) result) {
+        if (row != null && !simpleTypes.hasTypeHandler(row.getClass()) && !(row instanceof Map)
+            && GizmoProvider.hasEntityMetadata(row.getClass())) {
+          DirtyTracker.track(row);
+        }
+      }
+    } else if ("flushStatements".equals(invocation.getMethod().getName())) {
+      for (BatchResult batchResult : (List<BatchResult>) result) {
+        List<Object> params = batchResult.getParameterObjects();
+        int[] counts = batchResult.getUpdateCounts();
+        for (int i = 0; i < params.size() && i < counts.length; i++) {
+          if (counts[i] > 0) {
+            retrackParam(params.get(i));
+          }
+        }
+      }
+    } else if ((Integer) result > 0) {
+      // The BATCH executor returns a negative value until the statements are flushed
+      retrackParam(invocation.getArgs()[1]);
+    }
+    return result;
+  }
+
+  private void retrackParam(Object param) {
+    if (param instanceof ParamMap) {
+      for (Object value : ((ParamMap<?>) param).values()) {
+        retrack(value);
+      }
+    } else {
+      retrack(param);
+    }
+  }
+
+  private void retrack(Object bean) {
+    if (bean != null && DirtyTracker.isTracked(bean)) {
+      DirtyTracker.track(bean);
+    }
+  }
+}
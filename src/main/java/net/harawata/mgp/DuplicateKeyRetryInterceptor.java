@@ -0,0 +1,79 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp;
+
+import java.lang.reflect.InvocationTargetException;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+
+/**
+ * Re-executes a {@code MERGE} statement once when it fails with a unique constraint violation.
+ * <p>
+ * In Oracle, when two sessions MERGE the same new key concurrently, both find no matching row and one of the INSERTs
+ * fails with ORA-00001 after the other session commits. As only the failed statement is rolled back, executing the
+ * same prepared statement again takes the matched branch and the transaction can continue. The retry happens only on
+ * the rare conflict, so the common path is still a single round trip.
+ *
+ * <pre>
+ * &lt;plugins&gt;
+ *   &lt;plugin interceptor="net.harawata.mgp.DuplicateKeyRetryInterceptor" /&gt;
+ * &lt;/plugins&gt;
+ * </pre>
+ *
+ * Note that statements executed with {@code ExecutorType.BATCH} are not retried.
+ */
+@Intercepts({ @Signature(type = StatementHandler.class, method = "update", args = { Statement.class }) })
+public class DuplicateKeyRetryInterceptor implements Interceptor {
+
+  @Override
+  public Object intercept(Invocation invocation) throws Throwable {
+    try {
+      return invocation.proceed();
+    } catch (InvocationTargetException e) {
+      StatementHandler handler = (StatementHandler) invocation.getTarget();
+      if (!(e.getTargetException() instanceof SQLException) || !isDuplicateKey((SQLException) e.getTargetException())
+          || !isMerge(handler.getBoundSql().getSql())) {
+        throw e;
+      }
+      return invocation.proceed();
+    }
+  }
+
+  /**
+   * Returns {@code true} if the exception is a unique constraint violation i.e. Oracle ORA-00001.
+   */
+  protected boolean isDuplicateKey(SQLException e) {
+    return e.getErrorCode() == 1 && "23000".equals(e.getSQLState());
+  }
+
+  protected boolean isMerge(String sql) {
+    return sql.regionMatches(true, 0, "merge", 0, 5);
+  }
+}
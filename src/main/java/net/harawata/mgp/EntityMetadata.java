@@ -0,0 +1,188 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Table and column information of a bean class.
+ * <p>
+ * {@link #getTableName()} and {@link Property#getColumnName()} are not escaped. The escaped names are available in
+ * the metadata returned by {@link GizmoProvider#getEntityMetadata(Class)} so that the providers do not escape
+ * identifiers each time they generate a statement.
+ */
+public final class EntityMetadata {
+
+  private final String tableName;
+  private final String catalogOrSchema;
+  private final List<Property> insertableProperties;
+  private final List<Property> updatableProperties;
+  private final Property versionProperty;
+  private final List<Property> generatedProperties;
+  private final String qualifiedTableName;
+
+  public EntityMetadata(String tableName, String catalogOrSchema, List<Property> insertableProperties,
+      List<Property> updatableProperties) {
+    this(tableName, catalogOrSchema, insertableProperties, updatableProperties, null, List.of(), null);
+  }
+
+  /**
+   * @param versionProperty
+   *          the property annotated with {@code @Version} or {@code null}. It must not be in
+   *          {@code updatableProperties}.
+   */
+  public EntityMetadata(String tableName, String catalogOrSchema, List<Property> insertableProperties,
+      List<Property> updatableProperties, Property versionProperty) {
+    this(tableName, catalogOrSchema, insertableProperties, updatableProperties, versionProperty, List.of(), null);
+  }
+
+  /**
+   * @param generatedProperties
+   *          the properties whose values are generated by the database on INSERT. They must not be in
+   *          {@code insertableProperties}.
+   */
+  public EntityMetadata(String tableName, String catalogOrSchema, List<Property> insertableProperties,
+      List<Property> updatableProperties, Property versionProperty, List<Property> generatedProperties) {
+    this(tableName, catalogOrSchema, insertableProperties, updatableProperties, versionProperty, generatedProperties,
+        null);
+  }
+
+  private EntityMetadata(String tableName, String catalogOrSchema, List<Property> insertableProperties,
+      List<Property> updatableProperties, Property versionProperty, List<Property> generatedProperties,
+      String qualifiedTableName) {
+    this.tableName = tableName;
+    this.catalogOrSchema = catalogOrSchema;
+    this.insertableProperties = List.copyOf(insertableProperties);
+    this.updatableProperties = List.copyOf(updatableProperties);
+    this.versionProperty = versionProperty;
+    this.generatedProperties = List.copyOf(generatedProperties);
+    this.qualifiedTableName = qualifiedTableName;
+  }
+
+  /**
+   * Returns a copy whose escaped names are computed with the given function.
+   */
+  public EntityMetadata escape(Function<CharSequence, CharSequence> escaper) {
+    StringBuilder qualified = new StringBuilder();
+    if (catalogOrSchema != null) {
+      qualified.append(escaper.apply(catalogOrSchema)).append('.');
+    }
+    qualified.append(escaper.apply(tableName));
+    // A property can be both insertable and updatable
+    Map<Property, Property> escaped = new IdentityHashMap<>();
+    Function<Property, Property> escapeProperty = p -> escaped.computeIfAbsent(p,
+        k -> new Property(p.name, p.columnName, escaper.apply(p.columnName).toString()));
+    return new EntityMetadata(tableName, catalogOrSchema,
+        insertableProperties.stream().map(escapeProperty).collect(Collectors.toList()),
+        updatableProperties.stream().map(escapeProperty).collect(Collectors.toList()),
+        versionProperty == null ? null : escapeProperty.apply(versionProperty),
+        generatedProperties.stream().map(escapeProperty).collect(Collectors.toList()), qualified.toString());
+  }
+
+  public String getTableName() {
+    return tableName;
+  }
+
+  public Optional<String> getCatalogOrSchema() {
+    return Optional.ofNullable(catalogOrSchema);
+  }
+
+  /**
+   * Returns the escaped table name qualified with the catalog or schema if any.
+   */
+  public String getQualifiedTableName() {
+    return qualifiedTableName;
+  }
+
+  public List<Property> getInsertableProperties() {
+    return insertableProperties;
+  }
+
+  public List<Property> getUpdatableProperties() {
+    return updatableProperties;
+  }
+
+  /**
+   * Returns the properties whose values are generated by the database on INSERT (i.e.
+   * {@code @GeneratedValue(strategy = IDENTITY)}). They are not insertable, but UPSERT inserts them when they are
+   * the keys.
+   */
+  public List<Property> getGeneratedProperties() {
+    return generatedProperties;
+  }
+
+  /**
+   * Returns the insertable, updatable, generated or version property with the specified name.
+   */
+  public Optional<Property> findProperty(String propertyName) {
+    for (List<Property> properties : List.of(insertableProperties, updatableProperties, generatedProperties)) {
+      for (int i = 0; i < properties.size(); i++) {
+        if (properties.get(i).getName().equals(propertyName)) {
+          return Optional.of(properties.get(i));
+        }
+      }
+    }
+    return getVersionProperty().filter(p -> p.getName().equals(propertyName));
+  }
+
+  /**
+   * Returns the property used for optimistic locking. It is incremented by UPDATE instead of being set.
+   */
+  public Optional<Property> getVersionProperty() {
+    return Optional.ofNullable(versionProperty);
+  }
+
+  public static final class Property {
+    private final String name;
+    private final String columnName;
+    private final String escapedColumnName;
+
+    public Property(String name, String columnName) {
+      this(name, columnName, null);
+    }
+
+    private Property(String name, String columnName, String escapedColumnName) {
+      this.name = name;
+      this.columnName = columnName;
+      this.escapedColumnName = escapedColumnName;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public String getColumnName() {
+      return columnName;
+    }
+
+    public String getEscapedColumnName() {
+      return escapedColumnName;
+    }
+  }
+}
@@ -0,0 +1,138 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp;
+
+import java.lang.invoke.MethodType;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
+
+/**
+ * Assigns the keys returned by {@code insert...Returning...} statements (see
+ * {@link GizmoProvider#insertReturning(org.apache.ibatis.builder.annotation.ProviderContext, Object)}) to the beans
+ * without issuing extra queries.
+ * <p>
+ * The first column of the result set is the index of the bean in the parameter list and the other columns are assigned
+ * to the properties with the same names as the column labels. The update count returned to the caller is the number of
+ * rows in the result set. Other statements are left untouched.
+ *
+ * <pre>
+ * &lt;plugins&gt;
+ *   &lt;plugin interceptor="net.harawata.mgp.GeneratedKeysInterceptor" /&gt;
+ * &lt;/plugins&gt;
+ * </pre>
+ */
+@Intercepts({ @Signature(type = StatementHandler.class, method = "update", args = { Statement.class }) })
+public class GeneratedKeysInterceptor implements Interceptor {
+
+  private static final String ROW_INDEX_LABEL = '"' + GizmoProvider.ROW_INDEX + '"';
+
+  @Override
+  public Object intercept(Invocation invocation) throws Throwable {
+    StatementHandler handler = (StatementHandler) invocation.getTarget();
+    if (!isInsertReturning(handler)) {
+      return invocation.proceed();
+    }
+    Object result = invocation.proceed();
+    Statement statement = (Statement) invocation.getArgs()[0];
+    ResultSet rs = statement.getResultSet();
+    if (rs == null && statement.getMoreResults()) {
+      // e.g. an implicit result returned from a PL/SQL block
+      rs = statement.getResultSet();
+    }
+    if (rs == null) {
+      return result;
+    }
+    try (ResultSet keys = rs) {
+      return assignKeys(keys, getBeans(handler.getParameterHandler().getParameterObject()));
+    }
+  }
+
+  /**
+   * Returns whether the statement was generated by {@code insertReturning}, i.e. it outputs the row index column.
+   */
+  protected boolean isInsertReturning(StatementHandler handler) {
+    return handler.getBoundSql().getSql().contains(ROW_INDEX_LABEL);
+  }
+
+  protected int assignKeys(ResultSet rs, List<?> beans) throws SQLException {
+    ResultSetMetaData rsmd = rs.getMetaData();
+    int columnCount = rsmd.getColumnCount();
+    String[] propertyNames = new String[columnCount + 1];
+    for (int i = 2; i <= columnCount; i++) {
+      propertyNames[i] = rsmd.getColumnLabel(i);
+    }
+    int rows = 0;
+    while (rs.next()) {
+      int index = rs.getInt(1);
+      if (index < 0 || index >= beans.size()) {
+        throw new IllegalStateException("Invalid row index " + index + " for " + beans.size() + " bean(s).");
+      }
+      MetaObject metaObject = SystemMetaObject.forObject(beans.get(index));
+      for (int i = 2; i <= columnCount; i++) {
+        Class<?> type = MethodType.methodType(metaObject.getSetterType(propertyNames[i])).wrap().returnType();
+        metaObject.setValue(propertyNames[i], rs.getObject(i, type));
+      }
+      rows++;
+    }
+    return rows;
+  }
+
+  /**
+   * Returns the beans passed as the first parameter of the mapper method.
+   */
+  protected List<?> getBeans(Object param) {
+    return toBeans(param);
+  }
+
+  static List<?> toBeans(Object param) {
+    if (param instanceof Map) {
+      Map<?, ?> params = (Map<?, ?>) param;
+      if (params.containsKey("collection")) {
+        param = params.get("collection");
+      } else if (params.containsKey("param1")) {
+        param = params.get("param1");
+      }
+    }
+    if (param instanceof List) {
+      return (List<?>) param;
+    } else if (param instanceof Collection) {
+      return new ArrayList<>((Collection<?>) param);
+    }
+    return List.of(param);
+  }
+}
@@ -0,0 +1,201 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+
+/**
+ * Executes mapper methods asynchronously.
+ * <p>
+ * Each call runs in its own {@code SqlSession} and transaction on the executor. The number of concurrent calls is
+ * limited by a semaphore, which should match the size of the connection pool. Waiting for a permit blocks the
+ * executor's thread, not the caller. On Java 21 or later, the default executor uses virtual threads, so thousands of
+ * calls can wait cheaply. On older versions, it has as many platform threads as permits, and the other calls wait in
+ * its queue.
+ *
+ * <pre>
+ * try (GizmoAsync&lt;UserMapper&gt; async = new GizmoAsync&lt;&gt;(sqlSessionFactory, UserMapper.class, 20)) {
+ *   CompletableFuture&lt;Integer&gt; count = async.submit(mapper -&gt; mapper.insertUser(user));
+ *   // or via an interface whose methods return CompletableFuture
+ *   UserAsyncMapper asyncMapper = async.proxy(UserAsyncMapper.class);
+ * }
+ * </pre>
+ *
+ * @param <M>
+ *          the mapper type
+ */
+public class GizmoAsync<M> implements AutoCloseable {
+
+  private final SqlSessionFactory sqlSessionFactory;
+  private final Class<M> mapperType;
+  private final Semaphore permits;
+  private final ExecutorService executor;
+  private final boolean ownsExecutor;
+
+  /**
+   * Uses {@link #newDefaultExecutor(int)}, which is shut down by {@link #close()}.
+   *
+   * @param maxConcurrency
+   *          the maximum number of calls executed at the same time
+   */
+  public GizmoAsync(SqlSessionFactory sqlSessionFactory, Class<M> mapperType, int maxConcurrency) {
+    this(sqlSessionFactory, mapperType, maxConcurrency, newDefaultExecutor(maxConcurrency), true);
+  }
+
+  /**
+   * @param executor
+   *          the executor to run calls on, which is not shut down by {@link #close()}
+   */
+  public GizmoAsync(SqlSessionFactory sqlSessionFactory, Class<M> mapperType, int maxConcurrency,
+      ExecutorService executor) {
+    this(sqlSessionFactory, mapperType, maxConcurrency, executor, false);
+  }
+
+  private GizmoAsync(SqlSessionFactory sqlSessionFactory, Class<M> mapperType, int maxConcurrency,
+      ExecutorService executor, boolean ownsExecutor) {
+    if (maxConcurrency < 1) {
+      throw new IllegalArgumentException("maxConcurrency must be positive.");
+    }
+    this.sqlSessionFactory = sqlSessionFactory;
+    this.mapperType = mapperType;
+    this.permits = new Semaphore(maxConcurrency);
+    this.executor = executor;
+    this.ownsExecutor = ownsExecutor;
+  }
+
+  /**
+   * Returns a virtual-thread-per-task executor on Java 21 or later. Otherwise, returns a fixed thread pool of
+   * {@code maxConcurrency} threads because each call blocks a thread while it waits for a permit.
+   */
+  public static ExecutorService newDefaultExecutor(int maxConcurrency) {
+    if (maxConcurrency < 1) {
+      throw new IllegalArgumentException("maxConcurrency must be positive.");
+    }
+    try {
+      Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) method.invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return Executors.newFixedThreadPool(maxConcurrency);
+    }
+  }
+
+  /**
+   * Executes the function with a mapper and commits the transaction if it completes normally.
+   */
+  public <R> CompletableFuture<R> submit(Function<M, R> call) {
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        permits.acquire();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new CompletionException(e);
+      }
+      try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+        R result = call.apply(sqlSession.getMapper(mapperType));
+        sqlSession.commit();
+        return result;
+      } finally {
+        permits.release();
+      }
+    }, executor);
+  }
+
+  /**
+   * Creates an implementation of the interface whose methods return {@code CompletableFuture} (or
+   * {@code CompletionStage}) and call the mapper method with the same name and parameter types.
+   */
+  @SuppressWarnings("unchecked")
+  public <A> A proxy(Class<A> asyncType) {
+    Map<Method, Method> mapperMethods = new HashMap<>();
+    for (Method asyncMethod : asyncType.getMethods()) {
+      if (!asyncMethod.getReturnType().isAssignableFrom(CompletableFuture.class)
+          || !CompletionStage.class.isAssignableFrom(asyncMethod.getReturnType())) {
+        throw new IllegalArgumentException(
+            "The return type of " + asyncType.getSimpleName() + "." + asyncMethod.getName()
+                + " must be CompletableFuture or CompletionStage.");
+      }
+      try {
+        Method mapperMethod = mapperType.getMethod(asyncMethod.getName(), asyncMethod.getParameterTypes());
+        // The mapper interface may not be public
+        mapperMethod.trySetAccessible();
+        mapperMethods.put(asyncMethod, mapperMethod);
+      } catch (NoSuchMethodException e) {
+        throw new IllegalArgumentException(
+            mapperType.getSimpleName() + " has no method that matches " + asyncType.getSimpleName() + "."
+                + asyncMethod.getName(),
+            e);
+      }
+    }
+    return (A) Proxy.newProxyInstance(asyncType.getClassLoader(), new Class<?>[] { asyncType },
+        (proxy, method, args) -> {
+          Method mapperMethod = mapperMethods.get(method);
+          if (mapperMethod == null) {
+            // Methods declared in Object
+            switch (method.getName()) {
+              case "equals":
+                return proxy == args[0];
+              case "hashCode":
+                return System.identityHashCode(proxy);
+              case "toString":
+                return asyncType.getName() + " for " + mapperType.getName();
+              default:
+                throw new UnsupportedOperationException(method.getName());
+            }
+          }
+          return submit(mapper -> {
+            try {
+              return mapperMethod.invoke(mapper, args);
+            } catch (InvocationTargetException e) {
+              throw new CompletionException(e.getCause());
+            } catch (IllegalAccessException e) {
+              throw new IllegalStateException(e);
+            }
+          });
+        });
+  }
+
+  /**
+   * Shuts down the default executor. Calls already submitted are completed.
+   */
+  @Override
+  public void close() {
+    if (ownsExecutor) {
+      executor.shutdown();
+    }
+  }
+}
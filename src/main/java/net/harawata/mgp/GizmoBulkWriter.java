@@ -0,0 +1,293 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+
+/**
+ * Writes a large number of beans through a {@code BATCH} executor.
+ * <p>
+ * The beans are consumed lazily and at most one batch is buffered, so the memory usage does not depend on the input
+ * size.
+ *
+ * <pre>
+ * BulkResult result = new GizmoBulkWriter&lt;&gt;(sqlSessionFactory, UserMapper.class, UserMapper::insertUser)
+ *     .batchSize(500).commitInterval(10_000).write(users.stream());
+ * </pre>
+ *
+ * @param <M>
+ *          the mapper type
+ * @param <T>
+ *          the bean type
+ */
+public class GizmoBulkWriter<M, T> {
+
+  private final SqlSessionFactory sqlSessionFactory;
+  private final Class<M> mapperType;
+  private final BiConsumer<M, ? super T> statement;
+  private int batchSize = 1000;
+  private long commitInterval;
+  private long memoryCeiling = Long.MAX_VALUE;
+  private ToLongFunction<? super T> sizeEstimator = bean -> 0L;
+  private Consumer<ChunkStats> listener = stats -> {
+  };
+
+  /**
+   * @param statement
+   *          the mapper method that takes a single bean (e.g. {@code UserMapper::insertUser})
+   */
+  public GizmoBulkWriter(SqlSessionFactory sqlSessionFactory, Class<M> mapperType, BiConsumer<M, ? super T> statement) {
+    this.sqlSessionFactory = sqlSessionFactory;
+    this.mapperType = mapperType;
+    this.statement = statement;
+  }
+
+  /**
+   * The number of rows sent to the database at once (default: 1000).
+   */
+  public GizmoBulkWriter<M, T> batchSize(int batchSize) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("batchSize must be positive.");
+    }
+    this.batchSize = batchSize;
+    return this;
+  }
+
+  /**
+   * The number of rows per transaction. With {@code 0} (default), all rows are committed at the end.
+   * <p>
+   * A commit always flushes the current batch, so it is recommended to use a multiple of the batch size.
+   */
+  public GizmoBulkWriter<M, T> commitInterval(long commitInterval) {
+    if (commitInterval < 0) {
+      throw new IllegalArgumentException("commitInterval must not be negative.");
+    }
+    this.commitInterval = commitInterval;
+    return this;
+  }
+
+  /**
+   * Flushes the batch before its estimated size exceeds the ceiling even if it contains fewer rows than the batch
+   * size.
+   *
+   * @param memoryCeiling
+   *          the maximum size of a batch in bytes
+   * @param sizeEstimator
+   *          returns the estimated size of a bean in bytes
+   */
+  public GizmoBulkWriter<M, T> memoryCeiling(long memoryCeiling, ToLongFunction<? super T> sizeEstimator) {
+    if (memoryCeiling < 1) {
+      throw new IllegalArgumentException("memoryCeiling must be positive.");
+    }
+    this.memoryCeiling = memoryCeiling;
+    this.sizeEstimator = sizeEstimator;
+    return this;
+  }
+
+  /**
+   * Receives the statistics of each flushed batch.
+   */
+  public GizmoBulkWriter<M, T> listener(Consumer<ChunkStats> listener) {
+    this.listener = listener;
+    return this;
+  }
+
+  public BulkResult write(Stream<? extends T> beans) {
+    return write(beans.iterator());
+  }
+
+  public BulkResult write(Spliterator<? extends T> beans) {
+    return write(Spliterators.iterator(beans));
+  }
+
+  /**
+   * Executes the statement for each bean and commits the transaction every {@code commitInterval} rows and at the end.
+   * If an exception is thrown, the rows after the last commit are rolled back.
+   */
+  public BulkResult write(Iterator<? extends T> beans) {
+    long start = System.nanoTime();
+    Batch batch = new Batch();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH, false)) {
+      M mapper = sqlSession.getMapper(mapperType);
+      long uncommitted = 0;
+      while (beans.hasNext()) {
+        T bean = beans.next();
+        long size = sizeEstimator.applyAsLong(bean);
+        if (batch.rows > 0 && batch.bytes + size > memoryCeiling) {
+          batch.flush(sqlSession);
+        }
+        if (batch.rows == 0) {
+          batch.start = System.nanoTime();
+        }
+        statement.accept(mapper, bean);
+        batch.rows++;
+        batch.bytes += size;
+        uncommitted++;
+        if (batch.rows >= batchSize) {
+          batch.flush(sqlSession);
+        }
+        if (commitInterval > 0 && uncommitted >= commitInterval) {
+          batch.flush(sqlSession);
+          sqlSession.commit();
+          uncommitted = 0;
+        }
+      }
+      batch.flush(sqlSession);
+      sqlSession.commit();
+    }
+    return new BulkResult(batch.totalRows, batch.totalAffectedRows, batch.chunks, System.nanoTime() - start);
+  }
+
+  private class Batch {
+    long start;
+    int rows;
+    long bytes;
+    int chunks;
+    long totalRows;
+    long totalAffectedRows;
+
+    void flush(SqlSession sqlSession) {
+      if (rows == 0) {
+        return;
+      }
+      long affectedRows = countAffectedRows(sqlSession.flushStatements());
+      ChunkStats stats = new ChunkStats(chunks++, rows, affectedRows, System.nanoTime() - start);
+      totalRows += rows;
+      totalAffectedRows += affectedRows;
+      rows = 0;
+      bytes = 0;
+      listener.accept(stats);
+    }
+  }
+
+  static long countAffectedRows(List<BatchResult> results) {
+    long count = 0;
+    for (BatchResult result : results) {
+      for (int updateCount : result.getUpdateCounts()) {
+        // Some drivers return SUCCESS_NO_INFO (-2)
+        if (updateCount > 0) {
+          count += updateCount;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Statistics of a flushed batch.
+   */
+  public static final class ChunkStats {
+    private final int index;
+    private final int rows;
+    private final long affectedRows;
+    private final long elapsedNanos;
+
+    public ChunkStats(int index, int rows, long affectedRows, long elapsedNanos) {
+      this.index = index;
+      this.rows = rows;
+      this.affectedRows = affectedRows;
+      this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getIndex() {
+      return index;
+    }
+
+    public int getRows() {
+      return rows;
+    }
+
+    /**
+     * Returns the sum of the update counts reported by the driver, which can be smaller than the number of rows if the
+     * driver does not report them.
+     */
+    public long getAffectedRows() {
+      return affectedRows;
+    }
+
+    /**
+     * Returns the time from the first row of the batch until the batch was flushed.
+     */
+    public long getElapsedNanos() {
+      return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+      return "ChunkStats [index=" + index + ", rows=" + rows + ", affectedRows=" + affectedRows + ", elapsedNanos="
+          + elapsedNanos + "]";
+    }
+  }
+
+  /**
+   * The result of {@link GizmoBulkWriter#write(Iterator)}.
+   */
+  public static final class BulkResult {
+    private final long rows;
+    private final long affectedRows;
+    private final int chunks;
+    private final long elapsedNanos;
+
+    public BulkResult(long rows, long affectedRows, int chunks, long elapsedNanos) {
+      this.rows = rows;
+      this.affectedRows = affectedRows;
+      this.chunks = chunks;
+      this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getRows() {
+      return rows;
+    }
+
+    public long getAffectedRows() {
+      return affectedRows;
+    }
+
+    public int getChunks() {
+      return chunks;
+    }
+
+    public long getElapsedNanos() {
+      return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+      return "BulkResult [rows=" + rows + ", affectedRows=" + affectedRows + ", chunks=" + chunks + ", elapsedNanos="
+          + elapsedNanos + "]";
+    }
+  }
+}
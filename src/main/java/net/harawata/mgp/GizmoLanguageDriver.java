@@ -0,0 +1,75 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp;
+
+import java.util.Arrays;
+
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * A language driver that parses each generated statement only once.
+ * <p>
+ * MyBatis passes the provider's output to the language driver on every execution. As the statements generated by
+ * Gizmo providers are cached, this driver caches the parsed {@link SqlSource} per SQL text and parameter type and
+ * reuses it afterwards.
+ * <p>
+ * Specify this driver with {@code @Lang(GizmoLanguageDriver.class)} or set it as {@code defaultScriptingLanguage}.
+ */
+public class GizmoLanguageDriver extends XMLLanguageDriver {
+
+  private final StatementCache<Key, SqlSource> sqlSourceCache = new StatementCache<>(
+      Integer.getInteger("gizmo.sqlSourceCache.maxSize", 4096));
+
+  @Override
+  public SqlSource createSqlSource(Configuration configuration, String script, Class<?> parameterType) {
+    return sqlSourceCache.get(new Key(configuration, script, parameterType),
+        k -> super.createSqlSource(configuration, script, parameterType));
+  }
+
+  public StatementCache<?, SqlSource> getSqlSourceCache() {
+    return sqlSourceCache;
+  }
+
+  private static final class Key {
+    private final Object[] values;
+    private final int hashCode;
+
+    Key(Object... values) {
+      this.values = values;
+      this.hashCode = Arrays.hashCode(values);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof Key && Arrays.equals(values, ((Key) obj).values);
+    }
+  }
+}
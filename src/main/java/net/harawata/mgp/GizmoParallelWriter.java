@@ -0,0 +1,444 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+
+/**
+ * Writes beans concurrently through multiple {@code SqlSession}s.
+ * <p>
+ * The beans are split into chunks and each chunk is sent to one of the partitions. Each partition has its own thread,
+ * a bounded queue and executes a chunk in a transaction using a {@code BATCH} executor. When the queue is full, the
+ * caller of {@link #write(Iterator)} waits (i.e. backpressure).
+ * <p>
+ * If {@link #partitionBy(Function)} is specified, beans with the same key are always sent to the same partition, so
+ * they are written in the input order.
+ * <p>
+ * A failed chunk is rolled back and retried. If it still fails, it is reported in the result and the partition
+ * continues with the next chunk. With {@link #partitionBy(Function)}, the later beans whose keys are in a failed chunk
+ * are skipped and reported as failures, so that no bean is written before an earlier bean with the same key.
+ *
+ * <pre>
+ * ParallelResult&lt;User&gt; result = new GizmoParallelWriter&lt;&gt;(sqlSessionFactory, UserMapper.class,
+ *     UserMapper::upsertUser).parallelism(8).partitionBy(User::getId).write(users.stream());
+ * </pre>
+ *
+ * @param <M>
+ *          the mapper type
+ * @param <T>
+ *          the bean type
+ */
+public class GizmoParallelWriter<M, T> {
+
+  private final SqlSessionFactory sqlSessionFactory;
+  private final Class<M> mapperType;
+  private final BiConsumer<M, ? super T> statement;
+  private int parallelism = Runtime.getRuntime().availableProcessors();
+  private int chunkSize = 1000;
+  private int queueCapacity = 2;
+  private int maxAttempts = 3;
+  private long retryIntervalMillis = 100;
+  private Function<? super T, ?> partitionKey;
+
+  /**
+   * @param statement
+   *          the mapper method that takes a single bean (e.g. {@code UserMapper::insertUser})
+   */
+  public GizmoParallelWriter(SqlSessionFactory sqlSessionFactory, Class<M> mapperType,
+      BiConsumer<M, ? super T> statement) {
+    this.sqlSessionFactory = sqlSessionFactory;
+    this.mapperType = mapperType;
+    this.statement = statement;
+  }
+
+  /**
+   * The number of partitions, i.e. threads and sessions (default: the number of processors). It should not exceed the
+   * size of the connection pool.
+   */
+  public GizmoParallelWriter<M, T> parallelism(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be positive.");
+    }
+    this.parallelism = parallelism;
+    return this;
+  }
+
+  /**
+   * The number of rows per transaction (default: 1000).
+   */
+  public GizmoParallelWriter<M, T> chunkSize(int chunkSize) {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("chunkSize must be positive.");
+    }
+    this.chunkSize = chunkSize;
+    return this;
+  }
+
+  /**
+   * The number of chunks waiting in each partition's queue (default: 2).
+   */
+  public GizmoParallelWriter<M, T> queueCapacity(int queueCapacity) {
+    if (queueCapacity < 1) {
+      throw new IllegalArgumentException("queueCapacity must be positive.");
+    }
+    this.queueCapacity = queueCapacity;
+    return this;
+  }
+
+  /**
+   * @param maxAttempts
+   *          the maximum number of attempts per chunk including the first one (default: 3)
+   * @param retryIntervalMillis
+   *          the wait before a retry, multiplied by the number of failed attempts (default: 100)
+   */
+  public GizmoParallelWriter<M, T> retry(int maxAttempts, long retryIntervalMillis) {
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("maxAttempts must be positive.");
+    }
+    this.maxAttempts = maxAttempts;
+    this.retryIntervalMillis = retryIntervalMillis;
+    return this;
+  }
+
+  /**
+   * Sends beans with the same key to the same partition. Once a chunk fails, the later beans with the keys in the chunk
+   * are not written.
+   */
+  public GizmoParallelWriter<M, T> partitionBy(Function<? super T, ?> partitionKey) {
+    this.partitionKey = partitionKey;
+    return this;
+  }
+
+  public ParallelResult<T> write(Stream<? extends T> beans) {
+    return write(beans.iterator());
+  }
+
+  public ParallelResult<T> write(Iterator<? extends T> beans) {
+    long start = System.nanoTime();
+    ExecutorService executor = Executors.newFixedThreadPool(parallelism, new WorkerThreadFactory());
+    List<Partition> partitions = new ArrayList<>(parallelism);
+    try {
+      for (int i = 0; i < parallelism; i++) {
+        Partition partition = new Partition(i);
+        partition.future = executor.submit(partition);
+        partitions.add(partition);
+      }
+      int next = 0;
+      while (beans.hasNext()) {
+        T bean = beans.next();
+        Partition partition;
+        if (partitionKey == null) {
+          partition = partitions.get(next);
+        } else {
+          partition = partitions.get(Math.floorMod(Objects.hashCode(partitionKey.apply(bean)), parallelism));
+        }
+        partition.buffer.add(bean);
+        if (partition.buffer.size() >= chunkSize) {
+          partition.dispatch(partition.buffer);
+          partition.buffer = new ArrayList<>(chunkSize);
+          next = (next + 1) % parallelism;
+        }
+      }
+      for (Partition partition : partitions) {
+        if (!partition.buffer.isEmpty()) {
+          partition.dispatch(partition.buffer);
+        }
+        partition.dispatch(Collections.emptyList());
+      }
+      ParallelResult<T> result = new ParallelResult<>(parallelism);
+      for (Partition partition : partitions) {
+        result.add(partition.future.get());
+      }
+      result.elapsedNanos = System.nanoTime() - start;
+      return result;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while writing beans.", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("A partition stopped unexpectedly.", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private class Partition implements Callable<PartitionStats<T>> {
+    private final int index;
+    private final BlockingQueue<List<T>> queue = new ArrayBlockingQueue<>(queueCapacity);
+    /**
+     * The partition keys of the failed chunks. Accessed only by the partition's thread.
+     */
+    private final Set<Object> failedKeys = new HashSet<>();
+    private List<T> buffer = new ArrayList<>(chunkSize);
+    private Future<PartitionStats<T>> future;
+
+    Partition(int index) {
+      this.index = index;
+    }
+
+    /**
+     * An empty list tells the partition that there are no more chunks.
+     */
+    void dispatch(List<T> chunk) throws InterruptedException, ExecutionException {
+      while (!queue.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+        if (future.isDone()) {
+          // Throws the exception that stopped the partition
+          future.get();
+          throw new IllegalStateException("Partition " + index + " has stopped.");
+        }
+      }
+    }
+
+    @Override
+    public PartitionStats<T> call() throws InterruptedException {
+      PartitionStats<T> stats = new PartitionStats<>(index);
+      long start = System.nanoTime();
+      for (List<T> chunk = queue.take(); !chunk.isEmpty(); chunk = queue.take()) {
+        if (!failedKeys.isEmpty()) {
+          chunk = skipFailedKeys(chunk, stats);
+          if (chunk.isEmpty()) {
+            continue;
+          }
+        }
+        execute(chunk, stats);
+      }
+      stats.elapsedNanos = System.nanoTime() - start;
+      return stats;
+    }
+
+    private void execute(List<T> chunk, PartitionStats<T> stats) throws InterruptedException {
+      for (int attempt = 1;; attempt++) {
+        try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH, false)) {
+          M mapper = sqlSession.getMapper(mapperType);
+          for (T bean : chunk) {
+            statement.accept(mapper, bean);
+          }
+          long affectedRows = GizmoBulkWriter.countAffectedRows(sqlSession.flushStatements());
+          sqlSession.commit();
+          stats.rows += chunk.size();
+          stats.affectedRows += affectedRows;
+          stats.chunks++;
+          stats.retries += attempt - 1;
+          return;
+        } catch (RuntimeException e) {
+          // Closing the session rolls back the transaction
+          if (attempt >= maxAttempts) {
+            stats.retries += attempt - 1;
+            stats.failures.add(new ChunkFailure<>(index, chunk, attempt, e));
+            if (partitionKey != null) {
+              for (T bean : chunk) {
+                failedKeys.add(partitionKey.apply(bean));
+              }
+            }
+            return;
+          }
+          Thread.sleep(retryIntervalMillis * attempt);
+        }
+      }
+    }
+
+    /**
+     * Reports the beans whose keys are in a failed chunk as a failure with no attempts and returns the others.
+     */
+    private List<T> skipFailedKeys(List<T> chunk, PartitionStats<T> stats) {
+      List<T> skipped = new ArrayList<>();
+      List<T> rest = new ArrayList<>(chunk.size());
+      for (T bean : chunk) {
+        (failedKeys.contains(partitionKey.apply(bean)) ? skipped : rest).add(bean);
+      }
+      if (!skipped.isEmpty()) {
+        stats.failures.add(new ChunkFailure<>(index, skipped, 0,
+            new IllegalStateException("Skipped as an earlier chunk with the same partition keys failed.")));
+      }
+      return rest;
+    }
+  }
+
+  private static class WorkerThreadFactory implements ThreadFactory {
+    private static final AtomicInteger writerCount = new AtomicInteger();
+    private final int writer = writerCount.incrementAndGet();
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread thread = new Thread(r, "gizmo-writer-" + writer + "-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
+  static final class PartitionStats<T> {
+    private final int index;
+    private long rows;
+    private long affectedRows;
+    private int chunks;
+    private int retries;
+    private long elapsedNanos;
+    private final List<ChunkFailure<T>> failures = new ArrayList<>();
+
+    PartitionStats(int index) {
+      this.index = index;
+    }
+  }
+
+  /**
+   * A chunk that could not be written after all attempts.
+   */
+  public static final class ChunkFailure<T> {
+    private final int partition;
+    private final List<T> beans;
+    private final int attempts;
+    private final RuntimeException cause;
+
+    public ChunkFailure(int partition, List<T> beans, int attempts, RuntimeException cause) {
+      this.partition = partition;
+      this.beans = beans;
+      this.attempts = attempts;
+      this.cause = cause;
+    }
+
+    public int getPartition() {
+      return partition;
+    }
+
+    /**
+     * Returns the beans of the chunk, none of which are written.
+     */
+    public List<T> getBeans() {
+      return beans;
+    }
+
+    /**
+     * Returns the number of attempts or 0 if the beans are skipped after a failure of the same partition keys.
+     */
+    public int getAttempts() {
+      return attempts;
+    }
+
+    public RuntimeException getCause() {
+      return cause;
+    }
+  }
+
+  /**
+   * The result of {@link GizmoParallelWriter#write(Iterator)}.
+   */
+  public static final class ParallelResult<T> {
+    private final long[] partitionRows;
+    private long rows;
+    private long affectedRows;
+    private int chunks;
+    private int retries;
+    private long elapsedNanos;
+    private final List<ChunkFailure<T>> failures = new ArrayList<>();
+
+    ParallelResult(int parallelism) {
+      this.partitionRows = new long[parallelism];
+    }
+
+    void add(PartitionStats<T> stats) {
+      partitionRows[stats.index] = stats.rows;
+      rows += stats.rows;
+      affectedRows += stats.affectedRows;
+      chunks += stats.chunks;
+      retries += stats.retries;
+      failures.addAll(stats.failures);
+    }
+
+    /**
+     * Returns the number of rows written successfully.
+     */
+    public long getRows() {
+      return rows;
+    }
+
+    public long getAffectedRows() {
+      return affectedRows;
+    }
+
+    /**
+     * Returns the number of chunks written successfully.
+     */
+    public int getChunks() {
+      return chunks;
+    }
+
+    /**
+     * Returns the total number of retries including those of the failed chunks.
+     */
+    public int getRetries() {
+      return retries;
+    }
+
+    public long getElapsedNanos() {
+      return elapsedNanos;
+    }
+
+    /**
+     * Returns the number of rows written successfully per second.
+     */
+    public double getRowsPerSecond() {
+      return elapsedNanos == 0 ? 0 : rows * 1_000_000_000d / elapsedNanos;
+    }
+
+    /**
+     * Returns the number of rows written successfully by each partition.
+     */
+    public long[] getPartitionRows() {
+      return partitionRows.clone();
+    }
+
+    public List<ChunkFailure<T>> getFailures() {
+      return Collections.unmodifiableList(failures);
+    }
+
+    @Override
+    public String toString() {
+      return "ParallelResult [rows=" + rows + ", affectedRows=" + affectedRows + ", chunks=" + chunks + ", retries="
+          + retries + ", failures=" + failures.size() + ", rowsPerSecond=" + (long) getRowsPerSecond() + "]";
+    }
+  }
+}
@@ -23,45 +23,120 @@
  */
 package net.harawata.mgp;
 
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.binding.MapperMethod.ParamMap;
 import org.apache.ibatis.builder.annotation.ProviderContext;
 import org.apache.ibatis.builder.annotation.ProviderMethodResolver;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.ReflectorFactory;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import net.harawata.mgp.EntityMetadata.Property;
+import net.harawata.mgp.MethodDescriptor.Condition;
+import net.harawata.mgp.MethodDescriptor.Connector;
 
 public abstract class GizmoProvider implements ProviderMethodResolver {
 
+  /**
+   * The suffix of the metadata class generated by {@code mybatis-gizmo-processor}.
+   */
+  public static final String GENERATED_METADATA_SUFFIX = "_GizmoMetadata";
+
+  /**
+   * The keyword that precedes the key properties returned by INSERT (e.g. {@code insertUsersReturningId}).
+   */
+  protected static final String RETURNING = "Returning";
+
+  /**
+   * The name of the column that holds the index of the inserted row in the result set of
+   * {@link #insertReturning(ProviderContext, Object)}.
+   */
+  protected static final String ROW_INDEX = "gizmo_row";
+
   private static Method insert;
+  private static Method insertAll;
+  private static Method insertSelective;
+  private static Method insertReturning;
   private static Method upsert;
+  private static Method upsertAll;
   private static Method update;
+  private static Method updateSelective;
+  private static Method updateDirty;
+  private static Method increment;
+
+  /**
+   * Bean class -> provider class -> metadata.
+   * <p>
+   * Values are attached to the bean class, so they do not prevent the class loader from being collected.
+   */
+  private static final ClassValue<Map<Class<?>, EntityMetadata>> metadataCache = new ClassValue<>() {
+    @Override
+    protected Map<Class<?>, EntityMetadata> computeValue(Class<?> beanClass) {
+      return new ConcurrentHashMap<>();
+    }
+  };
 
-  private static Map<Class<?>, List<Field>> fieldCache = new ConcurrentHashMap<>();
+  /**
+   * Mapper class -> provider class -> mapper method -> descriptor.
+   */
+  private static final ClassValue<Map<Class<?>, Map<Method, MethodDescriptor>>> descriptorCache = new ClassValue<>() {
+    @Override
+    protected Map<Class<?>, Map<Method, MethodDescriptor>> computeValue(Class<?> mapperType) {
+      return new ConcurrentHashMap<>();
+    }
+  };
+
+  private static final StatementCache<StatementKey, String> statementCache = new StatementCache<>(
+      Integer.getInteger("gizmo.statementCache.maxSize", 4096), StatementKey::getOwner);
+
+  static final ReflectorFactory reflectorFactory = new ClassValueReflectorFactory();
 
   static {
     for (Method method : GizmoProvider.class.getDeclaredMethods()) {
       String name = method.getName();
       if ("insert".equals(name)) {
         insert = method;
+      } else if ("insertAll".equals(name)) {
+        insertAll = method;
+      } else if ("insertSelective".equals(name)) {
+        insertSelective = method;
+      } else if ("insertReturning".equals(name)) {
+        insertReturning = method;
       } else if ("upsert".equals(name)) {
         upsert = method;
+      } else if ("upsertAll".equals(name)) {
+        upsertAll = method;
       } else if ("update".equals(name)) {
         update = method;
+      } else if ("updateSelective".equals(name)) {
+        updateSelective = method;
+      } else if ("updateDirty".equals(name)) {
+        updateDirty = method;
+      } else if ("increment".equals(name)) {
+        increment = method;
       }
     }
   }
@@ -69,122 +144,1049 @@ public abstract class GizmoProvider implements ProviderMethodResolver {
   @Override
   public Method resolveMethod(ProviderContext context) {
     String mapperMethodName = context.getMapperMethod().getName();
-    if (mapperMethodName.startsWith("insert")) {
-      return insert;
+    if (mapperMethodName.startsWith("insertSelective")) {
+      return insertSelective;
+    } else if (mapperMethodName.startsWith("insert")) {
+      if (getMethodDescriptor(context.getMapperMethod(), RETURNING).getConditionKeyword().isPresent()) {
+        return insertReturning;
+      }
+      return takesList(context.getMapperMethod()) ? insertAll : insert;
     } else if (mapperMethodName.startsWith("upsert")) {
-      return upsert;
+      return takesList(context.getMapperMethod()) ? upsertAll : upsert;
+    } else if (mapperMethodName.startsWith("updateSelective")) {
+      return updateSelective;
+    } else if (mapperMethodName.startsWith("updateDirty")) {
+      return updateDirty;
     } else if (mapperMethodName.startsWith("update")) {
       return update;
+    } else if (getCounterVerb(mapperMethodName) != null) {
+      return increment;
     }
     return null;
   }
 
-  public StringBuilder insert(Object bean, ProviderContext context) {
-    Class<? extends Object> beanClass = bean.getClass();
-    List<Field> fields = getInsertableFields(beanClass);
-    StringBuilder sql = new StringBuilder();
+  protected boolean takesList(Method mapperMethod) {
+    Class<?>[] paramTypes = mapperMethod.getParameterTypes();
+    return paramTypes.length > 0 && List.class.isAssignableFrom(paramTypes[0]);
+  }
 
-    sql.append("insert into ");
-    catalogOrSchema(beanClass).ifPresent(x -> sql.append(escape(x)).append('.'));
-    sql.append(escape(getTableName(beanClass))).append(" (");
+  /**
+   * Returns the cache that holds statements generated by all Gizmo providers.
+   * <p>
+   * The maximum number of entries can be changed with the system property {@code gizmo.statementCache.maxSize}.
+   */
+  public static StatementCache<StatementKey, String> getStatementCache() {
+    return statementCache;
+  }
+
+  /**
+   * Generates and caches the statement for the mapper method without executing it.
+   *
+   * @param beanClass
+   *          the type of the bean
+   * @param paramNames
+   *          the names of the parameters in the {@code ParamMap} or {@code null} if the bean is passed as-is
+   *
+   * @return the generated statement or {@code null} if the mapper method is not handled by this provider or the
+   *         statement depends on the parameter values
+   *
+   * @see StatementPreloader
+   */
+  public CharSequence prepare(ProviderContext context, Class<?> beanClass, Collection<String> paramNames) {
+    Method providerMethod = resolveMethod(context);
+    if (insertAll.equals(providerMethod) || upsertAll.equals(providerMethod)
+        || insertReturning.equals(providerMethod)) {
+      // Multi-row statements depend on the number of rows
+      return null;
+    } else if (insertSelective.equals(providerMethod) || updateSelective.equals(providerMethod)
+        || updateDirty.equals(providerMethod)) {
+      // Selective statements depend on the property values
+      return null;
+    } else if (insert.equals(providerMethod)) {
+      return insertStatement(context, beanClass);
+    } else if (upsert.equals(providerMethod)) {
+      return upsertStatement(context, beanClass);
+    } else if (update.equals(providerMethod)) {
+      if (paramNames == null) {
+        return updateStatement(context, beanClass, "");
+      }
+      return updateStatement(context, beanClass, context.getMapperMethod().getParameters()[0].getName());
+    } else if (increment.equals(providerMethod)) {
+      if (paramNames == null) {
+        return incrementStatement(context, beanClass, "");
+      }
+      return incrementStatement(context, beanClass, context.getMapperMethod().getParameters()[0].getName());
+    }
+    return null;
+  }
+
+  public CharSequence insert(Object bean, ProviderContext context) {
+    return insertStatement(context, bean.getClass());
+  }
 
-    StringBuilder values = new StringBuilder();
-    for (int i = 0; i < fields.size(); i++) {
+  protected CharSequence insertStatement(ProviderContext context, Class<?> beanClass) {
+    return statementCache.get(new StatementKey(getClass(), context.getMapperMethod(), beanClass, null),
+        k -> buildInsert(beanClass).toString());
+  }
+
+  protected StringBuilder buildInsert(Class<?> beanClass) {
+    return buildInsert(beanClass, getEntityMetadata(beanClass).getInsertableProperties());
+  }
+
+  protected StringBuilder buildInsert(Class<?> beanClass, List<Property> properties) {
+    return buildInsert(beanClass, properties, 0);
+  }
+
+  /**
+   * @param extraCapacity
+   *          the length of the text the caller will append to the statement
+   */
+  protected StringBuilder buildInsert(Class<?> beanClass, List<Property> properties, int extraCapacity) {
+    EntityMetadata metadata = getEntityMetadata(beanClass);
+    StringBuilder sql = new StringBuilder(32 + metadata.getQualifiedTableName().length() + namesLength(properties)
+        + properties.size() * 7 + extraCapacity);
+    sql.append("insert into ").append(metadata.getQualifiedTableName()).append(" (");
+    appendColumns(sql, properties);
+    sql.append(") values (");
+    for (int i = 0; i < properties.size(); i++) {
       if (i > 0) {
         sql.append(", ");
-        values.append(", ");
       }
-      sql.append(escape(getColumnName(fields.get(i))));
-      values.append("#{").append(fields.get(i).getName()).append('}');
+      sql.append("#{").append(properties.get(i).getName()).append('}');
     }
-    sql.append(") values (").append(values).append(')');
+    sql.append(')');
     return sql;
   }
 
+  /**
+   * Appends the escaped column names separated by commas.
+   */
+  protected void appendColumns(StringBuilder sql, List<Property> properties) {
+    for (int i = 0; i < properties.size(); i++) {
+      if (i > 0) {
+        sql.append(", ");
+      }
+      sql.append(properties.get(i).getEscapedColumnName());
+    }
+  }
+
+  /**
+   * Returns the total length of the escaped column names and the property names, which is used to estimate the size
+   * of a statement.
+   */
+  protected static int namesLength(List<Property> properties) {
+    int length = 0;
+    for (int i = 0; i < properties.size(); i++) {
+      length += properties.get(i).getEscapedColumnName().length() + properties.get(i).getName().length();
+    }
+    return length;
+  }
+
+  /**
+   * Returns the estimated length of a row appended by {@link #appendRowValues(StringBuilder, List, String, int)}.
+   */
+  protected static int rowValuesLength(List<Property> properties, String listName) {
+    int length = 2;
+    for (int i = 0; i < properties.size(); i++) {
+      length += properties.get(i).getName().length() + listName.length() + 12;
+    }
+    return length;
+  }
+
+  /**
+   * Generates an INSERT statement that contains only the properties whose values are not {@code null}.
+   * <p>
+   * The statement is cached per combination of non-null properties.
+   */
+  public CharSequence insertSelective(Object bean, ProviderContext context) {
+    Class<?> beanClass = bean.getClass();
+    BitSet nonNulls = getNonNullProperties(bean, getEntityMetadata(beanClass).getInsertableProperties());
+    return insertSelectiveStatement(context, beanClass, nonNulls);
+  }
+
+  /**
+   * @param nonNulls
+   *          the indexes of the insertable properties whose values are not {@code null}
+   */
+  protected CharSequence insertSelectiveStatement(ProviderContext context, Class<?> beanClass, BitSet nonNulls) {
+    return statementCache.get(new StatementKey(getClass(), context.getMapperMethod(), beanClass, nonNulls),
+        k -> buildInsert(beanClass,
+            select(getEntityMetadata(beanClass).getInsertableProperties(), nonNulls, beanClass)).toString());
+  }
+
+  /**
+   * Returns the indexes of the properties whose values are not {@code null}.
+   */
+  protected BitSet getNonNullProperties(Object bean, List<Property> properties) {
+    Reflector reflector = reflectorFactory.findForClass(bean.getClass());
+    BitSet nonNulls = new BitSet(properties.size());
+    try {
+      for (int i = 0; i < properties.size(); i++) {
+        if (reflector.getGetInvoker(properties.get(i).getName()).invoke(bean, null) != null) {
+          nonNulls.set(i);
+        }
+      }
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Failed to read the properties of " + bean.getClass().getName(), e);
+    }
+    return nonNulls;
+  }
+
+  protected List<Property> select(List<Property> properties, BitSet indexes, Class<?> beanClass) {
+    if (indexes.isEmpty()) {
+      throw new IllegalArgumentException("All properties of " + beanClass.getName() + " are null.");
+    }
+    return indexes.stream().mapToObj(properties::get).collect(Collectors.toList());
+  }
+
+  /**
+   * Generates a multi-row INSERT statement for the list passed as the first parameter.
+   * <p>
+   * The number of rows a statement can contain is limited (see {@link #getMaxRowsPerStatement(Class)}). To insert a
+   * larger list, split it using {@link Chunks}.
+   */
+  public CharSequence insertAll(ProviderContext context, Object param) {
+    String listName = getListName(context, param);
+    List<?> beans = getList(param, listName);
+    return insertAllStatement(context, beans.get(0).getClass(), listName, beans.size());
+  }
+
+  /**
+   * Generates an INSERT statement that returns the keys of the inserted rows as a result set (e.g.
+   * {@code insertUsersReturningId(List<User> users)} or {@code insertUserReturningId(User user)}).
+   * <p>
+   * The first column of the result set is the index of the row in the list and the rest are the key columns labeled
+   * with the property names. {@link GeneratedKeysInterceptor} assigns them to the beans, so the keys of a whole chunk
+   * are retrieved in one round trip.
+   */
+  public CharSequence insertReturning(ProviderContext context, Object param) {
+    if (takesList(context.getMapperMethod())) {
+      String listName = getListName(context, param);
+      List<?> beans = getList(param, listName);
+      return insertReturningStatement(context, beans.get(0).getClass(), listName, beans.size());
+    }
+    if (param instanceof ParamMap) {
+      throw new IllegalArgumentException(
+          "The bean must be the only parameter without @Param: " + context.getMapperMethod().getName());
+    }
+    return insertReturningStatement(context, param.getClass(), null, 1);
+  }
+
+  /**
+   * @param listName
+   *          the name of the list parameter or {@code null} if the bean is passed as-is
+   */
+  protected CharSequence insertReturningStatement(ProviderContext context, Class<?> beanClass, String listName,
+      int rows) {
+    throw new IllegalStateException(getClass().getSimpleName() + " does not support " + RETURNING
+        + ". Use useGeneratedKeys instead.");
+  }
+
+  /**
+   * Returns the key properties specified after {@code Returning} in the method name.
+   */
+  protected List<Condition> getReturnedKeys(Method mapperMethod) {
+    List<Condition> keys = getMethodDescriptor(mapperMethod, RETURNING).getConditions();
+    if (keys.stream().anyMatch(key -> key.getConnector() == Connector.OR)) {
+      throw new IllegalArgumentException("Returned keys must be joined with 'And': " + mapperMethod.getName());
+    }
+    return keys;
+  }
+
+  /**
+   * Returns the name of the list parameter, i.e. {@code list} or the parameter name.
+   */
   @SuppressWarnings("unchecked")
-  public StringBuilder update(ProviderContext context, Object param) {
-    Method mapperMethod = context.getMapperMethod();
-    String mapperMethodName = mapperMethod.getName();
-    int declaredParamCount = mapperMethod.getParameterCount();
+  protected String getListName(ProviderContext context, Object param) {
+    Map<String, Object> params = (Map<String, Object>) param;
+    return params.containsKey("list") ? "list" : context.getMapperMethod().getParameters()[0].getName();
+  }
 
-    int byPos = mapperMethodName.indexOf("By");
-    if (declaredParamCount == 1 && byPos == -1) {
+  @SuppressWarnings("unchecked")
+  protected List<?> getList(Object param, String listName) {
+    List<?> beans = (List<?>) ((Map<String, Object>) param).get(listName);
+    if (beans.isEmpty()) {
+      throw new IllegalArgumentException("The list must contain at least one element.");
+    }
+    return beans;
+  }
+
+  protected CharSequence insertAllStatement(ProviderContext context, Class<?> beanClass, String listName, int rows) {
+    return statementCache.get(
+        new StatementKey(getClass(), context.getMapperMethod(), beanClass, listName + '[' + rows + ']'),
+        k -> buildInsertAll(beanClass, listName, rows).toString());
+  }
+
+  protected StringBuilder buildInsertAll(Class<?> beanClass, String listName, int rows) {
+    return buildInsertAll(beanClass, listName, rows, 0);
+  }
+
+  /**
+   * @param extraCapacity
+   *          the length of the text the caller will append to the statement
+   */
+  protected StringBuilder buildInsertAll(Class<?> beanClass, String listName, int rows, int extraCapacity) {
+    return buildInsertAll(beanClass, getEntityMetadata(beanClass).getInsertableProperties(), listName, rows,
+        extraCapacity);
+  }
+
+  /**
+   * @param extraCapacity
+   *          the length of the text the caller will append to the statement
+   */
+  protected StringBuilder buildInsertAll(Class<?> beanClass, List<Property> properties, String listName, int rows,
+      int extraCapacity) {
+    EntityMetadata metadata = getEntityMetadata(beanClass);
+    checkRowCount(beanClass, rows);
+    StringBuilder sql = new StringBuilder(32 + metadata.getQualifiedTableName().length() + namesLength(properties)
+        + properties.size() * 2 + (rowValuesLength(properties, listName) + 2) * rows + extraCapacity);
+    sql.append("insert into ").append(metadata.getQualifiedTableName()).append(" (");
+    appendColumns(sql, properties);
+    sql.append(") values ");
+    for (int row = 0; row < rows; row++) {
+      if (row > 0) {
+        sql.append(", ");
+      }
+      appendRowValues(sql, properties, listName, row);
+    }
+    return sql;
+  }
+
+  /**
+   * Appends the placeholders of a row, e.g. {@code (#{list[0].id}, #{list[0].name})}.
+   */
+  protected void appendRowValues(StringBuilder sql, List<Property> properties, String listName, int row) {
+    sql.append('(');
+    for (int i = 0; i < properties.size(); i++) {
+      if (i > 0) {
+        sql.append(", ");
+      }
+      sql.append("#{").append(listName).append('[').append(row).append("].").append(properties.get(i).getName())
+          .append('}');
+    }
+    sql.append(')');
+  }
+
+  protected void checkRowCount(Class<?> beanClass, int rows) {
+    checkRowCount(beanClass, rows, getMaxRowsPerStatement(beanClass));
+  }
+
+  protected void checkUpsertRowCount(Class<?> beanClass, int rows) {
+    checkRowCount(beanClass, rows, getMaxRowsPerUpsert(beanClass));
+  }
+
+  private void checkRowCount(Class<?> beanClass, int rows, int maxRows) {
+    if (rows > maxRows) {
+      throw new IllegalArgumentException("A statement for " + beanClass.getSimpleName() + " can contain up to "
+          + maxRows + " rows, but there are " + rows + " rows. Use Chunks to split the list.");
+    }
+  }
+
+  /**
+   * Returns the number of rows a multi-row statement can contain.
+   * <p>
+   * It is calculated from {@link #getMaxParameters()} and {@link #getMaxRows()}. The generated properties are counted
+   * as UPSERT may insert them.
+   */
+  public int getMaxRowsPerStatement(Class<?> beanClass) {
+    EntityMetadata metadata = getEntityMetadata(beanClass);
+    int columns = Math.max(1,
+        metadata.getInsertableProperties().size() + metadata.getGeneratedProperties().size());
+    return Math.max(1, Math.min(getMaxRows(), getMaxParameters() / columns));
+  }
+
+  /**
+   * Returns the number of rows a multi-row UPSERT statement can contain. It is the same as
+   * {@link #getMaxRowsPerStatement(Class)} unless UPSERT binds more parameters per row than INSERT.
+   */
+  public int getMaxRowsPerUpsert(Class<?> beanClass) {
+    return getMaxRowsPerStatement(beanClass);
+  }
+
+  /**
+   * Returns the number of rows of the next chunk when {@link Chunks} splits a list.
+   *
+   * @param remaining
+   *          the number of rows that are not executed yet
+   */
+  protected int getChunkSize(Class<?> beanClass, int remaining) {
+    return getChunkSize(remaining, getMaxRowsPerStatement(beanClass));
+  }
+
+  protected int getUpsertChunkSize(Class<?> beanClass, int remaining) {
+    return getChunkSize(remaining, getMaxRowsPerUpsert(beanClass));
+  }
+
+  /**
+   * @param maxRows
+   *          the number of rows a statement can contain
+   */
+  protected int getChunkSize(int remaining, int maxRows) {
+    return Math.min(remaining, maxRows);
+  }
+
+  /**
+   * Returns the maximum number of bind parameters in a statement.
+   */
+  protected int getMaxParameters() {
+    return Integer.MAX_VALUE;
+  }
+
+  /**
+   * Returns the maximum number of rows in a multi-row statement.
+   */
+  protected int getMaxRows() {
+    return 1000;
+  }
+
+  @SuppressWarnings("unchecked")
+  public CharSequence update(ProviderContext context, Object param) {
+    if (param == null) {
+      throw new IllegalArgumentException("There must be a parameter.");
+    }
+    if (param instanceof ParamMap) {
+      Map<String, Object> params = (Map<String, Object>) param;
+      String beanArgName = context.getMapperMethod().getParameters()[0].getName();
+      return updateStatement(context, params.get(beanArgName).getClass(), beanArgName);
+    }
+    return updateStatement(context, param.getClass(), "");
+  }
+
+  /**
+   * @param beanArgName
+   *          the name of the bean parameter or an empty string if the bean is passed as-is (i.e. not in a
+   *          {@code ParamMap})
+   */
+  protected CharSequence updateStatement(ProviderContext context, Class<?> beanClass, String beanArgName) {
+    return statementCache.get(new StatementKey(getClass(), context.getMapperMethod(), beanClass, beanArgName),
+        k -> buildUpdate(context.getMapperMethod(), beanClass, beanArgName).toString());
+  }
+
+  /**
+   * Generates an UPDATE statement whose SET clause contains only the properties whose values are not {@code null}.
+   * <p>
+   * The conditions are specified in the same way as {@link #update(ProviderContext, Object)} (e.g.
+   * {@code updateSelectiveById(Bean bean)}). The statement is cached per combination of non-null properties.
+   */
+  @SuppressWarnings("unchecked")
+  public CharSequence updateSelective(ProviderContext context, Object param) {
+    if (param instanceof ParamMap) {
+      Map<String, Object> params = (Map<String, Object>) param;
+      String beanArgName = context.getMapperMethod().getParameters()[0].getName();
+      Object bean = params.get(beanArgName);
+      return updateSelectiveStatement(context, bean.getClass(), beanArgName,
+          getNonNullProperties(bean, getEntityMetadata(bean.getClass()).getUpdatableProperties()));
+    }
+    return updateSelectiveStatement(context, param.getClass(), "",
+        getNonNullProperties(param, getEntityMetadata(param.getClass()).getUpdatableProperties()));
+  }
+
+  /**
+   * Generates an UPDATE statement whose SET clause contains only the properties changed since the bean was registered
+   * to {@link DirtyTracker} (e.g. {@code updateDirtyById(Bean bean)}).
+   * <p>
+   * If the bean is not tracked, all updatable properties are written. If no property has changed, only the version is
+   * incremented, or the row is updated without changing it if there is no version property. The statement is cached
+   * per combination of changed properties.
+   */
+  @SuppressWarnings("unchecked")
+  public CharSequence updateDirty(ProviderContext context, Object param) {
+    String beanArgName = "";
+    Object bean = param;
+    if (param instanceof ParamMap) {
+      beanArgName = context.getMapperMethod().getParameters()[0].getName();
+      bean = ((Map<String, Object>) param).get(beanArgName);
+    }
+    List<Property> properties = getEntityMetadata(bean.getClass()).getUpdatableProperties();
+    BitSet changed = DirtyTracker.getChangedProperties(bean, properties);
+    if (changed == null) {
+      changed = new BitSet(properties.size());
+      changed.set(0, properties.size());
+    } else if (changed.isEmpty()) {
+      Class<?> beanClass = bean.getClass();
+      String argName = beanArgName;
+      return statementCache.get(
+          new StatementKey(getClass(), context.getMapperMethod(), beanClass, Arrays.asList(beanArgName, changed)),
+          k -> buildUpdate(context.getMapperMethod(), beanClass, List.of(), argName).toString());
+    }
+    return updateSelectiveStatement(context, bean.getClass(), beanArgName, changed);
+  }
+
+  /**
+   * @param nonNulls
+   *          the indexes of the updatable properties whose values are not {@code null}
+   *
+   * @see #updateStatement(ProviderContext, Class, String)
+   */
+  protected CharSequence updateSelectiveStatement(ProviderContext context, Class<?> beanClass, String beanArgName,
+      BitSet nonNulls) {
+    return statementCache.get(
+        new StatementKey(getClass(), context.getMapperMethod(), beanClass, Arrays.asList(beanArgName, nonNulls)),
+        k -> buildUpdate(context.getMapperMethod(), beanClass,
+            select(getEntityMetadata(beanClass).getUpdatableProperties(), nonNulls, beanClass), beanArgName)
+            .toString());
+  }
+
+  protected StringBuilder buildUpdate(Method mapperMethod, Class<?> beanClass, String beanArgName) {
+    return buildUpdate(mapperMethod, beanClass, getEntityMetadata(beanClass).getUpdatableProperties(), beanArgName);
+  }
+
+  protected StringBuilder buildUpdate(Method mapperMethod, Class<?> beanClass, List<Property> properties,
+      String beanArgName) {
+    int declaredParamCount = mapperMethod.getParameterCount();
+    MethodDescriptor descriptor = getMethodDescriptor(mapperMethod, "By");
+    if (declaredParamCount == 1 && !descriptor.getConditionKeyword().isPresent()) {
       throw new IllegalArgumentException(
           "Unable to add conditions to UPDATE. "
               + "You can specify the bean's properties with method name (e.g. 'updateByIdAndName(Bean bean)')"
               + " or add parameters (e.g. 'update(Bean bean, Integer id, String name)').");
     }
 
-    Parameter[] methodArgs = mapperMethod.getParameters();
     if (declaredParamCount == 0) {
       throw new IllegalArgumentException("There must be a parameter.");
     }
 
-    Class<?> beanClass;
-    String beanArgName;
-    Map<String, Object> params;
-    if (param instanceof ParamMap) {
-      params = (Map<String, Object>) param;
-      beanArgName = methodArgs[0].getName();
-      beanClass = params.get(beanArgName).getClass();
-    } else {
-      beanArgName = "";
-      beanClass = param.getClass();
-      params = Collections.emptyMap();
+    EntityMetadata metadata = getEntityMetadata(beanClass);
+    List<Condition> conditions = descriptor.getConditions();
+    Property version = metadata.getVersionProperty().orElse(null);
+    int prefixLength = beanArgName.isEmpty() ? 0 : beanArgName.length() + 1;
+    int length = 32 + metadata.getQualifiedTableName().length() + namesLength(properties)
+        + properties.size() * (8 + prefixLength);
+    if (version != null) {
+      length += version.getEscapedColumnName().length() * 3 + version.getName().length() + prefixLength + 24;
     }
-
-    List<Field> fields = getUpdatableFields(beanClass);
-    StringBuilder sql = new StringBuilder();
-    sql.append("update ");
-    catalogOrSchema(beanClass).ifPresent(x -> sql.append(escape(x)).append('.'));
-    sql.append(escape(getTableName(beanClass))).append(" set ");
+    for (int i = 0; i < conditions.size(); i++) {
+      length += getEscapedColumnName(metadata, conditions.get(i)).length() + conditions.get(i).getProperty().length()
+          + prefixLength + 10;
+    }
+    StringBuilder sql = new StringBuilder(length);
+    sql.append("update ").append(metadata.getQualifiedTableName()).append(" set ");
     // SET clause
-    for (int i = 0; i < fields.size(); i++) {
+    for (int i = 0; i < properties.size(); i++) {
       if (i > 0) {
         sql.append(", ");
       }
-      sql.append(escape(getColumnName(fields.get(i))))
-          .append(" = #{");
+      sql.append(properties.get(i).getEscapedColumnName()).append(" = #{");
       if (!beanArgName.isEmpty()) {
         sql.append(beanArgName).append('.');
       }
-      sql.append(fields.get(i).getName()).append('}');
+      sql.append(properties.get(i).getName()).append('}');
+    }
+    if (version != null) {
+      if (!properties.isEmpty()) {
+        sql.append(", ");
+      }
+      sql.append(version.getEscapedColumnName()).append(" = ").append(version.getEscapedColumnName())
+          .append(" + 1");
+    } else if (properties.isEmpty()) {
+      // Nothing to write: match the row without changing it
+      String col = getEscapedColumnName(metadata, conditions.get(0));
+      sql.append(col).append(" = ").append(col);
     }
 
     // WHERE clause
     sql.append(" where ");
-    String[] criteria = mapperMethodName.split("By(?=[A-Z])|And(?=[A-Z])");
-    if (criteria.length == 1) {
-      // Method name does not contain condition columns
-      // Use the arg names
-      for (int i = 1; i < methodArgs.length; i++) {
-        String methodArgName = methodArgs[i].getName();
-        if (i > 1) {
-          sql.append(" and ");
+    // 'and' takes precedence over 'or', so the version condition must apply to all the conditions
+    boolean parenthesize = version != null
+        && conditions.stream().anyMatch(condition -> condition.getConnector() == Connector.OR);
+    if (parenthesize) {
+      sql.append('(');
+    }
+    for (int i = 0; i < conditions.size(); i++) {
+      Condition condition = conditions.get(i);
+      if (condition.getConnector() != null) {
+        sql.append(condition.getConnector().getSql());
+      }
+      sql.append(getEscapedColumnName(metadata, condition)).append(" = #{");
+      if (!condition.isParameter() && !beanArgName.isEmpty()) {
+        sql.append(beanArgName).append('.');
+      }
+      sql.append(condition.getProperty()).append('}');
+    }
+    if (parenthesize) {
+      sql.append(')');
+    }
+    if (version != null) {
+      sql.append(" and ").append(version.getEscapedColumnName()).append(" = #{");
+      if (!beanArgName.isEmpty()) {
+        sql.append(beanArgName).append('.');
+      }
+      sql.append(version.getName()).append('}');
+    }
+    return sql;
+  }
+
+  /**
+   * Generates an UPDATE statement that adds a value to a column in a single round trip (e.g.
+   * {@code incrementViewCountById(Bean bean, int delta)} generates
+   * {@code update t set view_count = view_count + #{delta} where id = #{bean.id}}).
+   * <p>
+   * The method name starts with {@code increment}, {@code add}, {@code decrement} or {@code subtract} followed by the
+   * updatable property, and the conditions are specified after {@code By} in the same way as
+   * {@link #update(ProviderContext, Object)}. The bean passed as the first parameter determines the table. The value
+   * is the last parameter or, if there is no such parameter, 1. If the bean has a version property, the version is
+   * incremented but not checked.
+   */
+  @SuppressWarnings("unchecked")
+  public CharSequence increment(ProviderContext context, Object param) {
+    if (param instanceof ParamMap) {
+      Map<String, Object> params = (Map<String, Object>) param;
+      String beanArgName = context.getMapperMethod().getParameters()[0].getName();
+      return incrementStatement(context, params.get(beanArgName).getClass(), beanArgName);
+    }
+    return incrementStatement(context, param.getClass(), "");
+  }
+
+  /**
+   * @param beanArgName
+   *          the name of the bean parameter or an empty string if the bean is passed as-is
+   */
+  protected CharSequence incrementStatement(ProviderContext context, Class<?> beanClass, String beanArgName) {
+    return statementCache.get(new StatementKey(getClass(), context.getMapperMethod(), beanClass, beanArgName),
+        k -> buildIncrement(context.getMapperMethod(), beanClass, beanArgName).toString());
+  }
+
+  protected StringBuilder buildIncrement(Method mapperMethod, Class<?> beanClass, String beanArgName) {
+    String methodName = mapperMethod.getName();
+    MethodDescriptor descriptor = getMethodDescriptor(mapperMethod, "By");
+    if (!descriptor.getConditionKeyword().isPresent()) {
+      throw new IllegalArgumentException("Counter update requires conditions after 'By' e.g. "
+          + "'incrementViewCountById(Bean bean, int delta)': " + methodName);
+    }
+    String verb = getCounterVerb(methodName);
+    String propertyName = decapitalize(descriptor.getOperation().substring(verb.length()));
+    if (propertyName.isEmpty()) {
+      throw new IllegalArgumentException("Missing property name after '" + verb + "' in " + methodName);
+    }
+    EntityMetadata metadata = getEntityMetadata(beanClass);
+    Property property = null;
+    for (Property updatable : metadata.getUpdatableProperties()) {
+      if (updatable.getName().equals(propertyName)) {
+        property = updatable;
+        break;
+      }
+    }
+    if (property == null) {
+      throw new IllegalArgumentException(
+          "'" + propertyName + "' is not an updatable property of " + beanClass.getSimpleName() + ": " + methodName);
+    }
+    Class<?> type = MethodType.methodType(reflectorFactory.findForClass(beanClass).getGetterType(propertyName)).wrap()
+        .returnType();
+    if (!Number.class.isAssignableFrom(type)) {
+      throw new IllegalArgumentException("'" + propertyName + "' of " + beanClass.getSimpleName()
+          + " is not a number: " + methodName);
+    }
+
+    List<Condition> conditions = descriptor.getConditions();
+    Parameter[] parameters = mapperMethod.getParameters();
+    String delta = null;
+    if (parameters.length > 1) {
+      delta = getParamName(parameters[parameters.length - 1]);
+      for (int i = 0; i < conditions.size(); i++) {
+        if (conditions.get(i).isParameter() && conditions.get(i).getProperty().equals(delta)) {
+          // The last parameter is a condition
+          delta = null;
+          break;
         }
-        sql.append(escape(toColumnName(methodArgName))).append(" = #{");
-        sql.append(methodArgName).append('}');
       }
+    }
+    Property version = metadata.getVersionProperty().orElse(null);
+    String col = property.getEscapedColumnName();
+    int prefixLength = beanArgName.isEmpty() ? 0 : beanArgName.length() + 1;
+    int length = 40 + metadata.getQualifiedTableName().length() + col.length() * 2
+        + (delta == null ? 1 : delta.length() + 3);
+    if (version != null) {
+      length += version.getEscapedColumnName().length() * 2 + 8;
+    }
+    for (int i = 0; i < conditions.size(); i++) {
+      length += getEscapedColumnName(metadata, conditions.get(i)).length() + conditions.get(i).getProperty().length()
+          + prefixLength + 10;
+    }
+    StringBuilder sql = new StringBuilder(length);
+    sql.append("update ").append(metadata.getQualifiedTableName()).append(" set ").append(col).append(" = ")
+        .append(col).append(verb.equals("increment") || verb.equals("add") ? " + " : " - ");
+    if (delta == null) {
+      sql.append('1');
     } else {
-      // Method name contains condition columns
-      for (int i = 1; i < criteria.length; i++) {
-        String col = decapitalize(criteria[i]);
-        if (i > 1) {
-          sql.append(" and ");
+      sql.append("#{").append(delta).append('}');
+    }
+    if (version != null) {
+      sql.append(", ").append(version.getEscapedColumnName()).append(" = ").append(version.getEscapedColumnName())
+          .append(" + 1");
+    }
+    sql.append(" where ");
+    for (int i = 0; i < conditions.size(); i++) {
+      Condition condition = conditions.get(i);
+      if (condition.getConnector() != null) {
+        sql.append(condition.getConnector().getSql());
+      }
+      sql.append(getEscapedColumnName(metadata, condition)).append(" = #{");
+      if (!condition.isParameter() && !beanArgName.isEmpty()) {
+        sql.append(beanArgName).append('.');
+      }
+      sql.append(condition.getProperty()).append('}');
+    }
+    return sql;
+  }
+
+  /**
+   * Returns the verb of a counter update (e.g. {@code increment} of {@code incrementViewCountById}) or {@code null}.
+   */
+  private static String getCounterVerb(String methodName) {
+    for (String verb : new String[] { "increment", "add", "decrement", "subtract" }) {
+      if (methodName.length() > verb.length() && methodName.startsWith(verb)
+          && Character.isUpperCase(methodName.charAt(verb.length()))) {
+        return verb;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the key properties specified after {@code On} in the method name of UPSERT.
+   */
+  protected List<Condition> getUpsertKeys(Method mapperMethod) {
+    MethodDescriptor descriptor = getMethodDescriptor(mapperMethod, "On");
+    if (!descriptor.getConditionKeyword().isPresent()) {
+      throw new IllegalArgumentException(
+          "Upsert requires key column name(s) after 'On' e.g. 'upsertSomeBeanOnId(Bean bean)'");
+    }
+    List<Condition> keys = descriptor.getConditions();
+    if (keys.stream().anyMatch(key -> key.getConnector() == Connector.OR)) {
+      throw new IllegalArgumentException("Key columns of upsert must be joined with 'And': " + mapperMethod.getName());
+    }
+    return keys;
+  }
+
+  /**
+   * Returns the escaped column names of the keys resolved by the bean's properties.
+   */
+  protected List<String> getKeyColumns(EntityMetadata metadata, List<Condition> keys) {
+    List<String> keyColumns = new ArrayList<>(keys.size());
+    for (int i = 0; i < keys.size(); i++) {
+      keyColumns.add(getEscapedColumnName(metadata, keys.get(i)));
+    }
+    return keyColumns;
+  }
+
+  /**
+   * Returns the properties inserted by UPSERT. The rows are matched by the keys, so the generated properties (see
+   * {@link EntityMetadata#getGeneratedProperties()}) are inserted if they are the keys. If the keys are empty, i.e.
+   * the database uses the primary or unique keys implicitly, all the generated properties are inserted.
+   */
+  protected static List<Property> getUpsertInsertableProperties(EntityMetadata metadata, List<String> keyColumns) {
+    List<Property> insertables = metadata.getInsertableProperties();
+    List<Property> generated = metadata.getGeneratedProperties();
+    List<Property> result = insertables;
+    for (int i = 0; i < generated.size(); i++) {
+      if (keyColumns.isEmpty() || keyColumns.contains(generated.get(i).getEscapedColumnName())) {
+        if (result == insertables) {
+          result = new ArrayList<>(insertables);
         }
-        sql.append(escape(toColumnName(col))).append(" = #{");
-        if (!params.containsKey(col) && !beanArgName.isEmpty()) {
-          sql.append(beanArgName).append('.');
+        result.add(generated.get(i));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the properties updated by UPSERT, i.e. the updatable properties except the keys and the generated
+   * properties as the databases do not allow updating identity columns.
+   */
+  protected static List<Property> getUpsertUpdatableProperties(EntityMetadata metadata, List<String> keyColumns) {
+    List<Property> updatables = getNonKeyProperties(metadata.getUpdatableProperties(), keyColumns);
+    List<Property> generated = metadata.getGeneratedProperties();
+    if (!generated.isEmpty()) {
+      updatables.removeIf(p -> containsProperty(generated, p.getName()));
+    }
+    return updatables;
+  }
+
+  /**
+   * Returns the properties whose columns are not in the escaped key columns.
+   */
+  protected static List<Property> getNonKeyProperties(List<Property> properties, List<String> keyColumns) {
+    List<Property> result = new ArrayList<>(properties.size());
+    for (int i = 0; i < properties.size(); i++) {
+      if (!keyColumns.contains(properties.get(i).getEscapedColumnName())) {
+        result.add(properties.get(i));
+      }
+    }
+    return result;
+  }
+
+  protected static boolean containsProperty(List<Property> properties, String propertyName) {
+    for (int i = 0; i < properties.size(); i++) {
+      if (properties.get(i).getName().equals(propertyName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the escaped column name of the condition. If the condition refers to a property of the bean, the column
+   * name of the property (e.g. specified by {@code @Column(name)}) is used.
+   */
+  protected String getEscapedColumnName(EntityMetadata metadata, Condition condition) {
+    if (!condition.isParameter()) {
+      Optional<Property> property = metadata.findProperty(condition.getProperty());
+      if (property.isPresent()) {
+        return property.get().getEscapedColumnName();
+      }
+    }
+    return condition.getEscapedColumnName();
+  }
+
+  /**
+   * Returns the parsed method name.
+   * <p>
+   * The result is cached per provider and mapper method. The condition keyword is determined by the operation (e.g.
+   * {@code By} for UPDATE), so it is not a part of the cache key.
+   *
+   * @param conditionKeyword
+   *          the keyword that starts the conditions (e.g. {@code By})
+   */
+  protected MethodDescriptor getMethodDescriptor(Method mapperMethod, String conditionKeyword) {
+    return descriptorCache.get(mapperMethod.getDeclaringClass())
+        .computeIfAbsent(getClass(), k -> new ConcurrentHashMap<>())
+        .computeIfAbsent(mapperMethod, k -> parseMethodName(mapperMethod, conditionKeyword));
+  }
+
+  /**
+   * Parses a method name like {@code updateByIdAndName} into words and builds the conditions.
+   * <p>
+   * If the name does not contain the condition keyword, the second and subsequent method parameters are used as
+   * conditions (e.g. {@code update(Bean bean, Integer id)}).
+   */
+  protected MethodDescriptor parseMethodName(Method mapperMethod, String conditionKeyword) {
+    String methodName = mapperMethod.getName();
+    Set<String> paramNames = new HashSet<>();
+    for (Parameter parameter : mapperMethod.getParameters()) {
+      paramNames.add(getParamName(parameter));
+    }
+    List<String> words = splitCamelCase(methodName);
+    int keywordPos = words.indexOf(conditionKeyword);
+    List<Condition> conditions = new ArrayList<>();
+    if (keywordPos < 1) {
+      Parameter[] parameters = mapperMethod.getParameters();
+      for (int i = 1; i < parameters.length; i++) {
+        String paramName = getParamName(parameters[i]);
+        String columnName = toColumnName(paramName).toString();
+        conditions.add(new Condition(i > 1 ? Connector.AND : null, paramName, columnName,
+            escape(columnName).toString(), true));
+      }
+      return new MethodDescriptor(methodName, null, conditions);
+    }
+    Connector connector = null;
+    StringBuilder property = new StringBuilder();
+    for (int i = keywordPos + 1; i <= words.size(); i++) {
+      Connector next = i < words.size() ? Connector.of(words.get(i)) : null;
+      if (i < words.size() && next == null) {
+        property.append(words.get(i));
+        continue;
+      }
+      if (property.length() == 0) {
+        throw new IllegalArgumentException(
+            "Missing property name after '" + (i == keywordPos + 1 ? conditionKeyword : words.get(i - 1)) + "' in "
+                + methodName);
+      }
+      String propertyName = decapitalize(property.toString());
+      String columnName = toColumnName(propertyName).toString();
+      conditions.add(new Condition(connector, propertyName, columnName, escape(columnName).toString(),
+          paramNames.contains(propertyName)));
+      connector = next;
+      property.setLength(0);
+    }
+    return new MethodDescriptor(String.join("", words.subList(0, keywordPos)), conditionKeyword, conditions);
+  }
+
+  /**
+   * Returns the name MyBatis uses for the parameter, i.e. the value of {@code @Param} or the actual name.
+   */
+  protected String getParamName(Parameter parameter) {
+    Param param = parameter.getAnnotation(Param.class);
+    return param == null ? parameter.getName() : param.value();
+  }
+
+  private static List<String> splitCamelCase(String name) {
+    List<String> words = new ArrayList<>();
+    int start = 0;
+    for (int i = 1; i < name.length(); i++) {
+      if (Character.isUpperCase(name.charAt(i))) {
+        words.add(name.substring(start, i));
+        start = i;
+      }
+    }
+    words.add(name.substring(start));
+    return words;
+  }
+
+  /**
+   * Returns the table and column information of the bean class.
+   * <p>
+   * The result is cached per provider and bean class. Unlike {@link #loadEntityMetadata(Class)}, the escaped names are
+   * available.
+   */
+  protected EntityMetadata getEntityMetadata(Class<?> beanClass) {
+    Map<Class<?>, EntityMetadata> metadataPerProvider = metadataCache.get(beanClass);
+    EntityMetadata metadata = metadataPerProvider.get(getClass());
+    if (metadata == null) {
+      metadata = metadataPerProvider.computeIfAbsent(getClass(),
+          k -> loadEntityMetadata(beanClass).escape(this::escape));
+    }
+    return metadata;
+  }
+
+  /**
+   * Returns {@code true} if any provider has loaded the metadata of the bean class, i.e. it is an entity written by
+   * generated statements.
+   */
+  static boolean hasEntityMetadata(Class<?> beanClass) {
+    return !metadataCache.get(beanClass).isEmpty();
+  }
+
+  /**
+   * Returns the updatable properties for {@link DirtyTracker}. The property names do not depend on the dialect, so the
+   * metadata loaded by any provider is used. If no provider has loaded it yet, the fields are selected by the default
+   * rules of {@link #getUpdatableFields(Class)}.
+   */
+  static List<Property> getUpdatableProperties(Class<?> beanClass) {
+    for (EntityMetadata metadata : metadataCache.get(beanClass).values()) {
+      return metadata.getUpdatableProperties();
+    }
+    List<Property> properties = new ArrayList<>();
+    for (Class<?> clazz = beanClass; clazz != null; clazz = clazz.getSuperclass()) {
+      for (Field field : clazz.getDeclaredFields()) {
+        Class<?> type = field.getType();
+        Column column = field.getAnnotation(Column.class);
+        if (!Modifier.isStatic(field.getModifiers()) && !Collection.class.isAssignableFrom(type)
+            && !Map.class.isAssignableFrom(type) && !field.isAnnotationPresent(Version.class)
+            && (column == null || column.updatable())) {
+          properties.add(new Property(field.getName(), field.getName()));
         }
-        sql.append(col).append('}');
       }
     }
-    return sql;
+    return properties;
+  }
+
+  /**
+   * Returns the name of the version property for {@link OptimisticLocking}. The metadata loaded by any provider is used
+   * and, if there is none, the field annotated with {@code @Version}.
+   */
+  static Optional<String> getVersionPropertyName(Class<?> beanClass) {
+    for (EntityMetadata metadata : metadataCache.get(beanClass).values()) {
+      return metadata.getVersionProperty().map(Property::getName);
+    }
+    for (Class<?> clazz = beanClass; clazz != null; clazz = clazz.getSuperclass()) {
+      for (Field field : clazz.getDeclaredFields()) {
+        if (field.isAnnotationPresent(Version.class)) {
+          return Optional.of(field.getName());
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Uses the metadata class generated by {@code mybatis-gizmo-processor} if it exists. Otherwise, the bean class is
+   * inspected via reflection.
+   */
+  protected EntityMetadata loadEntityMetadata(Class<?> beanClass) {
+    EntityMetadata metadata = loadGeneratedMetadata(beanClass);
+    if (metadata != null) {
+      return metadata;
+    }
+    Field versionField = getVersionField(beanClass);
+    return new EntityMetadata(getTableName(beanClass).toString(), catalogOrSchema(beanClass).orElse(null),
+        toProperties(getInsertableFields(beanClass)), toProperties(getUpdatableFields(beanClass)),
+        versionField == null ? null : new Property(versionField.getName(), getColumnName(versionField).toString()),
+        toProperties(getGeneratedFields(beanClass)));
+  }
+
+  /**
+   * Generated metadata contains explicitly specified names only, so that the default names are resolved by
+   * {@link #toTableName(String)} and {@link #toColumnName(String)}.
+   */
+  protected EntityMetadata loadGeneratedMetadata(Class<?> beanClass) {
+    Class<?> metadataClass;
+    try {
+      metadataClass = Class.forName(beanClass.getName().replace('$', '_') + GENERATED_METADATA_SUFFIX, true,
+          beanClass.getClassLoader());
+    } catch (ClassNotFoundException e) {
+      return null;
+    }
+    try {
+      String table = (String) metadataClass.getField("TABLE").get(null);
+      String catalogOrSchema = (String) metadataClass.getField("CATALOG_OR_SCHEMA").get(null);
+      String[] propertyNames = (String[]) metadataClass.getField("PROPERTIES").get(null);
+      String[] columnNames = (String[]) metadataClass.getField("COLUMNS").get(null);
+      boolean[] insertable = (boolean[]) metadataClass.getField("INSERTABLE").get(null);
+      boolean[] updatable = (boolean[]) metadataClass.getField("UPDATABLE").get(null);
+      String version = getOptionalField(metadataClass, "VERSION");
+      boolean[] generated = getOptionalField(metadataClass, "GENERATED");
+      List<Property> insertableProperties = new ArrayList<>();
+      List<Property> updatableProperties = new ArrayList<>();
+      List<Property> generatedProperties = new ArrayList<>();
+      Property versionProperty = null;
+      for (int i = 0; i < propertyNames.length; i++) {
+        String columnName = columnNames[i] == null ? toColumnName(propertyNames[i]).toString() : columnNames[i];
+        Property property = new Property(propertyNames[i], columnName);
+        if (insertable[i]) {
+          insertableProperties.add(property);
+        } else if (generated != null && generated[i]) {
+          generatedProperties.add(property);
+        }
+        if (propertyNames[i].equals(version)) {
+          versionProperty = property;
+        } else if (updatable[i]) {
+          updatableProperties.add(property);
+        }
+      }
+      return new EntityMetadata(table == null ? toTableName(beanClass.getSimpleName()).toString() : table,
+          catalogOrSchema, insertableProperties, updatableProperties, versionProperty, generatedProperties);
+    } catch (ReflectiveOperationException | ClassCastException e) {
+      throw new IllegalStateException("Invalid metadata class " + metadataClass.getName(), e);
+    }
   }
 
+  @SuppressWarnings("unchecked")
+  private static <T> T getOptionalField(Class<?> metadataClass, String name) throws ReflectiveOperationException {
+    try {
+      return (T) metadataClass.getField(name).get(null);
+    } catch (NoSuchFieldException e) {
+      // Generated by an older version of the processor
+      return null;
+    }
+  }
+
+  private List<Property> toProperties(List<Field> fields) {
+    return fields.stream().map(f -> new Property(f.getName(), getColumnName(f).toString()))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * The fields annotated with {@code @GeneratedValue(strategy = IDENTITY)} are not included as their values are
+   * generated by the database.
+   *
+   * @see #getGeneratedFields(Class)
+   */
   protected List<Field> getInsertableFields(Class<? extends Object> beanClass) {
     return getFields(beanClass, f -> {
-      if (ignoredTypes(f.getType())) {
+      if (ignoredTypes(f.getType()) || isIdentity(f)) {
+        return false;
+      }
+      Column column = f.getAnnotation(Column.class);
+      return column == null || column.insertable();
+    });
+  }
+
+  /**
+   * Returns the insertable fields annotated with {@code @GeneratedValue(strategy = IDENTITY)}.
+   */
+  protected List<Field> getGeneratedFields(Class<?> beanClass) {
+    return getFields(beanClass, f -> {
+      if (ignoredTypes(f.getType()) || !isIdentity(f)) {
         return false;
       }
       Column column = f.getAnnotation(Column.class);
@@ -192,9 +1194,19 @@ public abstract class GizmoProvider implements ProviderMethodResolver {
     });
   }
 
+  private static boolean isIdentity(Field field) {
+    GeneratedValue generatedValue = field.getAnnotation(GeneratedValue.class);
+    return generatedValue != null && generatedValue.strategy() == GenerationType.IDENTITY;
+  }
+
+  /**
+   * The version field is not included as it is incremented instead of being set.
+   *
+   * @see #getVersionField(Class)
+   */
   protected List<Field> getUpdatableFields(Class<?> beanClass) {
     return getFields(beanClass, f -> {
-      if (ignoredTypes(f.getType())) {
+      if (ignoredTypes(f.getType()) || f.isAnnotationPresent(Version.class)) {
         return false;
       }
       Column column = f.getAnnotation(Column.class);
@@ -202,6 +1214,17 @@ public abstract class GizmoProvider implements ProviderMethodResolver {
     });
   }
 
+  /**
+   * Returns the field annotated with {@code @Version} or {@code null}.
+   */
+  protected Field getVersionField(Class<?> beanClass) {
+    List<Field> fields = getFields(beanClass, f -> f.isAnnotationPresent(Version.class));
+    if (fields.size() > 1) {
+      throw new IllegalArgumentException("Multiple @Version fields in " + beanClass.getName());
+    }
+    return fields.isEmpty() ? null : fields.get(0);
+  }
+
   protected boolean ignoredTypes(Class<?> fieldType) {
     if (fieldType.isPrimitive()) {
       return false;
@@ -273,12 +1296,13 @@ public abstract class GizmoProvider implements ProviderMethodResolver {
     return result;
   }
 
+  /**
+   * Collects the fields of the class and its superclasses. This is called only when loading the metadata.
+   */
   protected List<Field> getFields(Class<?> clazz, Predicate<Field> test) {
-    return fieldCache.computeIfAbsent(clazz, k -> {
-      List<Field> fields = new ArrayList<>();
-      collectFields(fields, clazz);
-      return fields;
-    }).stream().filter(test).collect(Collectors.toList());
+    List<Field> fields = new ArrayList<>();
+    collectFields(fields, clazz);
+    return fields.stream().filter(test).collect(Collectors.toList());
   }
 
   protected void collectFields(List<Field> fields, Class<?> clazz) {
@@ -290,7 +1314,61 @@ public abstract class GizmoProvider implements ProviderMethodResolver {
     collectFields(fields, clazz.getSuperclass());
   }
 
-  public abstract StringBuilder upsert(Object bean, ProviderContext context);
+  public CharSequence upsert(Object bean, ProviderContext context) {
+    return upsertStatement(context, bean.getClass());
+  }
+
+  protected abstract CharSequence upsertStatement(ProviderContext context, Class<?> beanClass);
+
+  /**
+   * Generates a multi-row UPSERT statement for the list passed as the first parameter.
+   *
+   * @see #insertAll(ProviderContext, Object)
+   */
+  public CharSequence upsertAll(ProviderContext context, Object param) {
+    String listName = getListName(context, param);
+    List<?> beans = getList(param, listName);
+    return upsertAllStatement(context, beans.get(0).getClass(), listName, beans.size());
+  }
+
+  protected CharSequence upsertAllStatement(ProviderContext context, Class<?> beanClass, String listName, int rows) {
+    throw new IllegalStateException("Multi-row upsert is not supported by " + getClass().getSimpleName());
+  }
+
+  /**
+   * Returns a query that returns the next value of the sequence (see {@link SequenceIdInterceptor}).
+   */
+  protected String getNextSequenceValueQuery(String sequenceName) {
+    throw new IllegalStateException(getClass().getSimpleName() + " does not support sequences.");
+  }
 
   protected abstract CharSequence escape(CharSequence name);
+
+  /**
+   * Unlike {@code DefaultReflectorFactory}, the reflectors are stored in a {@link ClassValue} so that they do not
+   * prevent the bean classes from being unloaded.
+   */
+  private static final class ClassValueReflectorFactory implements ReflectorFactory {
+    private final ClassValue<Reflector> reflectors = new ClassValue<>() {
+      @Override
+      protected Reflector computeValue(Class<?> type) {
+        return new Reflector(type);
+      }
+    };
+
+    @Override
+    public boolean isClassCacheEnabled() {
+      return true;
+    }
+
+    @Override
+    public void setClassCacheEnabled(boolean classCacheEnabled) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Reflector findForClass(Class<?> type) {
+      return reflectors.get(type);
+    }
+  }
 }
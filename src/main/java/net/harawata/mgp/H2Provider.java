@@ -0,0 +1,129 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.apache.ibatis.builder.annotation.ProviderContext;
+
+import net.harawata.mgp.EntityMetadata.Property;
+import net.harawata.mgp.MethodDescriptor.Condition;
+
+public class H2Provider extends GizmoProvider {
+  protected static final String DQ = "\"";
+
+  /**
+   * H2 folds unquoted names to upper case. Override this method if the database is opened with
+   * {@code DATABASE_TO_UPPER=FALSE} or {@code DATABASE_TO_LOWER=TRUE}.
+   */
+  @Override
+  protected CharSequence escape(CharSequence name) {
+    return DQ + name.toString().toUpperCase() + DQ;
+  }
+
+  @Override
+  protected String getNextSequenceValueQuery(String sequenceName) {
+    return "select next value for " + sequenceName;
+  }
+
+  @Override
+  protected CharSequence upsertStatement(ProviderContext context, Class<?> beanClass) {
+    return getStatementCache().get(new StatementKey(getClass(), context.getMapperMethod(), beanClass, null),
+        k -> buildMerge(context.getMapperMethod(), beanClass, null, 1).toString());
+  }
+
+  @Override
+  protected CharSequence upsertAllStatement(ProviderContext context, Class<?> beanClass, String listName, int rows) {
+    return getStatementCache().get(
+        new StatementKey(getClass(), context.getMapperMethod(), beanClass, listName + '[' + rows + ']'),
+        k -> {
+          checkUpsertRowCount(beanClass, rows);
+          return buildMerge(context.getMapperMethod(), beanClass, listName, rows).toString();
+        });
+  }
+
+  /**
+   * Generates {@code MERGE INTO ... KEY (...) VALUES ...}. The key properties are specified after {@code On} in the
+   * method name (e.g. {@code upsertUserOnId}). If they are omitted, H2 uses the primary key.
+   * <p>
+   * When the key matches, all the columns in the column list are updated, so the properties that are not updatable
+   * are overwritten as well. Optimistic locking is not supported.
+   *
+   * @param listName
+   *          the name of the list parameter or {@code null} for a single-row statement
+   */
+  protected StringBuilder buildMerge(Method mapperMethod, Class<?> beanClass, String listName, int rows) {
+    EntityMetadata metadata = getEntityMetadata(beanClass);
+    if (metadata.getVersionProperty().isPresent()) {
+      throw new IllegalStateException(
+          "MERGE INTO ... KEY cannot check the version of " + beanClass.getSimpleName() + ". Use UPDATE instead.");
+    }
+    List<Condition> keys = getMethodDescriptor(mapperMethod, "On").getConditionKeyword().isPresent()
+        ? getUpsertKeys(mapperMethod)
+        : List.of();
+    List<String> keyColumns = getKeyColumns(metadata, keys);
+    List<Property> properties = getUpsertInsertableProperties(metadata, keyColumns);
+
+    int length = 32 + metadata.getQualifiedTableName().length() + namesLength(properties) + properties.size() * 2;
+    for (int i = 0; i < keyColumns.size(); i++) {
+      length += keyColumns.get(i).length() + 2;
+    }
+    length += listName == null ? namesLength(properties) + properties.size() * 5
+        : (rowValuesLength(properties, listName) + 2) * rows;
+    StringBuilder sql = new StringBuilder(length);
+    sql.append("merge into ").append(metadata.getQualifiedTableName()).append(" (");
+    appendColumns(sql, properties);
+    sql.append(')');
+    if (!keyColumns.isEmpty()) {
+      sql.append(" key (");
+      for (int i = 0; i < keyColumns.size(); i++) {
+        if (i > 0) {
+          sql.append(", ");
+        }
+        sql.append(keyColumns.get(i));
+      }
+      sql.append(')');
+    }
+    sql.append(" values ");
+    if (listName == null) {
+      sql.append('(');
+      for (int i = 0; i < properties.size(); i++) {
+        if (i > 0) {
+          sql.append(", ");
+        }
+        sql.append("#{").append(properties.get(i).getName()).append('}');
+      }
+      sql.append(')');
+    } else {
+      for (int row = 0; row < rows; row++) {
+        if (row > 0) {
+          sql.append(", ");
+        }
+        appendRowValues(sql, properties, listName, row);
+      }
+    }
+    return sql;
+  }
+}
@@ -0,0 +1,150 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The result of parsing a mapper method name such as {@code updateByIdAndName}.
+ * <p>
+ * {@link Condition#getColumnName()} is not escaped.
+ *
+ * @see GizmoProvider#getMethodDescriptor(java.lang.reflect.Method, String)
+ */
+public final class MethodDescriptor {
+
+  /**
+   * A keyword that joins conditions in a method name.
+   */
+  public enum Connector {
+    AND("And", " and "), OR("Or", " or ");
+
+    private final String keyword;
+    private final String sql;
+
+    Connector(String keyword, String sql) {
+      this.keyword = keyword;
+      this.sql = sql;
+    }
+
+    public String getKeyword() {
+      return keyword;
+    }
+
+    /**
+     * Returns the SQL operator surrounded by spaces.
+     */
+    public String getSql() {
+      return sql;
+    }
+
+    /**
+     * Returns the connector for the word in a method name or {@code null} if the word is not a connector.
+     */
+    public static Connector of(String word) {
+      for (Connector connector : values()) {
+        if (connector.keyword.equals(word)) {
+          return connector;
+        }
+      }
+      return null;
+    }
+  }
+
+  private final String operation;
+  private final String conditionKeyword;
+  private final List<Condition> conditions;
+
+  public MethodDescriptor(String operation, String conditionKeyword, List<Condition> conditions) {
+    this.operation = operation;
+    this.conditionKeyword = conditionKeyword;
+    this.conditions = Collections.unmodifiableList(conditions);
+  }
+
+  /**
+   * Returns the part of the method name before the condition keyword (e.g. {@code updateSelective}).
+   */
+  public String getOperation() {
+    return operation;
+  }
+
+  /**
+   * Returns the keyword that starts the conditions (e.g. {@code By}) if the method name contains it.
+   */
+  public Optional<String> getConditionKeyword() {
+    return Optional.ofNullable(conditionKeyword);
+  }
+
+  /**
+   * Returns the conditions specified with the method name or, if there is none, with the method parameters.
+   */
+  public List<Condition> getConditions() {
+    return conditions;
+  }
+
+  public static final class Condition {
+    private final Connector connector;
+    private final String property;
+    private final String columnName;
+    private final String escapedColumnName;
+    private final boolean parameter;
+
+    public Condition(Connector connector, String property, String columnName, String escapedColumnName,
+        boolean parameter) {
+      this.connector = connector;
+      this.property = property;
+      this.columnName = columnName;
+      this.escapedColumnName = escapedColumnName;
+      this.parameter = parameter;
+    }
+
+    /**
+     * Returns the connector to the previous condition or {@code null} for the first condition.
+     */
+    public Connector getConnector() {
+      return connector;
+    }
+
+    public String getProperty() {
+      return property;
+    }
+
+    public String getColumnName() {
+      return columnName;
+    }
+
+    public String getEscapedColumnName() {
+      return escapedColumnName;
+    }
+
+    /**
+     * Returns {@code true} if the value is a method parameter, {@code false} if it is a property of the bean.
+     */
+    public boolean isParameter() {
+      return parameter;
+    }
+  }
+}
@@ -23,68 +23,412 @@
  */
 package net.harawata.mgp;
 
-import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.ibatis.builder.annotation.ProviderContext;
 
+import net.harawata.mgp.EntityMetadata.Property;
+import net.harawata.mgp.MethodDescriptor.Condition;
+
 public class MssqlProvider extends GizmoProvider {
+
+  /**
+   * How UPSERT is performed.
+   *
+   * @see MssqlProvider#getUpsertStrategy()
+   */
+  public enum UpsertStrategy {
+    /**
+     * {@code MERGE ... WITH (HOLDLOCK)}. A single statement, but concurrent upserts on the same key range may block
+     * each other and deadlock.
+     */
+    MERGE,
+    /**
+     * {@code UPDATE ... WITH (UPDLOCK, SERIALIZABLE)} followed by {@code INSERT} if no row is updated, in one batch.
+     * The lock is taken on the key only, so there are fewer deadlocks under contention. The update count is that of
+     * the UPDATE, i.e. 0 when the row is inserted.
+     */
+    UPDATE_THEN_INSERT
+  }
+
   protected static final String DQ = "\"";
   protected static final String SRCTABLE = "srctbl";
   protected static final String DESTTABLE = "desttbl";
+  protected static final String ESCAPED_SRCTABLE = DQ + SRCTABLE + DQ;
+  protected static final String ESCAPED_DESTTABLE = DQ + DESTTABLE + DQ;
 
   @Override
   protected CharSequence escape(CharSequence name) {
-    return new StringBuilder().append(DQ).append(name).append(DQ);
+    return DQ + name + DQ;
   }
 
   @Override
-  public StringBuilder upsert(Object bean, ProviderContext context) {
-    String mapperMethodName = context.getMapperMethod().getName();
-    String[] keyColumns = mapperMethodName.split("On(?=[A-Z])|And(?=[A-Z])");
-    if (keyColumns.length == 1) {
-      throw new IllegalArgumentException(
-          "Upsert requires key column name(s) after 'On' e.g. 'upsertSomeBeanOnId(Bean bean)'");
+  protected int getMaxParameters() {
+    return 2100;
+  }
+
+  @Override
+  protected int getMaxRows() {
+    // Row value expressions in VALUES clause
+    return 1000;
+  }
+
+  /**
+   * Counts the parameters bound per row by UPSERT of the active strategy as they can be more than those of INSERT. The keys are not known here, so every property is assumed to be a key.
+   * <ul>
+   * <li>{@link UpsertStrategy#MERGE}: the source table contains the insertable and updatable properties.</li>
+   * <li>{@link UpsertStrategy#UPDATE_THEN_INSERT}: the SET and WHERE clauses of UPDATE, the version condition and the
+   * keys in {@code NOT EXISTS}, then the values of INSERT.</li>
+   * </ul>
+   */
+  @Override
+  public int getMaxRowsPerUpsert(Class<?> beanClass) {
+    EntityMetadata metadata = getEntityMetadata(beanClass);
+    Set<String> names = new HashSet<>();
+    for (List<Property> properties : List.of(metadata.getInsertableProperties(), metadata.getUpdatableProperties(),
+        metadata.getGeneratedProperties())) {
+      for (int i = 0; i < properties.size(); i++) {
+        names.add(properties.get(i).getName());
+      }
     }
+    int parameters = names.size();
+    if (getUpsertStrategy() == UpsertStrategy.UPDATE_THEN_INSERT) {
+      parameters += metadata.getInsertableProperties().size() + metadata.getGeneratedProperties().size();
+      if (metadata.getVersionProperty().isPresent()) {
+        parameters += 1 + names.size();
+      }
+    }
+    return Math.max(1, Math.min(getMaxRows(), getMaxParameters() / Math.max(1, parameters)));
+  }
 
-    CharSequence src = escape(SRCTABLE);
-    CharSequence dest = escape(DESTTABLE);
+  @Override
+  protected String getNextSequenceValueQuery(String sequenceName) {
+    return "select next value for " + sequenceName;
+  }
 
-    Class<? extends Object> beanClass = bean.getClass();
-    List<Field> fields = getInsertableFields(beanClass);
-    StringBuilder sql = new StringBuilder();
+  /**
+   * Returns the strategy used by UPSERT. Override this method to choose another strategy.
+   *
+   * <pre>
+   * public class MyMssqlProvider extends MssqlProvider {
+   *   &#64;Override
+   *   protected UpsertStrategy getUpsertStrategy() {
+   *     return UpsertStrategy.UPDATE_THEN_INSERT;
+   *   }
+   * }
+   * </pre>
+   */
+  protected UpsertStrategy getUpsertStrategy() {
+    return UpsertStrategy.MERGE;
+  }
 
-    sql.append("merge into ");
-    catalogOrSchema(beanClass).ifPresent(x -> sql.append(escape(x)).append('.'));
-    sql.append(escape(getTableName(beanClass))).append(" with (holdlock) as ").append(dest)
-        .append(" using (select ");
+  @Override
+  protected CharSequence upsertStatement(ProviderContext context, Class<?> beanClass) {
+    return getStatementCache().get(new StatementKey(getClass(), context.getMapperMethod(), beanClass, null),
+        k -> buildUpsert(context.getMapperMethod(), beanClass).toString());
+  }
 
-    StringBuilder matched = new StringBuilder(") when matched then update set ");
-    StringBuilder notMatched = new StringBuilder(" when not matched then insert (");
-    StringBuilder values = new StringBuilder(") values (");
+  @Override
+  protected CharSequence upsertAllStatement(ProviderContext context, Class<?> beanClass, String listName, int rows) {
+    return getStatementCache().get(
+        new StatementKey(getClass(), context.getMapperMethod(), beanClass, listName + '[' + rows + ']'),
+        k -> buildUpsertAll(context.getMapperMethod(), beanClass, listName, rows).toString());
+  }
 
-    for (int i = 0; i < fields.size(); i++) {
+  protected StringBuilder buildUpsert(Method mapperMethod, Class<?> beanClass) {
+    if (getUpsertStrategy() == UpsertStrategy.UPDATE_THEN_INSERT) {
+      return buildUpdateThenInsert(mapperMethod, beanClass, null, 1);
+    }
+    return buildMerge(mapperMethod, beanClass, null, 1);
+  }
+
+  protected StringBuilder buildUpsertAll(Method mapperMethod, Class<?> beanClass, String listName, int rows) {
+    checkUpsertRowCount(beanClass, rows);
+    if (getUpsertStrategy() == UpsertStrategy.UPDATE_THEN_INSERT) {
+      return buildUpdateThenInsert(mapperMethod, beanClass, listName, rows);
+    }
+    return buildMerge(mapperMethod, beanClass, listName, rows);
+  }
+
+  /**
+   * Generates {@code UPDATE ... WITH (UPDLOCK, SERIALIZABLE)} and conditional {@code INSERT} for each row.
+   * <p>
+   * If the bean has a version property and the versions do not match, the row is neither updated nor inserted.
+   *
+   * @param listName
+   *          the name of the list parameter or {@code null} for a single-row statement
+   */
+  protected StringBuilder buildUpdateThenInsert(Method mapperMethod, Class<?> beanClass, String listName, int rows) {
+    List<Condition> keys = getUpsertKeys(mapperMethod);
+    EntityMetadata metadata = getEntityMetadata(beanClass);
+    Property version = metadata.getVersionProperty().orElse(null);
+    List<String> keyColumns = getKeyColumns(metadata, keys);
+    List<Property> insertables = getUpsertInsertableProperties(metadata, keyColumns);
+    List<Property> updatables = getUpsertUpdatableProperties(metadata, keyColumns);
+    String table = metadata.getQualifiedTableName();
+    int prefixLength = listName == null ? 0 : listName.length() + 8;
+
+    int rowLength = 128 + table.length() * 2 + namesLength(insertables) * 2 + namesLength(updatables)
+        + (insertables.size() + updatables.size()) * (prefixLength + 8);
+    for (int i = 0; i < keys.size(); i++) {
+      rowLength += (keyColumns.get(i).length() + keys.get(i).getProperty().length() + prefixLength + 12) * 2;
+    }
+    if (version != null) {
+      rowLength += version.getEscapedColumnName().length() * 3 + version.getName().length() + 64
+          + table.length();
+    }
+    StringBuilder sql = new StringBuilder(rowLength * rows);
+    for (int row = 0; row < rows; row++) {
+      if (row > 0) {
+        sql.append(' ');
+      }
+      String prefix = listName == null ? "" : listName + '[' + row + "].";
+      sql.append("update ").append(table).append(" with (updlock, serializable) set ");
+      for (int i = 0; i < updatables.size(); i++) {
+        if (i > 0) {
+          sql.append(", ");
+        }
+        sql.append(updatables.get(i).getEscapedColumnName()).append(" = #{").append(prefix)
+            .append(updatables.get(i).getName()).append('}');
+      }
+      if (version != null) {
+        if (!updatables.isEmpty()) {
+          sql.append(", ");
+        }
+        sql.append(version.getEscapedColumnName()).append(" = ").append(version.getEscapedColumnName())
+            .append(" + 1");
+      } else if (updatables.isEmpty()) {
+        // Only the keys: lock the row without changing it
+        String key = keyColumns.get(0);
+        sql.append(key).append(" = ").append(key);
+      }
+      int whereStart = sql.length();
+      appendKeyConditions(sql, keys, keyColumns, prefix);
+      int whereEnd = sql.length();
+      if (version != null) {
+        sql.append(" and ").append(version.getEscapedColumnName()).append(" = #{").append(prefix)
+            .append(version.getName()).append('}');
+      }
+      sql.append("; if @@rowcount = 0");
+      if (version != null) {
+        // The key range is still locked by the UPDATE
+        sql.append(" and not exists (select 1 from ").append(table).append(sql, whereStart, whereEnd).append(')');
+      }
+      sql.append(" insert into ").append(table).append(" (");
+      appendColumns(sql, insertables);
+      sql.append(") values (");
+      for (int i = 0; i < insertables.size(); i++) {
+        if (i > 0) {
+          sql.append(", ");
+        }
+        sql.append("#{").append(prefix).append(insertables.get(i).getName()).append('}');
+      }
+      sql.append(");");
+    }
+    return sql;
+  }
+
+  private static void appendKeyConditions(StringBuilder sql, List<Condition> keys, List<String> keyColumns,
+      String prefix) {
+    sql.append(" where ");
+    for (int i = 0; i < keys.size(); i++) {
+      if (i > 0) {
+        sql.append(" and ");
+      }
+      sql.append(keyColumns.get(i)).append(" = #{").append(prefix).append(keys.get(i).getProperty()).append('}');
+    }
+  }
+
+  /**
+   * The matched branch updates the updatable properties except the keys, so that the key columns are not rewritten.
+   * The source table contains the insertable properties and the updatable properties that are not insertable.
+   *
+   * @param listName
+   *          the name of the list parameter or {@code null} for a single-row statement
+   */
+  private StringBuilder buildMerge(Method mapperMethod, Class<?> beanClass, String listName, int rows) {
+    List<Condition> keys = getUpsertKeys(mapperMethod);
+
+    String src = ESCAPED_SRCTABLE;
+    String dest = ESCAPED_DESTTABLE;
+
+    EntityMetadata metadata = getEntityMetadata(beanClass);
+    List<String> keyColumns = getKeyColumns(metadata, keys);
+    List<Property> insertables = getUpsertInsertableProperties(metadata, keyColumns);
+    List<Property> updatables = getUpsertUpdatableProperties(metadata, keyColumns);
+    List<Property> sources = insertables;
+    for (int i = 0; i < updatables.size(); i++) {
+      if (!containsProperty(insertables, updatables.get(i).getName())) {
+        if (sources == insertables) {
+          sources = new ArrayList<>(insertables);
+        }
+        sources.add(updatables.get(i));
+      }
+    }
+    Property version = metadata.getVersionProperty().orElse(null);
+
+    int length = 128 + metadata.getQualifiedTableName().length() + namesLength(insertables) * 2
+        + insertables.size() * (src.length() + 4);
+    for (int i = 0; i < keys.size(); i++) {
+      length += keyColumns.get(i).length() * 2 + src.length() + dest.length() + 12;
+    }
+    for (int i = 0; i < updatables.size(); i++) {
+      length += updatables.get(i).getEscapedColumnName().length() * 2 + src.length() + 6;
+    }
+    length += listName == null ? namesLength(sources) + sources.size() * 8
+        : (rowValuesLength(sources, listName) + 2) * rows + namesLength(sources);
+    if (version != null) {
+      length += version.getEscapedColumnName().length() * 4 + (src.length() + dest.length()) * 2 + 24;
+    }
+    StringBuilder sql = new StringBuilder(length);
+
+    sql.append("merge into ").append(metadata.getQualifiedTableName()).append(" with (holdlock) as ").append(dest);
+    appendSource(sql, sources, listName, rows, false);
+    sql.append(" on (");
+    for (int i = 0; i < keys.size(); i++) {
+      if (i > 0) {
+        sql.append(" and ");
+      }
+      String keyColumn = keyColumns.get(i);
+      sql.append(dest).append('.').append(keyColumn).append(" = ").append(src).append('.').append(keyColumn);
+    }
+    sql.append(')');
+    if (!updatables.isEmpty() || version != null) {
+      sql.append(" when matched");
+      if (version != null) {
+        // A version mismatch leaves the row as is, i.e. 0 rows affected
+        String ver = version.getEscapedColumnName();
+        sql.append(" and ").append(dest).append('.').append(ver).append(" = ").append(src).append('.').append(ver);
+      }
+      sql.append(" then update set ");
+      for (int i = 0; i < updatables.size(); i++) {
+        if (i > 0) {
+          sql.append(", ");
+        }
+        String col = updatables.get(i).getEscapedColumnName();
+        sql.append(col).append(" = ").append(src).append('.').append(col);
+      }
+      if (version != null) {
+        String ver = version.getEscapedColumnName();
+        if (!updatables.isEmpty()) {
+          sql.append(", ");
+        }
+        sql.append(ver).append(" = ").append(dest).append('.').append(ver).append(" + 1");
+      }
+    }
+    sql.append(" when not matched then insert (");
+    appendColumns(sql, insertables);
+    sql.append(") values (");
+    for (int i = 0; i < insertables.size(); i++) {
       if (i > 0) {
         sql.append(", ");
-        matched.append(", ");
-        notMatched.append(", ");
-        values.append(", ");
-      }
-      CharSequence col = escape(getColumnName(fields.get(i)));
-      sql.append("#{").append(fields.get(i).getName()).append("} as ").append(col);
-      matched.append(col).append(" = ").append(src).append(".").append(col);
-      notMatched.append(col);
-      values.append(src).append(".").append(col);
-    }
-    sql.append(") as ").append(src).append(" on (");
-    for (int i = 1; i < keyColumns.length; i++) {
-      if (i > 1) {
+      }
+      sql.append(src).append('.').append(insertables.get(i).getEscapedColumnName());
+    }
+    sql.append(");");
+    return sql;
+  }
+
+  @Override
+  protected CharSequence insertReturningStatement(ProviderContext context, Class<?> beanClass, String listName,
+      int rows) {
+    return getStatementCache().get(
+        new StatementKey(getClass(), context.getMapperMethod(), beanClass,
+            listName == null ? null : listName + '[' + rows + ']'),
+        k -> buildInsertReturning(context.getMapperMethod(), beanClass, listName, rows).toString());
+  }
+
+  /**
+   * The order of the rows in the OUTPUT clause of INSERT is not guaranteed, so MERGE that never matches is used to
+   * output the row index from the source table along with the keys.
+   *
+   * @param listName
+   *          the name of the list parameter or {@code null} for a single-row statement
+   */
+  protected StringBuilder buildInsertReturning(Method mapperMethod, Class<?> beanClass, String listName, int rows) {
+    List<Condition> keys = getReturnedKeys(mapperMethod);
+    if (listName != null) {
+      checkRowCount(beanClass, rows);
+    }
+    String src = ESCAPED_SRCTABLE;
+    EntityMetadata metadata = getEntityMetadata(beanClass);
+    List<Property> properties = metadata.getInsertableProperties();
+    int length = 128 + metadata.getQualifiedTableName().length() + namesLength(properties) * 2
+        + properties.size() * (src.length() + 8);
+    for (int i = 0; i < keys.size(); i++) {
+      length += getEscapedColumnName(metadata, keys.get(i)).length() + keys.get(i).getProperty().length() + 16;
+    }
+    length += listName == null ? 0 : (rowValuesLength(properties, listName) + 8) * rows;
+    StringBuilder sql = new StringBuilder(length);
+
+    sql.append("merge into ").append(metadata.getQualifiedTableName()).append(" as ").append(ESCAPED_DESTTABLE);
+    appendSource(sql, properties, listName, rows, true);
+    sql.append(" on 1 = 0 when not matched then insert (");
+    appendColumns(sql, properties);
+    sql.append(") values (");
+    for (int i = 0; i < properties.size(); i++) {
+      if (i > 0) {
         sql.append(", ");
       }
-      CharSequence keyColumn = escape(decapitalize(keyColumns[i]));
-      sql.append(dest).append(".").append(keyColumn).append(" = ").append(src).append(".").append(keyColumn);
+      sql.append(src).append('.').append(properties.get(i).getEscapedColumnName());
+    }
+    sql.append(") output ").append(src).append('.').append(DQ).append(ROW_INDEX).append(DQ);
+    for (int i = 0; i < keys.size(); i++) {
+      sql.append(", inserted.").append(getEscapedColumnName(metadata, keys.get(i))).append(" as ").append(DQ)
+          .append(keys.get(i).getProperty()).append(DQ);
     }
-    sql.append(matched).append(notMatched).append(values).append(");");
+    sql.append(';');
     return sql;
   }
+
+  /**
+   * Appends the USING clause of MERGE.
+   *
+   * @param withRowIndex
+   *          whether to add the index of each row as the first column
+   */
+  private void appendSource(StringBuilder sql, List<Property> properties, String listName, int rows,
+      boolean withRowIndex) {
+    if (listName == null) {
+      sql.append(" using (select ");
+      if (withRowIndex) {
+        sql.append("0 as ").append(DQ).append(ROW_INDEX).append(DQ).append(", ");
+      }
+      for (int i = 0; i < properties.size(); i++) {
+        if (i > 0) {
+          sql.append(", ");
+        }
+        sql.append("#{").append(properties.get(i).getName()).append("} as ")
+            .append(properties.get(i).getEscapedColumnName());
+      }
+      sql.append(") as ").append(ESCAPED_SRCTABLE);
+    } else {
+      sql.append(" using (values ");
+      for (int row = 0; row < rows; row++) {
+        if (row > 0) {
+          sql.append(", ");
+        }
+        if (withRowIndex) {
+          sql.append('(').append(row);
+          for (int i = 0; i < properties.size(); i++) {
+            sql.append(", #{").append(listName).append('[').append(row).append("].")
+                .append(properties.get(i).getName()).append('}');
+          }
+          sql.append(')');
+        } else {
+          appendRowValues(sql, properties, listName, row);
+        }
+      }
+      sql.append(") as ").append(ESCAPED_SRCTABLE).append(" (");
+      if (withRowIndex) {
+        sql.append(DQ).append(ROW_INDEX).append(DQ).append(", ");
+      }
+      appendColumns(sql, properties);
+      sql.append(')');
+    }
+  }
 }
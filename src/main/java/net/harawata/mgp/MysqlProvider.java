@@ -23,33 +23,106 @@
  */
 package net.harawata.mgp;
 
-import java.lang.reflect.Field;
 import java.util.List;
 
 import org.apache.ibatis.builder.annotation.ProviderContext;
 
+import net.harawata.mgp.EntityMetadata.Property;
+
 public class MysqlProvider extends GizmoProvider {
   protected static final String BACKTICK = "`";
   protected static final String NEWROW = "newrow";
+  protected static final String ESCAPED_NEWROW = BACKTICK + NEWROW + BACKTICK;
 
   @Override
   protected CharSequence escape(CharSequence name) {
-    return new StringBuilder().append(BACKTICK).append(name).append(BACKTICK);
+    return BACKTICK + name + BACKTICK;
+  }
+
+  /**
+   * The size of a multi-row statement is also limited by {@code max_allowed_packet}, so the number of rows is limited
+   * by {@link #getMaxRows()} as well. Override it if your rows are large.
+   */
+  @Override
+  protected int getMaxParameters() {
+    return 65535;
+  }
+
+  @Override
+  protected CharSequence upsertStatement(ProviderContext context, Class<?> beanClass) {
+    return getStatementCache().get(new StatementKey(getClass(), context.getMapperMethod(), beanClass, null),
+        k -> buildUpsert(beanClass).toString());
   }
 
   @Override
-  public StringBuilder upsert(Object bean, ProviderContext context) {
-    Class<? extends Object> beanClass = bean.getClass();
-    StringBuilder sql = insert(bean, context);
-    List<Field> fields = getUpdatableFields(beanClass);
-    sql.append(" as ").append(escape(NEWROW)).append(" on duplicate key update ");
-    for (int i = 0; i < fields.size(); i++) {
+  protected CharSequence upsertAllStatement(ProviderContext context, Class<?> beanClass, String listName, int rows) {
+    return getStatementCache().get(
+        new StatementKey(getClass(), context.getMapperMethod(), beanClass, listName + '[' + rows + ']'),
+        k -> buildUpsertAll(beanClass, listName, rows).toString());
+  }
+
+  protected StringBuilder buildUpsert(Class<?> beanClass) {
+    EntityMetadata metadata = getEntityMetadata(beanClass);
+    StringBuilder sql = buildInsert(beanClass, getUpsertInsertableProperties(metadata, List.of()),
+        onDuplicateKeyUpdateLength(metadata));
+    appendOnDuplicateKeyUpdate(sql, beanClass);
+    return sql;
+  }
+
+  protected StringBuilder buildUpsertAll(Class<?> beanClass, String listName, int rows) {
+    EntityMetadata metadata = getEntityMetadata(beanClass);
+    StringBuilder sql = buildInsertAll(beanClass, getUpsertInsertableProperties(metadata, List.of()), listName, rows,
+        onDuplicateKeyUpdateLength(metadata));
+    appendOnDuplicateKeyUpdate(sql, beanClass);
+    return sql;
+  }
+
+  /**
+   * If the bean has a version property, the existing row is updated only when its version matches the new row's and
+   * the version is incremented. As MySQL assigns the columns from left to right, the version column must be the last
+   * one. Note that a version mismatch is reported as '1 row affected' unless {@code useAffectedRows=true} is set.
+   */
+  protected void appendOnDuplicateKeyUpdate(StringBuilder sql, Class<?> beanClass) {
+    EntityMetadata metadata = getEntityMetadata(beanClass);
+    List<Property> properties = getUpsertUpdatableProperties(metadata, List.of());
+    Property version = metadata.getVersionProperty().orElse(null);
+    sql.append(" as ").append(ESCAPED_NEWROW).append(" on duplicate key update ");
+    for (int i = 0; i < properties.size(); i++) {
       if (i > 0) {
         sql.append(", ");
       }
-      sql.append(escape(getColumnName(fields.get(i)))).append(" = ").append(escape(NEWROW)).append(".")
-          .append(escape(getColumnName(fields.get(i))));
+      String col = properties.get(i).getEscapedColumnName();
+      sql.append(col).append(" = ");
+      if (version == null) {
+        sql.append(ESCAPED_NEWROW).append('.').append(col);
+      } else {
+        appendVersionMatches(sql, version).append(ESCAPED_NEWROW).append('.').append(col).append(", ").append(col)
+            .append(')');
+      }
     }
-    return sql;
+    if (version != null) {
+      String ver = version.getEscapedColumnName();
+      if (!properties.isEmpty()) {
+        sql.append(", ");
+      }
+      sql.append(ver).append(" = ");
+      appendVersionMatches(sql, version).append(ver).append(" + 1, ").append(ver).append(')');
+    }
+  }
+
+  private static StringBuilder appendVersionMatches(StringBuilder sql, Property version) {
+    String ver = version.getEscapedColumnName();
+    return sql.append("if(").append(ver).append(" = ").append(ESCAPED_NEWROW).append('.').append(ver).append(", ");
+  }
+
+  private static int onDuplicateKeyUpdateLength(EntityMetadata metadata) {
+    List<Property> properties = getUpsertUpdatableProperties(metadata, List.of());
+    int versionLength = metadata.getVersionProperty().map(p -> p.getEscapedColumnName().length() * 2 + 20)
+        .orElse(0);
+    int length = 40 + versionLength * 2;
+    for (int i = 0; i < properties.size(); i++) {
+      length += properties.get(i).getEscapedColumnName().length() * 3 + ESCAPED_NEWROW.length() + 6 + versionLength;
+    }
+    return length;
   }
 }
@@ -0,0 +1,130 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp;
+
+import java.sql.Statement;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.reflection.Reflector;
+
+import jakarta.persistence.OptimisticLockException;
+
+/**
+ * Detects lost updates from the update counts of the statements generated for a bean with a {@code @Version}
+ * property.
+ * <p>
+ * The generated UPDATE increments the version only when it matches the bean's, so an update count of 0 means that
+ * the row has been modified (or deleted) by another transaction. No extra query is issued. After a successful update,
+ * the bean's version is incremented as well, so that the bean can be updated again.
+ *
+ * <pre>
+ * OptimisticLocking.requireUpdated(mapper.updateById(user), user);
+ * </pre>
+ */
+public final class OptimisticLocking {
+
+  private OptimisticLocking() {
+    super();
+  }
+
+  /**
+   * Increments the version of the entity if the update count is positive. A negative count (e.g. the placeholder
+   * returned by the {@code BATCH} executor) is returned as-is.
+   *
+   * @return the update count as-is
+   * @throws OptimisticLockException
+   *           if the update count is 0
+   */
+  public static int requireUpdated(int updateCount, Object entity) {
+    if (updateCount == 0) {
+      throw new OptimisticLockException("The row has been updated or deleted by another transaction: " + entity, null,
+          entity);
+    }
+    if (updateCount > 0) {
+      incrementVersion(entity);
+    }
+    return updateCount;
+  }
+
+  /**
+   * Checks the results of {@code SqlSession#flushStatements()} with {@code ExecutorType.BATCH}. Update counts that the
+   * driver does not report (i.e. {@link Statement#SUCCESS_NO_INFO}) are ignored.
+   *
+   * @throws OptimisticLockException
+   *           with the first parameter object whose update count is 0
+   */
+  public static void requireUpdated(List<BatchResult> results) {
+    for (BatchResult result : results) {
+      int[] updateCounts = result.getUpdateCounts();
+      for (int i = 0; i < updateCounts.length; i++) {
+        if (updateCounts[i] == 0) {
+          requireUpdated(0, result.getParameterObjects().get(i));
+        } else if (updateCounts[i] > 0) {
+          incrementVersion(result.getParameterObjects().get(i));
+        }
+      }
+    }
+  }
+
+  /**
+   * Applies {@code version = version + 1} of the generated UPDATE to the bean. If the bean is passed with other
+   * parameters, it is the first one.
+   */
+  private static void incrementVersion(Object entity) {
+    Object bean = entity;
+    if (entity instanceof ParamMap) {
+      ParamMap<?> params = (ParamMap<?>) entity;
+      bean = params.containsKey("param1") ? params.get("param1") : null;
+    }
+    if (bean == null) {
+      return;
+    }
+    Optional<String> version = GizmoProvider.getVersionPropertyName(bean.getClass());
+    if (!version.isPresent()) {
+      return;
+    }
+    String propertyName = version.get();
+    Reflector reflector = GizmoProvider.reflectorFactory.findForClass(bean.getClass());
+    try {
+      Object current = reflector.getGetInvoker(propertyName).invoke(bean, null);
+      Object next;
+      if (current instanceof Integer) {
+        next = (Integer) current + 1;
+      } else if (current instanceof Long) {
+        next = (Long) current + 1;
+      } else if (current instanceof Short) {
+        next = (short) ((Short) current + 1);
+      } else {
+        // null never matches the row
+        return;
+      }
+      reflector.getSetInvoker(propertyName).invoke(bean, new Object[] { next });
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Failed to increment the version of " + bean.getClass().getName(), e);
+    }
+  }
+}
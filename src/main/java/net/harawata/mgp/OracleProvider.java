@@ -23,19 +23,265 @@
  */
 package net.harawata.mgp;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.ibatis.builder.annotation.ProviderContext;
 
+import net.harawata.mgp.EntityMetadata.Property;
+import net.harawata.mgp.MethodDescriptor.Condition;
+
 public class OracleProvider extends GizmoProvider {
   protected static final String DQ = "\"";
+  protected static final String SRCTABLE = "srctbl";
+  protected static final String DESTTABLE = "desttbl";
+  protected static final String ESCAPED_SRCTABLE = DQ + SRCTABLE + DQ;
+  protected static final String ESCAPED_DESTTABLE = DQ + DESTTABLE + DQ;
 
   @Override
   protected CharSequence escape(CharSequence name) {
-    return new StringBuilder().append(DQ).append(name.toString().toUpperCase()).append(DQ);
+    return DQ + name.toString().toUpperCase() + DQ;
+  }
+
+  @Override
+  protected int getMaxParameters() {
+    return 65535;
+  }
+
+  @Override
+  protected String getNextSequenceValueQuery(String sequenceName) {
+    return "select " + sequenceName + ".nextval from dual";
+  }
+
+  /**
+   * Each number of rows is a distinct SQL text in the shared pool, so the last rows that do not fill a statement are
+   * split into powers of two. For example, 1300 rows are executed as 1000, 256, 32, 8 and 4 rows, and there are at
+   * most 11 distinct statements per mapper method.
+   */
+  @Override
+  protected int getChunkSize(int remaining, int maxRows) {
+    return remaining >= maxRows ? maxRows : Integer.highestOneBit(remaining);
+  }
+
+  /**
+   * Oracle does not support multi-row VALUES, so the rows are selected from {@code dual} and joined by
+   * {@code UNION ALL}. Unlike {@code INSERT ALL}, the number of rows is not limited by the total number of columns
+   * (ORA-24335). As the type of each column of {@code UNION ALL} is determined by the values, {@code null} should be
+   * bound with the column type (e.g. {@code jdbcTypeForNull=NULL}).
+   */
+  @Override
+  protected StringBuilder buildInsertAll(Class<?> beanClass, String listName, int rows, int extraCapacity) {
+    EntityMetadata metadata = getEntityMetadata(beanClass);
+    List<Property> properties = metadata.getInsertableProperties();
+    checkRowCount(beanClass, rows);
+
+    StringBuilder sql = new StringBuilder(24 + metadata.getQualifiedTableName().length() + namesLength(properties)
+        + properties.size() * 2 + (rowValuesLength(properties, listName) + 28) * rows + extraCapacity);
+    sql.append("insert into ").append(metadata.getQualifiedTableName()).append(" (");
+    appendColumns(sql, properties);
+    sql.append(')');
+    for (int row = 0; row < rows; row++) {
+      sql.append(row == 0 ? " select " : " union all select ");
+      for (int i = 0; i < properties.size(); i++) {
+        if (i > 0) {
+          sql.append(", ");
+        }
+        sql.append("#{").append(listName).append('[').append(row).append("].").append(properties.get(i).getName())
+            .append('}');
+      }
+      sql.append(" from dual");
+    }
+    return sql;
   }
 
   @Override
-  public StringBuilder upsert(Object bean, ProviderContext context) {
-    // MERGE is not atomic in Oracle
-    throw new IllegalStateException("upsert is not supported for Oracle");
+  protected CharSequence insertReturningStatement(ProviderContext context, Class<?> beanClass, String listName,
+      int rows) {
+    return getStatementCache().get(
+        new StatementKey(getClass(), context.getMapperMethod(), beanClass,
+            listName == null ? null : listName + '[' + rows + ']'),
+        k -> buildInsertReturning(context.getMapperMethod(), beanClass, listName, rows).toString());
+  }
+
+  /**
+   * {@code RETURNING INTO} is available only in PL/SQL for multiple rows, so an anonymous block inserts the rows,
+   * collects the keys and returns them as an implicit result (Oracle 12c or later). The key must be a single numeric
+   * column (e.g. an identity column).
+   *
+   * @param listName
+   *          the name of the list parameter or {@code null} for a single-row statement
+   */
+  protected StringBuilder buildInsertReturning(Method mapperMethod, Class<?> beanClass, String listName, int rows) {
+    List<Condition> keys = getReturnedKeys(mapperMethod);
+    if (keys.size() != 1) {
+      throw new IllegalArgumentException("Oracle can return only one key: " + mapperMethod.getName());
+    }
+    if (listName != null) {
+      checkRowCount(beanClass, rows);
+    }
+    Condition key = keys.get(0);
+    EntityMetadata metadata = getEntityMetadata(beanClass);
+    List<Property> properties = metadata.getInsertableProperties();
+    String keyColumn = getEscapedColumnName(metadata, key);
+
+    int intoLength = 20 + metadata.getQualifiedTableName().length() + namesLength(properties) + properties.size() * 2;
+    int returningLength = 40 + keyColumn.length();
+    StringBuilder sql = new StringBuilder(256 + key.getProperty().length()
+        + (intoLength + returningLength + (listName == null ? 0 : rowValuesLength(properties, listName))) * rows);
+    sql.append("declare gizmo_keys sys.odcinumberlist := sys.odcinumberlist(); gizmo_cursor sys_refcursor; ")
+        .append("begin gizmo_keys.extend(").append(rows).append(");");
+    int intoStart = sql.length();
+    sql.append(" insert into ").append(metadata.getQualifiedTableName()).append(" (");
+    appendColumns(sql, properties);
+    sql.append(") values ");
+    int intoEnd = sql.length();
+    for (int row = 0; row < rows; row++) {
+      if (row > 0) {
+        // Repeat the INSERT clause of the first row
+        sql.append(sql, intoStart, intoEnd);
+      }
+      if (listName == null) {
+        sql.append('(');
+        for (int i = 0; i < properties.size(); i++) {
+          if (i > 0) {
+            sql.append(", ");
+          }
+          sql.append("#{").append(properties.get(i).getName()).append('}');
+        }
+        sql.append(')');
+      } else {
+        appendRowValues(sql, properties, listName, row);
+      }
+      sql.append(" returning ").append(keyColumn).append(" into gizmo_keys(").append(row + 1)
+          .append(");");
+    }
+    sql.append(" open gizmo_cursor for select rownum - 1 ").append(DQ).append(ROW_INDEX).append(DQ)
+        .append(", column_value ").append(DQ).append(key.getProperty()).append(DQ)
+        .append(" from table(gizmo_keys); dbms_sql.return_result(gizmo_cursor); end;");
+    return sql;
+  }
+
+  @Override
+  protected CharSequence upsertStatement(ProviderContext context, Class<?> beanClass) {
+    return getStatementCache().get(new StatementKey(getClass(), context.getMapperMethod(), beanClass, null),
+        k -> buildMerge(context.getMapperMethod(), beanClass, null, 1).toString());
+  }
+
+  @Override
+  protected CharSequence upsertAllStatement(ProviderContext context, Class<?> beanClass, String listName, int rows) {
+    return getStatementCache().get(
+        new StatementKey(getClass(), context.getMapperMethod(), beanClass, listName + '[' + rows + ']'),
+        k -> {
+          checkUpsertRowCount(beanClass, rows);
+          return buildMerge(context.getMapperMethod(), beanClass, listName, rows).toString();
+        });
+  }
+
+  /**
+   * Generates {@code MERGE} whose source is {@code SELECT ... FROM dual} (joined by {@code UNION ALL} for multiple
+   * rows).
+   * <p>
+   * MERGE is not atomic in Oracle, i.e. concurrent MERGEs of the same new key may fail with ORA-00001. Register
+   * {@link DuplicateKeyRetryInterceptor} to retry such statements. If the bean has a version property and the versions
+   * do not match, the row is left as is.
+   *
+   * @param listName
+   *          the name of the list parameter or {@code null} for a single-row statement
+   */
+  protected StringBuilder buildMerge(Method mapperMethod, Class<?> beanClass, String listName, int rows) {
+    List<Condition> keys = getUpsertKeys(mapperMethod);
+
+    String src = ESCAPED_SRCTABLE;
+    String dest = ESCAPED_DESTTABLE;
+
+    EntityMetadata metadata = getEntityMetadata(beanClass);
+    List<String> keyColumns = getKeyColumns(metadata, keys);
+    List<Property> insertables = getUpsertInsertableProperties(metadata, keyColumns);
+    // Oracle does not allow updating the columns referenced in the ON clause (ORA-38104)
+    List<Property> updatables = getUpsertUpdatableProperties(metadata, keyColumns);
+    List<Property> sources = insertables;
+    for (int i = 0; i < updatables.size(); i++) {
+      if (!containsProperty(insertables, updatables.get(i).getName())) {
+        if (sources == insertables) {
+          sources = new ArrayList<>(insertables);
+        }
+        sources.add(updatables.get(i));
+      }
+    }
+    Property version = metadata.getVersionProperty().orElse(null);
+
+    int length = 128 + metadata.getQualifiedTableName().length() + namesLength(insertables) * 2
+        + insertables.size() * (src.length() + 4);
+    for (int i = 0; i < keys.size(); i++) {
+      length += keyColumns.get(i).length() * 2 + src.length() + dest.length() + 12;
+    }
+    for (int i = 0; i < updatables.size(); i++) {
+      length += updatables.get(i).getEscapedColumnName().length() * 2 + src.length() + dest.length() + 6;
+    }
+    int prefixLength = listName == null ? 0 : listName.length() + 8;
+    length += (namesLength(sources) * 2 + sources.size() * (prefixLength + 6) + 24) * rows;
+    if (version != null) {
+      length += version.getEscapedColumnName().length() * 4 + (src.length() + dest.length()) * 2 + 24;
+    }
+    StringBuilder sql = new StringBuilder(length);
+
+    sql.append("merge into ").append(metadata.getQualifiedTableName()).append(' ').append(dest).append(" using (");
+    for (int row = 0; row < rows; row++) {
+      if (row > 0) {
+        sql.append(" union all ");
+      }
+      sql.append("select ");
+      for (int i = 0; i < sources.size(); i++) {
+        if (i > 0) {
+          sql.append(", ");
+        }
+        sql.append("#{");
+        if (listName != null) {
+          sql.append(listName).append('[').append(row).append("].");
+        }
+        sql.append(sources.get(i).getName()).append("} ").append(sources.get(i).getEscapedColumnName());
+      }
+      sql.append(" from dual");
+    }
+    sql.append(") ").append(src).append(" on (");
+    for (int i = 0; i < keys.size(); i++) {
+      if (i > 0) {
+        sql.append(" and ");
+      }
+      String keyColumn = keyColumns.get(i);
+      sql.append(dest).append('.').append(keyColumn).append(" = ").append(src).append('.').append(keyColumn);
+    }
+    sql.append(')');
+    if (!updatables.isEmpty() || version != null) {
+      sql.append(" when matched then update set ");
+      for (int i = 0; i < updatables.size(); i++) {
+        if (i > 0) {
+          sql.append(", ");
+        }
+        String col = updatables.get(i).getEscapedColumnName();
+        sql.append(dest).append('.').append(col).append(" = ").append(src).append('.').append(col);
+      }
+      if (version != null) {
+        String ver = version.getEscapedColumnName();
+        if (!updatables.isEmpty()) {
+          sql.append(", ");
+        }
+        sql.append(dest).append('.').append(ver).append(" = ").append(dest).append('.').append(ver).append(" + 1");
+        // A version mismatch leaves the row as is, i.e. 0 rows affected
+        sql.append(" where ").append(dest).append('.').append(ver).append(" = ").append(src).append('.').append(ver);
+      }
+    }
+    sql.append(" when not matched then insert (");
+    appendColumns(sql, insertables);
+    sql.append(") values (");
+    for (int i = 0; i < insertables.size(); i++) {
+      if (i > 0) {
+        sql.append(", ");
+      }
+      sql.append(src).append('.').append(insertables.get(i).getEscapedColumnName());
+    }
+    sql.append(')');
+    return sql;
   }
 }
@@ -0,0 +1,89 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out IDs from blocks fetched from a sequence.
+ * <p>
+ * Each value returned by the sequence is the first ID of a block of {@code allocationSize} IDs (i.e. the sequence
+ * must be created with {@code INCREMENT BY <allocationSize>}), so a database round trip is required only once per
+ * block. IDs are handed out with an atomic increment; only the thread that exhausts the block fetches the next one.
+ */
+public final class PooledSequenceAllocator {
+
+  /**
+   * Fetches the next value of the sequence.
+   */
+  @FunctionalInterface
+  public interface BlockFetcher {
+    long fetch() throws SQLException;
+  }
+
+  private final int allocationSize;
+  private volatile Block block = new Block(0, 0);
+
+  public PooledSequenceAllocator(int allocationSize) {
+    if (allocationSize < 1) {
+      throw new IllegalArgumentException("allocationSize must be positive.");
+    }
+    this.allocationSize = allocationSize;
+  }
+
+  public int getAllocationSize() {
+    return allocationSize;
+  }
+
+  /**
+   * Returns the next ID. If the current block is exhausted, the next block is fetched with the fetcher.
+   */
+  public long next(BlockFetcher fetcher) throws SQLException {
+    for (;;) {
+      Block current = block;
+      long id = current.next.getAndIncrement();
+      if (id < current.end) {
+        return id;
+      }
+      synchronized (this) {
+        // Another thread may have fetched a new block while this thread was waiting
+        if (block == current) {
+          long start = fetcher.fetch();
+          block = new Block(start, start + allocationSize);
+        }
+      }
+    }
+  }
+
+  private static final class Block {
+    final AtomicLong next;
+    final long end;
+
+    Block(long start, long end) {
+      this.next = new AtomicLong(start);
+      this.end = end;
+    }
+  }
+}
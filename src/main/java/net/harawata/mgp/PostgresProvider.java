@@ -0,0 +1,287 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.builder.annotation.ProviderContext;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.type.ArrayTypeHandler;
+
+import net.harawata.mgp.EntityMetadata.Property;
+import net.harawata.mgp.MethodDescriptor.Condition;
+
+public class PostgresProvider extends GizmoProvider {
+  protected static final String DQ = "\"";
+  protected static final String EXCLUDED = "excluded";
+  /**
+   * The prefix of the parameter names of the column arrays bound by {@link BulkInsertStrategy#UNNEST}.
+   */
+  protected static final String ARRAY_PREFIX = "gizmo_";
+
+  public enum BulkInsertStrategy {
+    /**
+     * {@code INSERT ... VALUES (...), (...)} that binds a parameter per column per row.
+     */
+    VALUES,
+    /**
+     * {@code INSERT ... SELECT * FROM unnest(...)} that binds an array per column.
+     */
+    UNNEST
+  }
+
+  /**
+   * PostgreSQL folds unquoted names to lower case, so the escaped names are lower case as well.
+   */
+  @Override
+  protected CharSequence escape(CharSequence name) {
+    return DQ + name.toString().toLowerCase() + DQ;
+  }
+
+  /**
+   * The number of bind parameters is a 16-bit unsigned integer in the wire protocol.
+   */
+  @Override
+  protected int getMaxParameters() {
+    return 65535;
+  }
+
+  @Override
+  protected String getNextSequenceValueQuery(String sequenceName) {
+    return "select nextval('" + sequenceName.replace("'", "''") + "')";
+  }
+
+  /**
+   * Returns the strategy of multi-row INSERT and UPSERT. The default is {@link BulkInsertStrategy#VALUES}.
+   * <p>
+   * With {@link BulkInsertStrategy#UNNEST}, the values of each column are bound as an array (using
+   * {@link ArrayTypeHandler}), so the statement has a fixed number of parameters regardless of the number of rows and
+   * is generated only once per mapper method. The number of rows is limited only by {@link #getMaxRows()}.
+   *
+   * <pre>
+   * public class MyPostgresProvider extends PostgresProvider {
+   *   &#64;Override
+   *   protected BulkInsertStrategy getBulkInsertStrategy() {
+   *     return BulkInsertStrategy.UNNEST;
+   *   }
+   * }
+   * </pre>
+   */
+  protected BulkInsertStrategy getBulkInsertStrategy() {
+    return BulkInsertStrategy.VALUES;
+  }
+
+  @Override
+  public int getMaxRowsPerStatement(Class<?> beanClass) {
+    if (getBulkInsertStrategy() == BulkInsertStrategy.UNNEST) {
+      return getMaxRows();
+    }
+    return super.getMaxRowsPerStatement(beanClass);
+  }
+
+  /**
+   * With {@link BulkInsertStrategy#UNNEST}, a statement can contain up to 10000 rows.
+   */
+  @Override
+  protected int getMaxRows() {
+    return getBulkInsertStrategy() == BulkInsertStrategy.UNNEST ? 10000 : super.getMaxRows();
+  }
+
+  @Override
+  public CharSequence insertAll(ProviderContext context, Object param) {
+    if (getBulkInsertStrategy() != BulkInsertStrategy.UNNEST) {
+      return super.insertAll(context, param);
+    }
+    List<?> beans = getList(param, getListName(context, param));
+    Class<?> beanClass = beans.get(0).getClass();
+    List<Property> properties = getEntityMetadata(beanClass).getInsertableProperties();
+    bindColumnArrays(param, beans, properties);
+    return getStatementCache().get(new StatementKey(getClass(), context.getMapperMethod(), beanClass, ARRAY_PREFIX),
+        k -> buildInsertUnnest(beanClass, properties, 0).toString());
+  }
+
+  @Override
+  public CharSequence upsertAll(ProviderContext context, Object param) {
+    if (getBulkInsertStrategy() != BulkInsertStrategy.UNNEST) {
+      return super.upsertAll(context, param);
+    }
+    List<?> beans = getList(param, getListName(context, param));
+    Class<?> beanClass = beans.get(0).getClass();
+    // The generated keys must be bound so that the conflict target can match
+    List<Property> properties = getUpsertProperties(context.getMapperMethod(), beanClass);
+    bindColumnArrays(param, beans, properties);
+    return getStatementCache().get(new StatementKey(getClass(), context.getMapperMethod(), beanClass, ARRAY_PREFIX),
+        k -> {
+          StringBuilder sql = buildInsertUnnest(beanClass, properties,
+              onConflictLength(context.getMapperMethod(), beanClass));
+          appendOnConflict(sql, context.getMapperMethod(), beanClass);
+          return sql.toString();
+        });
+  }
+
+  /**
+   * Collects the values of each property of the beans into an array and puts it into the parameter map, e.g.
+   * {@code gizmo_name}.
+   */
+  @SuppressWarnings("unchecked")
+  protected void bindColumnArrays(Object param, List<?> beans, List<Property> properties) {
+    Class<?> beanClass = beans.get(0).getClass();
+    checkRowCount(beanClass, beans.size());
+    Reflector reflector = reflectorFactory.findForClass(beanClass);
+    Map<String, Object> params = (Map<String, Object>) param;
+    try {
+      for (int i = 0; i < properties.size(); i++) {
+        String name = properties.get(i).getName();
+        // ArrayTypeHandler resolves the SQL type of the array from the component type
+        Class<?> type = MethodType.methodType(reflector.getGetterType(name)).wrap().returnType();
+        Object array = Array.newInstance(type, beans.size());
+        for (int row = 0; row < beans.size(); row++) {
+          Array.set(array, row, reflector.getGetInvoker(name).invoke(beans.get(row), null));
+        }
+        params.put(ARRAY_PREFIX + name, array);
+      }
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Failed to read the properties of " + beanClass.getName(), e);
+    }
+  }
+
+  /**
+   * @param extraCapacity
+   *          the length of the text the caller will append to the statement
+   */
+  protected StringBuilder buildInsertUnnest(Class<?> beanClass, List<Property> properties, int extraCapacity) {
+    EntityMetadata metadata = getEntityMetadata(beanClass);
+    String typeHandler = ArrayTypeHandler.class.getName();
+    StringBuilder sql = new StringBuilder(48 + metadata.getQualifiedTableName().length() + namesLength(properties) * 2
+        + properties.size() * (ARRAY_PREFIX.length() + typeHandler.length() + 18) + extraCapacity);
+    sql.append("insert into ").append(metadata.getQualifiedTableName()).append(" (");
+    appendColumns(sql, properties);
+    sql.append(") select * from unnest(");
+    for (int i = 0; i < properties.size(); i++) {
+      if (i > 0) {
+        sql.append(", ");
+      }
+      sql.append("#{").append(ARRAY_PREFIX).append(properties.get(i).getName()).append(",typeHandler=")
+          .append(typeHandler).append('}');
+    }
+    sql.append(')');
+    return sql;
+  }
+
+  @Override
+  protected CharSequence upsertStatement(ProviderContext context, Class<?> beanClass) {
+    return getStatementCache().get(new StatementKey(getClass(), context.getMapperMethod(), beanClass, null),
+        k -> buildUpsert(context.getMapperMethod(), beanClass).toString());
+  }
+
+  @Override
+  protected CharSequence upsertAllStatement(ProviderContext context, Class<?> beanClass, String listName, int rows) {
+    return getStatementCache().get(
+        new StatementKey(getClass(), context.getMapperMethod(), beanClass, listName + '[' + rows + ']'),
+        k -> buildUpsertAll(context.getMapperMethod(), beanClass, listName, rows).toString());
+  }
+
+  protected StringBuilder buildUpsert(Method mapperMethod, Class<?> beanClass) {
+    StringBuilder sql = buildInsert(beanClass, getUpsertProperties(mapperMethod, beanClass),
+        onConflictLength(mapperMethod, beanClass));
+    appendOnConflict(sql, mapperMethod, beanClass);
+    return sql;
+  }
+
+  /**
+   * Note that PostgreSQL rejects a statement that affects the same row twice, so the list must not contain duplicate
+   * keys.
+   */
+  protected StringBuilder buildUpsertAll(Method mapperMethod, Class<?> beanClass, String listName, int rows) {
+    StringBuilder sql = buildInsertAll(beanClass, getUpsertProperties(mapperMethod, beanClass), listName, rows,
+        onConflictLength(mapperMethod, beanClass));
+    appendOnConflict(sql, mapperMethod, beanClass);
+    return sql;
+  }
+
+  private List<Property> getUpsertProperties(Method mapperMethod, Class<?> beanClass) {
+    EntityMetadata metadata = getEntityMetadata(beanClass);
+    return getUpsertInsertableProperties(metadata, getKeyColumns(metadata, getUpsertKeys(mapperMethod)));
+  }
+
+  /**
+   * Appends {@code ON CONFLICT (<keys>) DO UPDATE SET col = EXCLUDED.col, ...}. The key columns are not updated. If
+   * the bean has a version property, the existing row is updated only when its version matches the new row's and the
+   * version is incremented. If there is nothing to update, {@code DO NOTHING} is appended instead.
+   */
+  protected void appendOnConflict(StringBuilder sql, Method mapperMethod, Class<?> beanClass) {
+    List<Condition> keys = getUpsertKeys(mapperMethod);
+    EntityMetadata metadata = getEntityMetadata(beanClass);
+    List<String> keyColumns = getKeyColumns(metadata, keys);
+    List<Property> updatables = getUpsertUpdatableProperties(metadata, keyColumns);
+    Property version = metadata.getVersionProperty().orElse(null);
+    sql.append(" on conflict (");
+    for (int i = 0; i < keyColumns.size(); i++) {
+      if (i > 0) {
+        sql.append(", ");
+      }
+      sql.append(keyColumns.get(i));
+    }
+    sql.append(')');
+    if (updatables.isEmpty() && version == null) {
+      sql.append(" do nothing");
+      return;
+    }
+    sql.append(" do update set ");
+    for (int i = 0; i < updatables.size(); i++) {
+      if (i > 0) {
+        sql.append(", ");
+      }
+      String col = updatables.get(i).getEscapedColumnName();
+      sql.append(col).append(" = ").append(EXCLUDED).append('.').append(col);
+    }
+    if (version != null) {
+      String table = metadata.getQualifiedTableName();
+      String ver = version.getEscapedColumnName();
+      if (!updatables.isEmpty()) {
+        sql.append(", ");
+      }
+      sql.append(ver).append(" = ").append(table).append('.').append(ver).append(" + 1");
+      // A version mismatch leaves the row as is, i.e. 0 rows affected
+      sql.append(" where ").append(table).append('.').append(ver).append(" = ").append(EXCLUDED).append('.')
+          .append(ver);
+    }
+  }
+
+  private int onConflictLength(Method mapperMethod, Class<?> beanClass) {
+    EntityMetadata metadata = getEntityMetadata(beanClass);
+    List<Property> properties = metadata.getUpdatableProperties();
+    int length = 48 + mapperMethod.getName().length() * 2;
+    for (int i = 0; i < properties.size(); i++) {
+      length += properties.get(i).getEscapedColumnName().length() * 2 + EXCLUDED.length() + 6;
+    }
+    return length + metadata.getVersionProperty()
+        .map(p -> p.getEscapedColumnName().length() * 4 + metadata.getQualifiedTableName().length() * 2 + 32)
+        .orElse(0);
+  }
+}
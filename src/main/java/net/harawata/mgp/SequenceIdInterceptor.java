@@ -0,0 +1,212 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.Reflector;
+
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.SequenceGenerator;
+
+/**
+ * Assigns IDs taken from a sequence to the beans before INSERT statements are executed, so that no keys need to be
+ * retrieved after the execution and the statements can be batched.
+ * <p>
+ * The ID property must be annotated with {@code @GeneratedValue(strategy = SEQUENCE, generator = ...)} and the
+ * {@code @SequenceGenerator} with the same name must be on the property or on the class. The IDs are allocated by
+ * {@link PooledSequenceAllocator}, so the sequence must be incremented by its {@code allocationSize}. Only the beans
+ * whose ID is {@code null} are assigned.
+ *
+ * <pre>
+ * &lt;plugins&gt;
+ *   &lt;plugin interceptor="net.harawata.mgp.SequenceIdInterceptor"&gt;
+ *     &lt;!-- optional: defaults to defaultSqlProviderType --&gt;
+ *     &lt;property name="provider" value="net.harawata.mgp.OracleProvider" /&gt;
+ *   &lt;/plugin&gt;
+ * &lt;/plugins&gt;
+ * </pre>
+ */
+@Intercepts({ @Signature(type = Executor.class, method = "update", args = { MappedStatement.class, Object.class }) })
+public class SequenceIdInterceptor implements Interceptor {
+
+  private static final ClassValue<SequenceId> sequenceIds = new ClassValue<>() {
+    @Override
+    protected SequenceId computeValue(Class<?> beanClass) {
+      return findSequenceId(beanClass);
+    }
+  };
+
+  private final Map<String, PooledSequenceAllocator> allocators = new ConcurrentHashMap<>();
+  private volatile GizmoProvider provider;
+
+  @Override
+  public Object intercept(Invocation invocation) throws Throwable {
+    MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+    Object param = invocation.getArgs()[1];
+    if (ms.getSqlCommandType() == SqlCommandType.INSERT && param != null) {
+      Executor executor = (Executor) invocation.getTarget();
+      for (Object bean : GeneratedKeysInterceptor.toBeans(param)) {
+        if (bean != null) {
+          assignId(executor, ms, bean);
+        }
+      }
+    }
+    return invocation.proceed();
+  }
+
+  protected void assignId(Executor executor, MappedStatement ms, Object bean) throws ReflectiveOperationException,
+      SQLException {
+    SequenceId sequenceId = sequenceIds.get(bean.getClass());
+    if (sequenceId == null) {
+      return;
+    }
+    Reflector reflector = GizmoProvider.reflectorFactory.findForClass(bean.getClass());
+    if (reflector.getGetInvoker(sequenceId.property).invoke(bean, null) != null) {
+      return;
+    }
+    PooledSequenceAllocator allocator = allocators.computeIfAbsent(sequenceId.sequenceName,
+        k -> new PooledSequenceAllocator(sequenceId.allocationSize));
+    if (allocator.getAllocationSize() != sequenceId.allocationSize) {
+      throw new IllegalStateException("Inconsistent allocationSize of sequence " + sequenceId.sequenceName);
+    }
+    long id = allocator.next(() -> fetch(executor.getTransaction().getConnection(),
+        getProvider(ms).getNextSequenceValueQuery(sequenceId.sequenceName)));
+    Class<?> type = reflector.getSetterType(sequenceId.property);
+    reflector.getSetInvoker(sequenceId.property).invoke(bean, new Object[] { convert(id, type) });
+  }
+
+  protected long fetch(Connection connection, String query) throws SQLException {
+    try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(query)) {
+      if (!rs.next()) {
+        throw new SQLException("No value returned by: " + query);
+      }
+      return rs.getLong(1);
+    }
+  }
+
+  private static Object convert(long id, Class<?> type) {
+    if (type == Integer.class || type == int.class) {
+      return Math.toIntExact(id);
+    } else if (type == BigInteger.class) {
+      return BigInteger.valueOf(id);
+    } else if (type == BigDecimal.class) {
+      return BigDecimal.valueOf(id);
+    }
+    return id;
+  }
+
+  private GizmoProvider getProvider(MappedStatement ms) {
+    GizmoProvider result = provider;
+    if (result == null) {
+      Class<?> providerType = ms.getConfiguration().getDefaultSqlProviderType();
+      if (providerType == null || !GizmoProvider.class.isAssignableFrom(providerType)) {
+        throw new IllegalStateException(
+            "Specify the 'provider' property of SequenceIdInterceptor or set a Gizmo provider to defaultSqlProviderType.");
+      }
+      result = Chunks.newProvider(providerType.asSubclass(GizmoProvider.class));
+      provider = result;
+    }
+    return result;
+  }
+
+  @Override
+  public void setProperties(Properties properties) {
+    String providerType = properties.getProperty("provider");
+    if (providerType != null) {
+      try {
+        provider = Chunks.newProvider(Class.forName(providerType).asSubclass(GizmoProvider.class));
+      } catch (ClassNotFoundException e) {
+        throw new IllegalArgumentException("Provider class not found: " + providerType, e);
+      }
+    }
+  }
+
+  private static SequenceId findSequenceId(Class<?> beanClass) {
+    for (Class<?> clazz = beanClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+      for (Field field : clazz.getDeclaredFields()) {
+        GeneratedValue generatedValue = field.getAnnotation(GeneratedValue.class);
+        if (generatedValue == null || generatedValue.strategy() != GenerationType.SEQUENCE) {
+          continue;
+        }
+        SequenceGenerator generator = findSequenceGenerator(field, beanClass, generatedValue.generator());
+        if (generator == null) {
+          throw new IllegalArgumentException("@SequenceGenerator named '" + generatedValue.generator()
+              + "' is not found for " + beanClass.getName() + "." + field.getName());
+        }
+        String sequenceName = generator.sequenceName().isEmpty() ? generator.name() : generator.sequenceName();
+        if (!generator.schema().isEmpty()) {
+          sequenceName = generator.schema() + "." + sequenceName;
+        } else if (!generator.catalog().isEmpty()) {
+          sequenceName = generator.catalog() + "." + sequenceName;
+        }
+        return new SequenceId(field.getName(), sequenceName, generator.allocationSize());
+      }
+    }
+    return null;
+  }
+
+  private static SequenceGenerator findSequenceGenerator(Field field, Class<?> beanClass, String name) {
+    SequenceGenerator generator = field.getAnnotation(SequenceGenerator.class);
+    if (generator != null && generator.name().equals(name)) {
+      return generator;
+    }
+    for (Class<?> clazz = beanClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+      generator = clazz.getAnnotation(SequenceGenerator.class);
+      if (generator != null && generator.name().equals(name)) {
+        return generator;
+      }
+    }
+    return null;
+  }
+
+  private static final class SequenceId {
+    final String property;
+    final String sequenceName;
+    final int allocationSize;
+
+    SequenceId(String property, String sequenceName, int allocationSize) {
+      this.property = property;
+      this.sequenceName = sequenceName;
+      this.allocationSize = allocationSize;
+    }
+  }
+}
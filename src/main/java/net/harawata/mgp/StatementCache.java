@@ -0,0 +1,191 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A bounded, thread-safe cache for generated statements.
+ * <p>
+ * Once the cache is full, new entries are not stored (existing entries are kept), so the number of cached statements
+ * never exceeds {@code maxSize}.
+ * <p>
+ * The entries are stored in a {@link ClassValue} of the class that owns the key (e.g. the mapper interface), so the
+ * cache does not prevent the class loader of the owner from being collected.
+ */
+public class StatementCache<K, V> {
+
+  private final ClassValue<Segment<K, V>> cache = new ClassValue<>() {
+    @Override
+    protected Segment<K, V> computeValue(Class<?> owner) {
+      Segment<K, V> segment = new Segment<>();
+      synchronized (segments) {
+        segments.add(new SegmentRef<>(segment, collected));
+      }
+      return segment;
+    }
+  };
+  /**
+   * The segments in {@link #cache} referenced weakly to clear the entries and to uncount those of collected owners.
+   */
+  private final List<SegmentRef<K, V>> segments = new ArrayList<>();
+  private final ReferenceQueue<Segment<K, V>> collected = new ReferenceQueue<>();
+  private final AtomicInteger size = new AtomicInteger();
+  private final Function<? super K, Class<?>> owner;
+  private final int maxSize;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public StatementCache(int maxSize) {
+    this(maxSize, k -> StatementCache.class);
+  }
+
+  /**
+   * @param owner
+   *          returns the class whose lifetime the entry is tied to
+   */
+  public StatementCache(int maxSize, Function<? super K, Class<?>> owner) {
+    if (maxSize < 0) {
+      throw new IllegalArgumentException("maxSize must not be negative.");
+    }
+    this.maxSize = maxSize;
+    this.owner = owner;
+  }
+
+  public V get(K key, Function<? super K, ? extends V> generator) {
+    Segment<K, V> segment = cache.get(owner.apply(key));
+    V value = segment.map.get(key);
+    if (value != null) {
+      hits.increment();
+      return value;
+    }
+    misses.increment();
+    value = generator.apply(key);
+    if (collected.poll() != null) {
+      expungeCollected();
+    }
+    if (reserve()) {
+      V existing = segment.map.putIfAbsent(key, value);
+      if (existing != null) {
+        size.decrementAndGet();
+        return existing;
+      }
+      segment.size.incrementAndGet();
+    }
+    return value;
+  }
+
+  /**
+   * Reserves a slot for a new entry unless the cache is full.
+   */
+  private boolean reserve() {
+    for (;;) {
+      int current = size.get();
+      if (current >= maxSize) {
+        return false;
+      }
+      if (size.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Uncounts the entries of the segments whose owners are collected.
+   */
+  private void expungeCollected() {
+    synchronized (segments) {
+      while (collected.poll() != null) {
+        // Drain the queue; cleared references are found by the loop below
+      }
+      for (Iterator<SegmentRef<K, V>> it = segments.iterator(); it.hasNext();) {
+        SegmentRef<K, V> ref = it.next();
+        if (ref.get() == null) {
+          it.remove();
+          size.addAndGet(-ref.size.getAndSet(0));
+        }
+      }
+    }
+  }
+
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * Returns the number of entries whose owners are not collected.
+   */
+  public int size() {
+    expungeCollected();
+    return size.get();
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public void clear() {
+    synchronized (segments) {
+      for (SegmentRef<K, V> ref : segments) {
+        Segment<K, V> segment = ref.get();
+        if (segment != null) {
+          segment.map.clear();
+        }
+        size.addAndGet(-ref.size.getAndSet(0));
+      }
+    }
+    hits.reset();
+    misses.reset();
+  }
+
+  private static final class Segment<K, V> {
+    private final Map<K, V> map = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+  }
+
+  /**
+   * Keeps the entry count of the segment so that it can be uncounted after the segment is collected.
+   */
+  private static final class SegmentRef<K, V> extends WeakReference<Segment<K, V>> {
+    private final AtomicInteger size;
+
+    SegmentRef(Segment<K, V> segment, ReferenceQueue<Segment<K, V>> queue) {
+      super(segment, queue);
+      this.size = segment.size;
+    }
+  }
+}
@@ -0,0 +1,81 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+
+/**
+ * Identifies a generated statement.
+ * <p>
+ * The generated SQL depends only on the provider (i.e. dialect), the mapper method and the bean class. {@code variant}
+ * distinguishes statements that differ for the same combination (e.g. whether the bean is wrapped in a
+ * {@code ParamMap}).
+ */
+public final class StatementKey {
+  private final Class<?> providerType;
+  private final Method mapperMethod;
+  private final Class<?> beanClass;
+  private final Object variant;
+  private final int hashCode;
+
+  public StatementKey(Class<?> providerType, Method mapperMethod, Class<?> beanClass, Object variant) {
+    this.providerType = providerType;
+    this.mapperMethod = mapperMethod;
+    this.beanClass = beanClass;
+    this.variant = variant;
+    this.hashCode = Objects.hash(providerType, mapperMethod, beanClass, variant);
+  }
+
+  /**
+   * Returns the mapper interface that declares the method. The statement is cached as long as it is loaded.
+   */
+  public Class<?> getOwner() {
+    return mapperMethod.getDeclaringClass();
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof StatementKey)) {
+      return false;
+    }
+    StatementKey other = (StatementKey) obj;
+    return hashCode == other.hashCode && providerType == other.providerType && beanClass == other.beanClass
+        && mapperMethod.equals(other.mapperMethod) && Objects.equals(variant, other.variant);
+  }
+
+  @Override
+  public String toString() {
+    return providerType.getSimpleName() + ":" + mapperMethod + ":" + beanClass.getName()
+        + (variant == null ? "" : ":" + variant);
+  }
+}
@@ -0,0 +1,184 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.harawata.mgp;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.annotations.DeleteProvider;
+import org.apache.ibatis.annotations.InsertProvider;
+import org.apache.ibatis.annotations.SelectProvider;
+import org.apache.ibatis.annotations.UpdateProvider;
+import org.apache.ibatis.builder.annotation.ProviderContext;
+import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Generates the statements of all mapper methods that use Gizmo providers in advance.
+ * <p>
+ * Call {@link #preload(Configuration)} right after building the {@code SqlSessionFactory} to detect invalid mapper
+ * methods at startup instead of on their first execution.
+ *
+ * <pre>
+ * SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+ * StatementPreloader.preload(sqlSessionFactory.getConfiguration());
+ * </pre>
+ */
+public final class StatementPreloader {
+
+  private static final Constructor<ProviderContext> providerContextConstructor;
+
+  static {
+    try {
+      // The constructor of ProviderContext is package-private.
+      providerContextConstructor = ProviderContext.class.getDeclaredConstructor(Class.class, Method.class,
+          String.class);
+      providerContextConstructor.setAccessible(true);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Failed to access the constructor of ProviderContext.", e);
+    }
+  }
+
+  private StatementPreloader() {
+    super();
+  }
+
+  /**
+   * Generates and caches the statements of all mapper methods that use Gizmo providers.
+   * <p>
+   * Mapper methods are processed in parallel.
+   *
+   * @return the number of generated statements
+   *
+   * @throws IllegalArgumentException
+   *           if there are invalid mapper methods. The message lists all of them and the original exceptions are
+   *           added as suppressed exceptions.
+   */
+  public static int preload(Configuration configuration) {
+    List<Target> targets = new ArrayList<>();
+    for (Class<?> mapperType : configuration.getMapperRegistry().getMappers()) {
+      for (Method method : mapperType.getMethods()) {
+        if (method.isBridge() || method.isDefault()) {
+          continue;
+        }
+        Class<?> providerType = getGizmoProviderType(configuration, method);
+        if (providerType != null) {
+          targets.add(new Target(mapperType, method, providerType));
+        }
+      }
+    }
+    List<Object> results = targets.parallelStream().map(target -> {
+      try {
+        return prepare(configuration, target);
+      } catch (RuntimeException e) {
+        return new IllegalArgumentException(target.mapperType.getName() + "." + target.method.getName() + ": "
+            + e.getMessage(), e);
+      }
+    }).filter(Objects::nonNull).collect(Collectors.toList());
+
+    List<IllegalArgumentException> errors = results.stream().filter(IllegalArgumentException.class::isInstance)
+        .map(IllegalArgumentException.class::cast).collect(Collectors.toList());
+    if (!errors.isEmpty()) {
+      IllegalArgumentException e = new IllegalArgumentException(errors.size()
+          + " mapper method(s) cannot be handled by Gizmo provider:" + errors.stream().map(Throwable::getMessage)
+              .collect(Collectors.joining(System.lineSeparator() + "  ", System.lineSeparator() + "  ", "")));
+      errors.forEach(e::addSuppressed);
+      throw e;
+    }
+    return results.size();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static CharSequence prepare(Configuration configuration, Target target) {
+    GizmoProvider provider;
+    ProviderContext context;
+    try {
+      provider = (GizmoProvider) target.providerType.getDeclaredConstructor().newInstance();
+      context = providerContextConstructor.newInstance(target.mapperType, target.method,
+          configuration.getDatabaseId());
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Failed to instantiate " + target.providerType.getName(), e);
+    }
+    Class<?>[] paramTypes = target.method.getParameterTypes();
+    Class<?> beanClass = paramTypes.length == 0 ? null : paramTypes[0];
+    // Passing nulls is sufficient to find out the names MyBatis uses.
+    Object namedParams = new ParamNameResolver(configuration, target.method)
+        .getNamedParams(new Object[paramTypes.length]);
+    Collection<String> paramNames = namedParams instanceof Map ? ((Map<String, ?>) namedParams).keySet() : null;
+    return provider.prepare(context, beanClass, paramNames);
+  }
+
+  private static Class<?> getGizmoProviderType(Configuration configuration, Method method) {
+    for (Annotation annotation : method.getAnnotations()) {
+      Class<?> type;
+      String providerMethod;
+      if (annotation instanceof InsertProvider) {
+        InsertProvider provider = (InsertProvider) annotation;
+        type = provider.value() != void.class ? provider.value() : provider.type();
+        providerMethod = provider.method();
+      } else if (annotation instanceof UpdateProvider) {
+        UpdateProvider provider = (UpdateProvider) annotation;
+        type = provider.value() != void.class ? provider.value() : provider.type();
+        providerMethod = provider.method();
+      } else if (annotation instanceof DeleteProvider) {
+        DeleteProvider provider = (DeleteProvider) annotation;
+        type = provider.value() != void.class ? provider.value() : provider.type();
+        providerMethod = provider.method();
+      } else if (annotation instanceof SelectProvider) {
+        SelectProvider provider = (SelectProvider) annotation;
+        type = provider.value() != void.class ? provider.value() : provider.type();
+        providerMethod = provider.method();
+      } else {
+        continue;
+      }
+      if (type == void.class) {
+        type = configuration.getDefaultSqlProviderType();
+      }
+      // When 'method' is specified, MyBatis does not ask the provider to resolve the method.
+      if (type != null && GizmoProvider.class.isAssignableFrom(type) && providerMethod.isEmpty()) {
+        return type;
+      }
+    }
+    return null;
+  }
+
+  private static class Target {
+    final Class<?> mapperType;
+    final Method method;
+    final Class<?> providerType;
+
+    Target(Class<?> mapperType, Method method, Class<?> providerType) {
+      this.mapperType = mapperType;
+      this.method = method;
+      this.providerType = providerType;
+    }
+  }
+}
@@ -0,0 +1,132 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package it;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.harawata.mgp.Chunks;
+import net.harawata.mgp.GizmoBulkWriter;
+import net.harawata.mgp.GizmoBulkWriter.BulkResult;
+import net.harawata.mgp.H2Provider;
+
+/**
+ * Runs the integration tests against an in-memory H2 database, so no external services are required.
+ */
+class H2Test extends IntegrationTestBase {
+
+  private static final Logger log = LoggerFactory.getLogger(H2Test.class);
+
+  private static final int ROWS = 20_000;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("it/h2/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    try (
+        Connection connection = sqlSessionFactory.getConfiguration().getEnvironment().getDataSource().getConnection()) {
+      ScriptRunner runner = new ScriptRunner(connection);
+      runner.setAutoCommit(true);
+      runner.setStopOnError(false);
+      runner.setLogWriter(null);
+      runner.setErrorLogWriter(null);
+      try (Reader reader1 = Resources.getResourceAsReader("it/h2/CreateDB.sql")) {
+        runner.runScript(reader1);
+      }
+    }
+  }
+
+  @Test
+  void testThroughput_MultiRowInsert() {
+    List<User> users = new ArrayList<>(ROWS);
+    for (int i = 0; i < ROWS; i++) {
+      User user = new User();
+      user.setFirstName("Multi" + i);
+      users.add(user);
+    }
+    long start = System.nanoTime();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertEquals(ROWS, Chunks.execute(H2Provider.class, users, mapper::insertUsers));
+      sqlSession.commit();
+    }
+    logThroughput("multi-row INSERT", start);
+  }
+
+  @Test
+  void testThroughput_MultiRowUpsert() {
+    List<Company> companies = new ArrayList<>(ROWS);
+    for (int id = 1_000_000; id < 1_000_000 + ROWS; id++) {
+      Company company = new Company();
+      company.setId(id);
+      company.setName("Company" + id);
+      companies.add(company);
+    }
+    long start = System.nanoTime();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertEquals(ROWS, Chunks.execute(H2Provider.class, companies, mapper::upsertCompaniesOnId));
+      sqlSession.commit();
+    }
+    logThroughput("multi-row MERGE", start);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertEquals("Company1019999", mapper.getCompany(1_019_999).getName());
+    }
+  }
+
+  @Test
+  void testThroughput_BulkWriter() {
+    long start = System.nanoTime();
+    BulkResult result = new GizmoBulkWriter<>(sqlSessionFactory, Mapper.class, Mapper::insertBulkUser).batchSize(1000)
+        .commitInterval(10_000).write(IntStream.range(0, ROWS).mapToObj(i -> {
+          User user = new User();
+          user.setFirstName("Batch" + i);
+          return user;
+        }));
+    assertEquals(ROWS, result.getRows());
+    logThroughput("batched INSERT", start);
+  }
+
+  private static void logThroughput(String label, long start) {
+    long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    log.info("{}: {} rows in {} ms ({} rows/s)", label, ROWS, millis, ROWS * 1000L / millis);
+  }
+}
@@ -26,10 +26,18 @@ package it;
 import static org.junit.Assume.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.junit.jupiter.api.Test;
 
+import net.harawata.mgp.GizmoBulkWriter;
+import net.harawata.mgp.GizmoBulkWriter.BulkResult;
+import net.harawata.mgp.GizmoBulkWriter.ChunkStats;
+
 public abstract class IntegrationTestBase {
 
   protected static SqlSessionFactory sqlSessionFactory;
@@ -59,6 +67,58 @@ public abstract class IntegrationTestBase {
     }
   }
 
+  @Test
+  void testInsertAll() {
+    List<User> users = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      User user = new User();
+      user.setFirstName("Bulk" + i);
+      users.add(user);
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertEquals(3, mapper.insertUsers(users));
+      sqlSession.commit();
+    }
+  }
+
+  @Test
+  void testInsertReturning() {
+    assumeFalse(this.getClass() == MysqlTest.class || this.getClass() == PostgresTest.class
+        || this.getClass() == H2Test.class);
+    List<User> users = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      User user = new User();
+      user.setFirstName("Returning" + i);
+      users.add(user);
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertEquals(3, mapper.insertUsersReturningId(users));
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 0; i < 3; i++) {
+        assertEquals("Returning" + i, mapper.getUser(users.get(i).getId()).getFirstName());
+      }
+    }
+  }
+
+  @Test
+  void testBulkWriter() {
+    List<ChunkStats> chunks = new ArrayList<>();
+    BulkResult result = new GizmoBulkWriter<>(sqlSessionFactory, Mapper.class, Mapper::insertBulkUser).batchSize(10)
+        .commitInterval(20).listener(chunks::add).write(IntStream.range(0, 25).mapToObj(i -> {
+          User user = new User();
+          user.setFirstName("Batch" + i);
+          return user;
+        }));
+    assertEquals(25, result.getRows());
+    assertEquals(3, result.getChunks());
+    assertEquals(5, chunks.get(2).getRows());
+  }
+
   @Test
   void testUpdate_SingleArgWithoutParam() {
     try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
@@ -116,7 +176,6 @@ public abstract class IntegrationTestBase {
 
   @Test
   void testUpsert() {
-    assumeFalse(this.getClass() == OracleTest.class);
     try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
       Mapper mapper = sqlSession.getMapper(Mapper.class);
       Company company = new Company();
@@ -149,4 +208,25 @@ public abstract class IntegrationTestBase {
     }
   }
 
-}
\ No newline at end of file
+  @Test
+  void testUpsertAll() {
+    List<Company> companies = new ArrayList<>();
+    for (int id : new int[] { 1, 100 }) {
+      Company company = new Company();
+      company.setId(id);
+      company.setName("Company" + id);
+      company.setAddress("Address" + id);
+      companies.add(company);
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.upsertCompaniesOnId(companies);
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertEquals("Company1", mapper.getCompany(1).getName());
+      assertEquals("Address100", mapper.getCompany(100).getAddress());
+    }
+  }
+}
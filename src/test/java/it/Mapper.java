@@ -23,6 +23,8 @@
  */
 package it;
 
+import java.util.List;
+
 import org.apache.ibatis.annotations.InsertProvider;
 import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
@@ -37,6 +39,15 @@ public interface Mapper {
   @InsertProvider
   int insertUser(User user);
 
+  @InsertProvider
+  int insertUsers(List<User> users);
+
+  @InsertProvider
+  int insertBulkUser(User user);
+
+  @InsertProvider
+  int insertUsersReturningId(List<User> users);
+
   @UpdateProvider
   int updateUser(User user, Integer id);
 
@@ -50,6 +61,9 @@ public interface Mapper {
   @InsertProvider
   void upsertCompanyOnId(Company company);
 
+  @InsertProvider
+  int upsertCompaniesOnId(List<Company> companies);
+
   @InsertProvider
   void updateCompanyById(@Param("company") Company company);
 
@@ -0,0 +1,118 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package it;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.annotations.InsertProvider;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import net.harawata.mgp.PostgresProvider;
+
+class PostgresTest extends IntegrationTestBase {
+
+  private static EmbeddedPostgres postgres;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    postgres = EmbeddedPostgres.start();
+    try (Reader reader = Resources.getResourceAsReader("it/postgres/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setEnvironment(
+        new Environment("development", new JdbcTransactionFactory(), postgres.getPostgresDatabase()));
+    configuration.addMapper(UnnestMapper.class);
+    try (Connection connection = configuration.getEnvironment().getDataSource().getConnection()) {
+      ScriptRunner runner = new ScriptRunner(connection);
+      runner.setAutoCommit(true);
+      runner.setStopOnError(false);
+      runner.setLogWriter(null);
+      runner.setErrorLogWriter(null);
+      try (Reader reader1 = Resources.getResourceAsReader("it/postgres/CreateDB.sql")) {
+        runner.runScript(reader1);
+      }
+    }
+  }
+
+  @AfterAll
+  static void tearDown() throws Exception {
+    postgres.close();
+  }
+
+  @Test
+  void testUnnest() {
+    List<Company> companies = new ArrayList<>();
+    for (int id = 200; id < 1200; id++) {
+      Company company = new Company();
+      company.setId(id);
+      company.setName("Company" + id);
+      company.setAddress(id % 2 == 0 ? null : "Address" + id);
+      companies.add(company);
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      UnnestMapper mapper = sqlSession.getMapper(UnnestMapper.class);
+      assertEquals(1000, mapper.insertCompanies(companies));
+      companies.get(0).setName("Updated");
+      assertEquals(1000, mapper.upsertCompaniesOnId(companies));
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertEquals("Updated", mapper.getCompany(200).getName());
+      assertNull(mapper.getCompany(200).getAddress());
+      assertEquals("Address1199", mapper.getCompany(1199).getAddress());
+    }
+  }
+
+  public static class UnnestProvider extends PostgresProvider {
+    @Override
+    protected BulkInsertStrategy getBulkInsertStrategy() {
+      return BulkInsertStrategy.UNNEST;
+    }
+  }
+
+  public interface UnnestMapper {
+    @InsertProvider(UnnestProvider.class)
+    int insertCompanies(List<Company> companies);
+
+    @InsertProvider(UnnestProvider.class)
+    int upsertCompaniesOnId(List<Company> companies);
+  }
+}
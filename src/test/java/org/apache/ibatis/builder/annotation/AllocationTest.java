@@ -0,0 +1,189 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.apache.ibatis.builder.annotation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import net.harawata.mgp.MssqlProvider;
+import net.harawata.mgp.MysqlProvider;
+import net.harawata.mgp.OracleProvider;
+
+/**
+ * Once the metadata is loaded, generating a statement should allocate little more than the resulting SQL.
+ */
+class AllocationTest {
+
+  private static com.sun.management.ThreadMXBean threadMXBean;
+
+  @BeforeAll
+  static void setup() {
+    assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+    threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+    threadMXBean.setThreadAllocatedMemoryEnabled(true);
+  }
+
+  @Test
+  void testMysql() throws Exception {
+    Mysql provider = new Mysql();
+    Method updateById = ItemMapper.class.getMethod("updateById", Item.class);
+    assertAllocation(() -> provider.buildInsert(Item.class));
+    assertAllocation(() -> provider.buildInsertAll(Item.class, "list", 10));
+    assertAllocation(() -> provider.buildUpdate(updateById, Item.class, ""));
+    assertAllocation(() -> provider.buildUpsert(Item.class));
+  }
+
+  @Test
+  void testMssql() throws Exception {
+    Mssql provider = new Mssql();
+    Method updateById = ItemMapper.class.getMethod("updateById", Item.class);
+    Method upsertOnId = ItemMapper.class.getMethod("upsertOnId", Item.class);
+    assertAllocation(() -> provider.buildInsert(Item.class));
+    assertAllocation(() -> provider.buildUpdate(updateById, Item.class, ""));
+    assertAllocation(() -> provider.buildUpsert(upsertOnId, Item.class));
+    assertAllocation(() -> provider.buildUpsertAll(upsertOnId, Item.class, "list", 10));
+  }
+
+  @Test
+  void testOracle() throws Exception {
+    Oracle provider = new Oracle();
+    Method updateById = ItemMapper.class.getMethod("updateById", Item.class);
+    assertAllocation(() -> provider.buildInsert(Item.class));
+    assertAllocation(() -> provider.buildInsertAll(Item.class, "list", 10));
+    assertAllocation(() -> provider.buildUpdate(updateById, Item.class, ""));
+  }
+
+  private void assertAllocation(Supplier<StringBuilder> generator) {
+    int length = generator.get().length();
+    long threadId = Thread.currentThread().getId();
+    int iterations = 1000;
+    long before = threadMXBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < iterations; i++) {
+      generator.get();
+    }
+    long perStatement = (threadMXBean.getThreadAllocatedBytes(threadId) - before) / iterations;
+    // The buffer (Latin-1, one byte per char) and some headroom for the estimated capacity
+    long limit = length * 3L / 2 + 128;
+    assertTrue(perStatement <= limit,
+        "Generating " + length + " chars allocated " + perStatement + " bytes (limit: " + limit + ")");
+  }
+
+  static class Mysql extends MysqlProvider {
+    @Override
+    protected StringBuilder buildInsert(Class<?> beanClass) {
+      return super.buildInsert(beanClass);
+    }
+
+    @Override
+    protected StringBuilder buildInsertAll(Class<?> beanClass, String listName, int rows) {
+      return super.buildInsertAll(beanClass, listName, rows);
+    }
+
+    @Override
+    protected StringBuilder buildUpdate(Method mapperMethod, Class<?> beanClass, String beanArgName) {
+      return super.buildUpdate(mapperMethod, beanClass, beanArgName);
+    }
+
+    @Override
+    protected StringBuilder buildUpsert(Class<?> beanClass) {
+      return super.buildUpsert(beanClass);
+    }
+  }
+
+  static class Mssql extends MssqlProvider {
+    @Override
+    protected StringBuilder buildInsert(Class<?> beanClass) {
+      return super.buildInsert(beanClass);
+    }
+
+    @Override
+    protected StringBuilder buildUpdate(Method mapperMethod, Class<?> beanClass, String beanArgName) {
+      return super.buildUpdate(mapperMethod, beanClass, beanArgName);
+    }
+
+    @Override
+    protected StringBuilder buildUpsert(Method mapperMethod, Class<?> beanClass) {
+      return super.buildUpsert(mapperMethod, beanClass);
+    }
+
+    @Override
+    protected StringBuilder buildUpsertAll(Method mapperMethod, Class<?> beanClass, String listName, int rows) {
+      return super.buildUpsertAll(mapperMethod, beanClass, listName, rows);
+    }
+  }
+
+  static class Oracle extends OracleProvider {
+    @Override
+    protected StringBuilder buildInsert(Class<?> beanClass) {
+      return super.buildInsert(beanClass);
+    }
+
+    @Override
+    protected StringBuilder buildInsertAll(Class<?> beanClass, String listName, int rows) {
+      return super.buildInsertAll(beanClass, listName, rows);
+    }
+
+    @Override
+    protected StringBuilder buildUpdate(Method mapperMethod, Class<?> beanClass, String beanArgName) {
+      return super.buildUpdate(mapperMethod, beanClass, beanArgName);
+    }
+  }
+
+  static interface ItemMapper {
+    void updateById(Item item);
+
+    void upsertOnId(Item item);
+  }
+
+  static class Item {
+    private String id;
+    private String column01;
+    private String column02;
+    private String column03;
+    private String column04;
+    private String column05;
+    private String column06;
+    private String column07;
+    private String column08;
+    private String column09;
+    private String column10;
+    private String column11;
+    private String column12;
+    private String column13;
+    private String column14;
+    private String column15;
+    private String column16;
+    private String column17;
+    private String column18;
+    private String column19;
+  }
+}
@@ -0,0 +1,124 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.apache.ibatis.builder.annotation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.Test;
+
+import net.harawata.mgp.DeadlockRetry;
+
+class DeadlockRetryTest {
+
+  private final AtomicInteger commits = new AtomicInteger();
+  private final AtomicInteger sessions = new AtomicInteger();
+
+  @Test
+  void testRetryOnDeadlock() {
+    AtomicInteger attempts = new AtomicInteger();
+    int result = new DeadlockRetry(sqlSessionFactory()).backoff(1, 2).execute(session -> {
+      if (attempts.incrementAndGet() < 3) {
+        throw new PersistenceException(new SQLException("deadlock victim", "40001", 1205));
+      }
+      return 7;
+    });
+    assertEquals(7, result);
+    assertEquals(3, sessions.get());
+    assertEquals(1, commits.get());
+  }
+
+  @Test
+  void testMaxAttempts() {
+    PersistenceException e = assertThrows(PersistenceException.class,
+        () -> new DeadlockRetry(sqlSessionFactory()).maxAttempts(2).backoff(0, 0).execute(session -> {
+          throw new PersistenceException(new SQLException("deadlock", "61000", 60));
+        }));
+    assertEquals(60, ((SQLException) e.getCause()).getErrorCode());
+    assertEquals(2, sessions.get());
+    assertEquals(0, commits.get());
+  }
+
+  @Test
+  void testZeroBaseDelayDoesNotWait() {
+    List<Long> delays = new ArrayList<>();
+    DeadlockRetry retry = new DeadlockRetry(sqlSessionFactory()) {
+      @Override
+      protected long getDelayMillis(int attempt) {
+        long delay = super.getDelayMillis(attempt);
+        delays.add(delay);
+        return delay;
+      }
+    }.backoff(0, 1000);
+    AtomicInteger attempts = new AtomicInteger();
+    int result = retry.execute(session -> {
+      if (attempts.incrementAndGet() < 4) {
+        throw new PersistenceException(new SQLException("deadlock victim", "40001", 1205));
+      }
+      return 7;
+    });
+    assertEquals(7, result);
+    assertEquals(List.of(0L, 0L, 0L), delays);
+  }
+
+  @Test
+  void testOtherErrorIsNotRetried() {
+    assertThrows(PersistenceException.class, () -> new DeadlockRetry(sqlSessionFactory()).execute(session -> {
+      // MySQL lock wait timeout
+      throw new PersistenceException(new SQLException("timeout", "HY000", 1205));
+    }));
+    assertEquals(1, sessions.get());
+  }
+
+  private SqlSessionFactory sqlSessionFactory() {
+    SqlSession sqlSession = (SqlSession) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] { SqlSession.class }, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "commit":
+              commits.incrementAndGet();
+              return null;
+            case "close":
+              return null;
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+    return (SqlSessionFactory) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] { SqlSessionFactory.class }, (proxy, method, args) -> {
+          if ("openSession".equals(method.getName()) && args == null) {
+            sessions.incrementAndGet();
+            return sqlSession;
+          }
+          throw new UnsupportedOperationException(method.getName());
+        });
+  }
+}
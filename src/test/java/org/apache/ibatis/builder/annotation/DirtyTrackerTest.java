@@ -0,0 +1,190 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.apache.ibatis.builder.annotation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Proxy;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.builder.annotation.MysqlProviderTest.User;
+import org.apache.ibatis.builder.annotation.MysqlProviderTest.UserMapper;
+import org.apache.ibatis.executor.BatchExecutor;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Invocation;
+import org.junit.jupiter.api.Test;
+
+import net.harawata.mgp.DirtyTracker;
+import net.harawata.mgp.DirtyTrackingInterceptor;
+import net.harawata.mgp.MysqlProvider;
+
+class DirtyTrackerTest {
+
+  @Test
+  void testTrack() {
+    User user = MysqlProviderTest.user(1, "foo");
+    assertFalse(DirtyTracker.isTracked(user));
+    assertTrue(DirtyTracker.isDirty(user));
+    DirtyTracker.track(user);
+    assertTrue(DirtyTracker.isTracked(user));
+    assertFalse(DirtyTracker.isDirty(user));
+    user.setName("foo");
+    assertFalse(DirtyTracker.isDirty(user));
+    user.setName("bar");
+    assertTrue(DirtyTracker.isDirty(user));
+    DirtyTracker.track(user);
+    assertFalse(DirtyTracker.isDirty(user));
+    DirtyTracker.untrack(user);
+    assertFalse(DirtyTracker.isTracked(user));
+  }
+
+  @Test
+  void testOnlyUpdatablePropertiesAreTracked() {
+    Parent parent = new Parent();
+    parent.setName("foo");
+    DirtyTracker.track(parent);
+    parent.getChildren().add(new Child(parent));
+    assertFalse(DirtyTracker.isDirty(parent));
+    parent.setName("bar");
+    assertTrue(DirtyTracker.isDirty(parent));
+    DirtyTracker.untrack(parent);
+  }
+
+  @Test
+  void testBackReferenceIsReleased() throws Exception {
+    WeakReference<Parent> ref = trackParentWithChild();
+    for (int i = 0; i < 100 && ref.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertNull(ref.get());
+  }
+
+  private static WeakReference<Parent> trackParentWithChild() {
+    Parent parent = new Parent();
+    parent.getChildren().add(new Child(parent));
+    DirtyTracker.track(parent);
+    return new WeakReference<>(parent);
+  }
+
+  @Test
+  void testInterceptorTracksResults() throws Throwable {
+    User user = loadUser();
+    Parent dto = new Parent();
+    List<Object> results = List.of(user, dto, "scalar", 1);
+    DirtyTrackingInterceptor interceptor = new DirtyTrackingInterceptor();
+    handleResultSets(interceptor, results);
+    assertTrue(DirtyTracker.isTracked(user));
+    assertFalse(DirtyTracker.isTracked(dto), "No provider has loaded the metadata");
+    assertFalse(DirtyTracker.isTracked("scalar"));
+
+    user.setName("bar");
+    assertTrue(DirtyTracker.isDirty(user));
+    update(interceptor, user, 0);
+    assertTrue(DirtyTracker.isDirty(user), "No row is updated");
+    update(interceptor, user, 1);
+    assertFalse(DirtyTracker.isDirty(user));
+    DirtyTracker.untrack(user);
+  }
+
+  @Test
+  void testInterceptorRetracksAfterFlush() throws Throwable {
+    User user = loadUser();
+    DirtyTrackingInterceptor interceptor = new DirtyTrackingInterceptor();
+    handleResultSets(interceptor, List.of(user));
+    user.setName("bar");
+    update(interceptor, user, BatchExecutor.BATCH_UPDATE_RETURN_VALUE);
+    assertTrue(DirtyTracker.isDirty(user), "Not flushed yet");
+
+    BatchResult batchResult = new BatchResult(null, "update", user);
+    batchResult.setUpdateCounts(new int[] { 1 });
+    Executor executor = (Executor) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] { Executor.class }, (proxy, method, args) -> List.of(batchResult));
+    interceptor.intercept(new Invocation(executor, Executor.class.getMethod("flushStatements"), new Object[0]));
+    assertFalse(DirtyTracker.isDirty(user));
+    DirtyTracker.untrack(user);
+  }
+
+  private static User loadUser() throws Exception {
+    User user = MysqlProviderTest.user(1, "foo");
+    // Loads the metadata of User
+    new MysqlProvider().insert(user,
+        new ProviderContext(UserMapper.class, UserMapper.class.getMethod("insert", User.class), null));
+    return user;
+  }
+
+  private void handleResultSets(DirtyTrackingInterceptor interceptor, List<Object> results) throws Throwable {
+    ResultSetHandler handler = (ResultSetHandler) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] { ResultSetHandler.class }, (proxy, method, args) -> results);
+    interceptor.intercept(new Invocation(handler,
+        ResultSetHandler.class.getMethod("handleResultSets", Statement.class), new Object[] { null }));
+  }
+
+  private void update(DirtyTrackingInterceptor interceptor, User user, int count) throws Throwable {
+    Executor executor = (Executor) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] { Executor.class }, (proxy, method, args) -> count);
+    interceptor.intercept(new Invocation(executor,
+        Executor.class.getMethod("update", MappedStatement.class, Object.class),
+        new Object[] { null, MysqlProviderTest.paramMap("user", user, "id", 1) }));
+  }
+
+  static class Parent {
+    private String name;
+    private List<Child> children = new ArrayList<>();
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public List<Child> getChildren() {
+      return children;
+    }
+
+    public void setChildren(List<Child> children) {
+      this.children = children;
+    }
+  }
+
+  static class Child {
+    private final Parent parent;
+
+    Child(Parent parent) {
+      this.parent = parent;
+    }
+
+    public Parent getParent() {
+      return parent;
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.apache.ibatis.builder.annotation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+import net.harawata.mgp.DuplicateKeyRetryInterceptor;
+
+class DuplicateKeyRetryInterceptorTest {
+
+  private final AtomicInteger executions = new AtomicInteger();
+
+  @Test
+  void testRetryMerge() throws Throwable {
+    assertEquals(1, intercept("merge into \"USER\" ...", 1));
+    assertEquals(2, executions.get());
+  }
+
+  @Test
+  void testNoRetryOnSecondFailure() throws Throwable {
+    InvocationTargetException e = assertThrows(InvocationTargetException.class,
+        () -> intercept("merge into \"USER\" ...", 2));
+    assertEquals(1, ((SQLException) e.getTargetException()).getErrorCode());
+    assertEquals(2, executions.get());
+  }
+
+  @Test
+  void testNoRetryForInsert() throws Throwable {
+    assertThrows(InvocationTargetException.class, () -> intercept("insert into \"USER\" ...", 1));
+    assertEquals(1, executions.get());
+  }
+
+  private Object intercept(String sql, int failures) throws Throwable {
+    BoundSql boundSql = new BoundSql(new Configuration(), sql, null, null);
+    StatementHandler handler = (StatementHandler) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] { StatementHandler.class }, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "update":
+              if (executions.incrementAndGet() <= failures) {
+                throw new SQLIntegrityConstraintViolationException("ORA-00001: unique constraint violated", "23000",
+                    1);
+              }
+              return 1;
+            case "getBoundSql":
+              return boundSql;
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+    return new DuplicateKeyRetryInterceptor().intercept(new Invocation(handler,
+        StatementHandler.class.getMethod("update", Statement.class), new Object[] { null }));
+  }
+}
@@ -0,0 +1,149 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.apache.ibatis.builder.annotation;
+
+import static org.apache.ibatis.builder.annotation.MysqlProviderTest.paramMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.util.List;
+
+import org.apache.ibatis.builder.annotation.MysqlProviderTest.User;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+import net.harawata.mgp.GeneratedKeysInterceptor;
+
+class GeneratedKeysInterceptorTest {
+
+  @Test
+  void testAssignKeys() throws Throwable {
+    List<User> users = List.of(new User(), new User());
+    // Rows in the OUTPUT clause are not ordered
+    long[][] rows = { { 1, 11 }, { 0, 10 } };
+    Object result = intercept(paramMap("collection", users, "list", users), resultSet(rows));
+    assertEquals(2, result);
+    assertEquals(10, users.get(0).getId());
+    assertEquals(11, users.get(1).getId());
+  }
+
+  @Test
+  void testSingleBean() throws Throwable {
+    User user = new User();
+    assertEquals(1, intercept(user, resultSet(new long[][] { { 0, 5 } })));
+    assertEquals(5, user.getId());
+  }
+
+  @Test
+  void testNoResultSet() throws Throwable {
+    User user = new User();
+    assertEquals(1, intercept(user, null));
+    assertNull(user.getId());
+  }
+
+  @Test
+  void testOtherStatement() throws Throwable {
+    User user = new User();
+    // The result set must not be consumed
+    assertEquals(-1, intercept("update \"user\" set \"name\" = #{name}", user, resultSet(new long[][] { { 0, 5 } })));
+    assertNull(user.getId());
+  }
+
+  private Object intercept(Object param, ResultSet rs) throws Throwable {
+    return intercept("insert into \"user\" (\"name\") output \"srctbl\".\"gizmo_row\", inserted.\"id\" as \"id\"",
+        param, rs);
+  }
+
+  private Object intercept(String sql, Object param, ResultSet rs) throws Throwable {
+    Statement statement = proxy(Statement.class, (proxy, method, args) -> {
+      switch (method.getName()) {
+        case "getResultSet":
+          return rs;
+        case "getMoreResults":
+          return false;
+        default:
+          throw new UnsupportedOperationException(method.getName());
+      }
+    });
+    ParameterHandler parameterHandler = proxy(ParameterHandler.class, (proxy, method, args) -> param);
+    StatementHandler handler = proxy(StatementHandler.class, (proxy, method, args) -> {
+      switch (method.getName()) {
+        case "update":
+          return rs == null ? 1 : -1;
+        case "getParameterHandler":
+          return parameterHandler;
+        case "getBoundSql":
+          return new BoundSql(new Configuration(), sql, List.of(), param);
+        default:
+          throw new UnsupportedOperationException(method.getName());
+      }
+    });
+    return new GeneratedKeysInterceptor().intercept(
+        new Invocation(handler, StatementHandler.class.getMethod("update", Statement.class), new Object[] { statement }));
+  }
+
+  private ResultSet resultSet(long[][] rows) {
+    ResultSetMetaData rsmd = proxy(ResultSetMetaData.class, (proxy, method, args) -> {
+      switch (method.getName()) {
+        case "getColumnCount":
+          return 2;
+        case "getColumnLabel":
+          return (Integer) args[0] == 1 ? "gizmo_row" : "id";
+        default:
+          throw new UnsupportedOperationException(method.getName());
+      }
+    });
+    int[] cursor = { -1 };
+    return proxy(ResultSet.class, (proxy, method, args) -> {
+      switch (method.getName()) {
+        case "getMetaData":
+          return rsmd;
+        case "next":
+          return ++cursor[0] < rows.length;
+        case "getInt":
+          return (int) rows[cursor[0]][(Integer) args[0] - 1];
+        case "getObject":
+          return ((Class<?>) args[1]).cast(Integer.valueOf((int) rows[cursor[0]][(Integer) args[0] - 1]));
+        case "close":
+          return null;
+        default:
+          throw new UnsupportedOperationException(method.getName());
+      }
+    });
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+    return (T) Proxy.newProxyInstance(GeneratedKeysInterceptorTest.class.getClassLoader(), new Class<?>[] { type },
+        handler);
+  }
+}
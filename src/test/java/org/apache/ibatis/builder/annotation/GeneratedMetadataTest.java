@@ -0,0 +1,88 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.apache.ibatis.builder.annotation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import net.harawata.mgp.GizmoProvider;
+import net.harawata.mgp.MysqlProvider;
+import net.harawata.mgp.OracleProvider;
+
+class GeneratedMetadataTest {
+
+  @Test
+  void testInsert() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    assertEquals("insert into `s`.`item` (`item_id`, `item_name`) values (#{id}, #{itemName})",
+        provider.insert(new Item(), new ProviderContext(ItemMapper.class,
+            ItemMapper.class.getMethod("insert", Item.class), null)).toString());
+  }
+
+  @Test
+  void testUpdate() throws Exception {
+    GizmoProvider provider = new OracleProvider();
+    assertEquals("update \"S\".\"ITEM\" set \"ITEM_NAME\" = #{itemName} where \"ITEM_ID\" = #{id}",
+        provider.update(new ProviderContext(ItemMapper.class,
+            ItemMapper.class.getMethod("updateById", Item.class), null), new Item()).toString());
+  }
+
+  static interface ItemMapper {
+    void insert(Item item);
+
+    void updateById(Item item);
+  }
+
+  static class Item {
+    // The metadata class overrides these fields' settings
+    private Integer id;
+    private String itemName;
+    private String ignored;
+
+    public Integer getId() {
+      return id;
+    }
+
+    public void setId(Integer id) {
+      this.id = id;
+    }
+
+    public String getItemName() {
+      return itemName;
+    }
+
+    public void setItemName(String itemName) {
+      this.itemName = itemName;
+    }
+
+    public String getIgnored() {
+      return ignored;
+    }
+
+    public void setIgnored(String ignored) {
+      this.ignored = ignored;
+    }
+  }
+}
@@ -0,0 +1,128 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.apache.ibatis.builder.annotation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.Test;
+
+import net.harawata.mgp.GizmoAsync;
+
+class GizmoAsyncTest {
+
+  private final AtomicInteger running = new AtomicInteger();
+  private final AtomicInteger maxRunning = new AtomicInteger();
+  private final AtomicInteger commits = new AtomicInteger();
+
+  @Test
+  void testConcurrencyIsLimited() {
+    try (GizmoAsync<ItemMapper> async = new GizmoAsync<>(sqlSessionFactory(), ItemMapper.class, 4)) {
+      List<CompletableFuture<Integer>> futures = IntStream.range(0, 200)
+          .mapToObj(i -> async.submit(mapper -> mapper.insertItem(i))).collect(Collectors.toList());
+      assertEquals(200, futures.stream().mapToInt(CompletableFuture::join).sum());
+    }
+    assertTrue(maxRunning.get() <= 4, "max concurrency: " + maxRunning.get());
+    assertEquals(200, commits.get());
+  }
+
+  @Test
+  void testProxy() {
+    try (GizmoAsync<ItemMapper> async = new GizmoAsync<>(sqlSessionFactory(), ItemMapper.class, 2)) {
+      ItemAsyncMapper asyncMapper = async.proxy(ItemAsyncMapper.class);
+      assertEquals(1, asyncMapper.insertItem(1).join());
+      CompletionException e = assertThrows(CompletionException.class, () -> asyncMapper.insertItem(-1).join());
+      assertEquals("negative", e.getCause().getMessage());
+      assertEquals(1, commits.get());
+    }
+  }
+
+  @Test
+  void testProxy_UnknownMethod() {
+    try (GizmoAsync<ItemMapper> async = new GizmoAsync<>(sqlSessionFactory(), ItemMapper.class, 2)) {
+      IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+          () -> async.proxy(UnknownAsyncMapper.class));
+      assertEquals("ItemMapper has no method that matches UnknownAsyncMapper.deleteItem", e.getMessage());
+    }
+  }
+
+  private SqlSessionFactory sqlSessionFactory() {
+    ItemMapper mapper = item -> {
+      if (item < 0) {
+        throw new IllegalArgumentException("negative");
+      }
+      int current = running.incrementAndGet();
+      maxRunning.accumulateAndGet(current, Math::max);
+      try {
+        Thread.sleep(1);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      running.decrementAndGet();
+      return 1;
+    };
+    SqlSession sqlSession = (SqlSession) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] { SqlSession.class }, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "getMapper":
+              return mapper;
+            case "commit":
+              commits.incrementAndGet();
+              return null;
+            case "close":
+              return null;
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+    return (SqlSessionFactory) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] { SqlSessionFactory.class }, (proxy, method, args) -> {
+          if ("openSession".equals(method.getName()) && args == null) {
+            return sqlSession;
+          }
+          throw new UnsupportedOperationException(method.getName());
+        });
+  }
+
+  interface ItemMapper {
+    int insertItem(Integer item);
+  }
+
+  interface ItemAsyncMapper {
+    CompletableFuture<Integer> insertItem(Integer item);
+  }
+
+  interface UnknownAsyncMapper {
+    CompletableFuture<Integer> deleteItem(Integer item);
+  }
+}
@@ -0,0 +1,113 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.apache.ibatis.builder.annotation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.Test;
+
+import net.harawata.mgp.GizmoBulkWriter;
+import net.harawata.mgp.GizmoBulkWriter.BulkResult;
+import net.harawata.mgp.GizmoBulkWriter.ChunkStats;
+
+class GizmoBulkWriterTest {
+
+  private final List<String> events = new ArrayList<>();
+  private final List<Integer> pending = new ArrayList<>();
+
+  @Test
+  void testBatchSizeAndCommitInterval() {
+    List<ChunkStats> chunks = new ArrayList<>();
+    BulkResult result = new GizmoBulkWriter<>(sqlSessionFactory(), ItemMapper.class, ItemMapper::insertItem)
+        .batchSize(3).commitInterval(6).listener(chunks::add).write(IntStream.range(0, 10).boxed());
+    assertEquals(List.of("open BATCH", "flush [0, 1, 2]", "flush [3, 4, 5]", "commit", "flush [6, 7, 8]",
+        "flush [9]", "commit", "close"), events);
+    assertEquals(10, result.getRows());
+    assertEquals(10, result.getAffectedRows());
+    assertEquals(4, result.getChunks());
+    assertEquals(List.of(3, 3, 3, 1), chunks.stream().map(ChunkStats::getRows).collect(Collectors.toList()));
+    assertEquals(3, chunks.get(3).getIndex());
+  }
+
+  @Test
+  void testMemoryCeiling() {
+    BulkResult result = new GizmoBulkWriter<>(sqlSessionFactory(), ItemMapper.class, ItemMapper::insertItem)
+        .batchSize(100).memoryCeiling(10, i -> i).write(List.of(4, 5, 2, 9, 1).spliterator());
+    assertEquals(List.of("open BATCH", "flush [4, 5]", "flush [2]", "flush [9, 1]", "commit", "close"), events);
+    assertEquals(3, result.getChunks());
+  }
+
+  @Test
+  void testEmpty() {
+    BulkResult result = new GizmoBulkWriter<>(sqlSessionFactory(), ItemMapper.class, ItemMapper::insertItem)
+        .write(List.<Integer> of().iterator());
+    assertEquals(List.of("open BATCH", "commit", "close"), events);
+    assertEquals(0, result.getRows());
+  }
+
+  private SqlSessionFactory sqlSessionFactory() {
+    ItemMapper mapper = pending::add;
+    SqlSession sqlSession = (SqlSession) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] { SqlSession.class }, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "getMapper":
+              return mapper;
+            case "flushStatements":
+              events.add("flush " + pending);
+              BatchResult batchResult = new BatchResult(null, "insert");
+              batchResult.setUpdateCounts(pending.stream().mapToInt(x -> 1).toArray());
+              pending.clear();
+              return List.of(batchResult);
+            case "commit":
+            case "close":
+              events.add(method.getName());
+              return null;
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+    return (SqlSessionFactory) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] { SqlSessionFactory.class }, (proxy, method, args) -> {
+          if ("openSession".equals(method.getName()) && args.length == 2 && args[0] == ExecutorType.BATCH) {
+            events.add("open BATCH");
+            return sqlSession;
+          }
+          throw new UnsupportedOperationException(method.getName());
+        });
+  }
+
+  interface ItemMapper {
+    void insertItem(Integer item);
+  }
+}
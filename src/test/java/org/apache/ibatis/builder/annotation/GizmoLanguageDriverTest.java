@@ -0,0 +1,89 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.apache.ibatis.builder.annotation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.annotations.InsertProvider;
+import org.apache.ibatis.annotations.Lang;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+import net.harawata.mgp.GizmoLanguageDriver;
+import net.harawata.mgp.MysqlProvider;
+
+class GizmoLanguageDriverTest {
+
+  @Test
+  void testSqlSourceIsParsedOnce() {
+    Configuration configuration = new Configuration();
+    configuration.addMapper(UserMapper.class);
+    MappedStatement ms = configuration.getMappedStatement(UserMapper.class.getName() + ".insert");
+    GizmoLanguageDriver driver = (GizmoLanguageDriver) configuration.getLanguageDriver(GizmoLanguageDriver.class);
+
+    BoundSql boundSql = ms.getBoundSql(new User());
+    assertEquals("insert into `user` (`id`, `name`) values (?, ?)", boundSql.getSql());
+    assertEquals("id,name", boundSql.getParameterMappings().stream().map(ParameterMapping::getProperty)
+        .collect(Collectors.joining(",")));
+    assertEquals(0, driver.getSqlSourceCache().getHitCount());
+
+    BoundSql boundSql2 = ms.getBoundSql(new User());
+    assertEquals(boundSql.getSql(), boundSql2.getSql());
+    assertSame(boundSql.getParameterMappings(), boundSql2.getParameterMappings());
+    assertEquals(1, driver.getSqlSourceCache().getHitCount());
+    assertEquals(1, driver.getSqlSourceCache().size());
+  }
+
+  static interface UserMapper {
+    @Lang(GizmoLanguageDriver.class)
+    @InsertProvider(MysqlProvider.class)
+    void insert(User user);
+  }
+
+  static class User {
+    private Integer id;
+    private String name;
+
+    public Integer getId() {
+      return id;
+    }
+
+    public void setId(Integer id) {
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+  }
+}
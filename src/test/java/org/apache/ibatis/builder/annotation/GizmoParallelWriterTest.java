@@ -0,0 +1,144 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.apache.ibatis.builder.annotation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.Test;
+
+import net.harawata.mgp.GizmoParallelWriter;
+import net.harawata.mgp.GizmoParallelWriter.ParallelResult;
+
+class GizmoParallelWriterTest {
+
+  private final List<Integer> committed = Collections.synchronizedList(new ArrayList<>());
+  private final Set<String> threads = ConcurrentHashMap.newKeySet();
+  private final Map<Integer, Integer> failOnce = new ConcurrentHashMap<>();
+
+  @Test
+  void testPartitionByKeyKeepsOrder() {
+    ParallelResult<Integer> result = new GizmoParallelWriter<>(sqlSessionFactory(-1), ItemMapper.class,
+        ItemMapper::insertItem).parallelism(3).chunkSize(4).partitionBy(i -> i % 5)
+        .write(IntStream.range(0, 100).boxed());
+    assertEquals(100, result.getRows());
+    assertEquals(100, result.getAffectedRows());
+    assertEquals(100, IntStream.of(0, 1, 2).mapToLong(i -> result.getPartitionRows()[i]).sum());
+    assertTrue(result.getFailures().isEmpty());
+    assertEquals(3, threads.size());
+    Map<Integer, List<Integer>> byKey = committed.stream().collect(Collectors.groupingBy(i -> i % 5));
+    byKey.values().forEach(values -> assertEquals(values.stream().sorted().collect(Collectors.toList()), values));
+  }
+
+  @Test
+  void testRetryAndFailureIsolation() {
+    failOnce.put(7, 7);
+    ParallelResult<Integer> result = new GizmoParallelWriter<>(sqlSessionFactory(13), ItemMapper.class,
+        ItemMapper::insertItem).parallelism(2).chunkSize(5).retry(2, 0).write(IntStream.range(0, 30).boxed());
+    assertEquals(25, result.getRows());
+    assertEquals(5, result.getChunks());
+    assertEquals(2, result.getRetries());
+    assertEquals(1, result.getFailures().size());
+    assertEquals(List.of(10, 11, 12, 13, 14), result.getFailures().get(0).getBeans());
+    assertEquals(2, result.getFailures().get(0).getAttempts());
+    assertEquals("13", result.getFailures().get(0).getCause().getMessage());
+    assertEquals(IntStream.range(0, 30).filter(i -> i < 10 || i >= 15).boxed().collect(Collectors.toSet()),
+        Set.copyOf(committed));
+  }
+
+  @Test
+  void testPartitionBySkipsFailedKeys() {
+    // Keys: 3 for the beans 0-3, 4 for 4-7, 3 for 8-11
+    ParallelResult<Integer> result = new GizmoParallelWriter<>(sqlSessionFactory(2), ItemMapper.class,
+        ItemMapper::insertItem).parallelism(1).chunkSize(4).retry(1, 0).partitionBy(i -> i / 4 == 1 ? 4 : 3)
+        .write(IntStream.range(0, 12).boxed());
+    assertEquals(4, result.getRows());
+    assertEquals(2, result.getFailures().size());
+    assertEquals(List.of(0, 1, 2, 3), result.getFailures().get(0).getBeans());
+    assertEquals(1, result.getFailures().get(0).getAttempts());
+    assertEquals(List.of(8, 9, 10, 11), result.getFailures().get(1).getBeans());
+    assertEquals(0, result.getFailures().get(1).getAttempts());
+    assertEquals(List.of(4, 5, 6, 7), committed);
+  }
+
+  /**
+   * @param alwaysFail
+   *          the bean that always fails
+   */
+  private SqlSessionFactory sqlSessionFactory(int alwaysFail) {
+    return (SqlSessionFactory) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] { SqlSessionFactory.class }, (proxy, method, args) -> {
+          if ("openSession".equals(method.getName()) && args.length == 2 && args[0] == ExecutorType.BATCH) {
+            threads.add(Thread.currentThread().getName());
+            return sqlSession(alwaysFail);
+          }
+          throw new UnsupportedOperationException(method.getName());
+        });
+  }
+
+  private SqlSession sqlSession(int alwaysFail) {
+    List<Integer> pending = new ArrayList<>();
+    ItemMapper mapper = item -> {
+      if (item == alwaysFail || failOnce.remove(item) != null) {
+        throw new IllegalStateException(String.valueOf(item));
+      }
+      pending.add(item);
+    };
+    return (SqlSession) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { SqlSession.class },
+        (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "getMapper":
+              return mapper;
+            case "flushStatements":
+              BatchResult batchResult = new BatchResult(null, "insert");
+              batchResult.setUpdateCounts(pending.stream().mapToInt(x -> 1).toArray());
+              return List.of(batchResult);
+            case "commit":
+              committed.addAll(pending);
+              return null;
+            case "close":
+              return null;
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+  }
+
+  interface ItemMapper {
+    void insertItem(Integer item);
+  }
+}
@@ -0,0 +1,138 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.apache.ibatis.builder.annotation;
+
+import static org.apache.ibatis.builder.annotation.MysqlProviderTest.paramMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.apache.ibatis.builder.annotation.MysqlProviderTest.Item;
+import org.apache.ibatis.builder.annotation.MysqlProviderTest.ItemMapper;
+import org.apache.ibatis.builder.annotation.MysqlProviderTest.Ticket;
+import org.apache.ibatis.builder.annotation.MysqlProviderTest.TicketMapper;
+import org.junit.jupiter.api.Test;
+
+import net.harawata.mgp.GizmoProvider;
+import net.harawata.mgp.H2Provider;
+
+class H2ProviderTest {
+
+  @Test
+  void testInsert() throws Exception {
+    GizmoProvider provider = new H2Provider();
+    assertEquals("insert into \"USER\" (\"ID\", \"NAME\") values (#{id}, #{name})", provider.insert(new User(),
+        new ProviderContext(UserMapper.class, UserMapper.class.getMethod("insert", User.class), null)).toString());
+  }
+
+  @Test
+  void testInsertAll() throws Exception {
+    GizmoProvider provider = new H2Provider();
+    ProviderContext context = new ProviderContext(UserMapper.class,
+        UserMapper.class.getMethod("insertAll", List.class), null);
+    List<User> users = List.of(new User(), new User());
+    assertEquals("insert into \"USER\" (\"ID\", \"NAME\")"
+        + " values (#{list[0].id}, #{list[0].name}), (#{list[1].id}, #{list[1].name})",
+        provider.insertAll(context, paramMap("collection", users, "list", users)).toString());
+  }
+
+  @Test
+  void testUpsert() throws Exception {
+    GizmoProvider provider = new H2Provider();
+    assertEquals("merge into \"USER\" (\"ID\", \"NAME\") key (\"ID\") values (#{id}, #{name})",
+        provider.upsert(new User(),
+            new ProviderContext(UserMapper.class, UserMapper.class.getMethod("upsertOnId", User.class), null))
+            .toString());
+  }
+
+  @Test
+  void testUpsert_IdentityKey() throws Exception {
+    GizmoProvider provider = new H2Provider();
+    assertEquals("merge into \"TICKET\" (\"NAME\", \"ID\") key (\"ID\") values (#{name}, #{id})",
+        provider.upsert(new Ticket(),
+            new ProviderContext(TicketMapper.class, TicketMapper.class.getMethod("upsertOnId", Ticket.class), null))
+            .toString());
+  }
+
+  @Test
+  void testUpsert_PrimaryKey() throws Exception {
+    GizmoProvider provider = new H2Provider();
+    assertEquals("merge into \"USER\" (\"ID\", \"NAME\") values (#{id}, #{name})",
+        provider.upsert(new User(),
+            new ProviderContext(UserMapper.class, UserMapper.class.getMethod("upsert", User.class), null))
+            .toString());
+  }
+
+  @Test
+  void testUpsertAll() throws Exception {
+    GizmoProvider provider = new H2Provider();
+    ProviderContext context = new ProviderContext(UserMapper.class,
+        UserMapper.class.getMethod("upsertAllOnIdAndName", List.class), null);
+    List<User> users = List.of(new User(), new User());
+    assertEquals("merge into \"USER\" (\"ID\", \"NAME\") key (\"ID\", \"NAME\")"
+        + " values (#{list[0].id}, #{list[0].name}), (#{list[1].id}, #{list[1].name})",
+        provider.upsertAll(context, paramMap("collection", users, "list", users)).toString());
+  }
+
+  @Test
+  void testUpsert_Version() throws Exception {
+    GizmoProvider provider = new H2Provider();
+    IllegalStateException e = assertThrows(IllegalStateException.class, () -> provider.upsert(new Item(),
+        new ProviderContext(ItemMapper.class, ItemMapper.class.getMethod("upsertOnId", Item.class), null)));
+    assertEquals("MERGE INTO ... KEY cannot check the version of Item. Use UPDATE instead.", e.getMessage());
+  }
+
+  static interface UserMapper {
+    void insert(User user);
+
+    void insertAll(List<User> users);
+
+    void upsert(User user);
+
+    void upsertOnId(User user);
+
+    void upsertAllOnIdAndName(List<User> users);
+  }
+
+  static class User {
+    private Integer id;
+    private String name;
+
+    public Integer getId() {
+      return id;
+    }
+
+    public void setId(Integer id) {
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+  }
+}
@@ -26,8 +26,20 @@ package org.apache.ibatis.builder.annotation;
 import static org.apache.ibatis.builder.annotation.MysqlProviderTest.paramMap;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ibatis.builder.annotation.MysqlProviderTest.Booking;
+import org.apache.ibatis.builder.annotation.MysqlProviderTest.BookingMapper;
+import org.apache.ibatis.builder.annotation.MysqlProviderTest.Item;
+import org.apache.ibatis.builder.annotation.MysqlProviderTest.ItemMapper;
+import org.apache.ibatis.builder.annotation.MysqlProviderTest.Ticket;
+import org.apache.ibatis.builder.annotation.MysqlProviderTest.TicketMapper;
 import org.junit.jupiter.api.Test;
 
+import jakarta.persistence.Column;
+import net.harawata.mgp.Chunks;
 import net.harawata.mgp.GizmoProvider;
 import net.harawata.mgp.MssqlProvider;
 
@@ -40,6 +52,111 @@ class MssqlProviderTest {
         new ProviderContext(UserMapper.class, UserMapper.class.getMethod("insert", User.class), null)).toString());
   }
 
+  @Test
+  void testInsertAll() throws Exception {
+    GizmoProvider provider = new MssqlProvider();
+    ProviderContext context = new ProviderContext(UserMapper.class,
+        UserMapper.class.getMethod("insertAll", List.class), null);
+    List<User> users = List.of(new User(), new User());
+    assertEquals(
+        "insert into \"user\" (\"id\", \"name\") values (#{users[0].id}, #{users[0].name}), (#{users[1].id}, #{users[1].name})",
+        provider.insertAll(context, paramMap("users", users, "param1", users)).toString());
+  }
+
+  @Test
+  void testInsertAll_TooManyRows() throws Exception {
+    GizmoProvider provider = new MssqlProvider();
+    ProviderContext context = new ProviderContext(UserMapper.class,
+        UserMapper.class.getMethod("insertAll", List.class), null);
+    List<User> users = Collections.nCopies(1001, new User());
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> provider.insertAll(context, paramMap("collection", users, "list", users)));
+    assertEquals("A statement for User can contain up to 1000 rows, but there are 1001 rows. "
+        + "Use Chunks to split the list.", e.getMessage());
+  }
+
+  @Test
+  void testInsertReturning() throws Exception {
+    GizmoProvider provider = new MssqlProvider();
+    ProviderContext context = new ProviderContext(UserMapper.class,
+        UserMapper.class.getMethod("insertAllReturningId", List.class), null);
+    assertEquals("insertReturning", provider.resolveMethod(context).getName());
+    List<User> users = List.of(new User(), new User());
+    assertEquals("merge into \"user\" as \"desttbl\" using (values (0, #{list[0].id}, #{list[0].name}),"
+        + " (1, #{list[1].id}, #{list[1].name})) as \"srctbl\" (\"gizmo_row\", \"id\", \"name\") on 1 = 0"
+        + " when not matched then insert (\"id\", \"name\") values (\"srctbl\".\"id\", \"srctbl\".\"name\")"
+        + " output \"srctbl\".\"gizmo_row\", inserted.\"id\" as \"id\";",
+        provider.insertReturning(context, paramMap("collection", users, "list", users)).toString());
+  }
+
+  @Test
+  void testInsertReturning_SingleRow() throws Exception {
+    GizmoProvider provider = new MssqlProvider();
+    ProviderContext context = new ProviderContext(UserMapper.class,
+        UserMapper.class.getMethod("insertReturningId", User.class), null);
+    assertEquals("insertReturning", provider.resolveMethod(context).getName());
+    assertEquals("merge into \"user\" as \"desttbl\""
+        + " using (select 0 as \"gizmo_row\", #{id} as \"id\", #{name} as \"name\") as \"srctbl\" on 1 = 0"
+        + " when not matched then insert (\"id\", \"name\") values (\"srctbl\".\"id\", \"srctbl\".\"name\")"
+        + " output \"srctbl\".\"gizmo_row\", inserted.\"id\" as \"id\";",
+        provider.insertReturning(context, new User()).toString());
+  }
+
+  @Test
+  void testInsertReturning_RenamedKey() throws Exception {
+    GizmoProvider provider = new MssqlProvider();
+    ProviderContext context = new ProviderContext(BookingMapper.class,
+        BookingMapper.class.getMethod("insertAllReturningId", List.class), null);
+    List<Booking> bookings = List.of(new Booking(), new Booking());
+    assertEquals("merge into \"booking\" as \"desttbl\" using (values (0, #{list[0].name}), (1, #{list[1].name}))"
+        + " as \"srctbl\" (\"gizmo_row\", \"name\") on 1 = 0"
+        + " when not matched then insert (\"name\") values (\"srctbl\".\"name\")"
+        + " output \"srctbl\".\"gizmo_row\", inserted.\"booking_id\" as \"id\";",
+        provider.insertReturning(context, paramMap("collection", bookings, "list", bookings)).toString());
+  }
+
+  @Test
+  void testChunks() throws Exception {
+    assertEquals(1000, new MssqlProvider().getMaxRowsPerStatement(User.class));
+    assertEquals(700, new MssqlProvider().getMaxRowsPerStatement(Wide.class));
+    List<Integer> chunkSizes = new ArrayList<>();
+    assertEquals(2500, Chunks.execute(MssqlProvider.class, Collections.nCopies(2500, new Wide()), chunk -> {
+      chunkSizes.add(chunk.size());
+      return chunk.size();
+    }));
+    assertEquals(List.of(700, 700, 700, 400), chunkSizes);
+  }
+
+  @Test
+  void testMaxRowsPerUpsert() throws Exception {
+    // Account's updatable properties are insertable: 4 parameters in the source table of MERGE
+    assertEquals(525, new MssqlProvider().getMaxRowsPerUpsert(Account.class));
+    // UPDATE (id, name) + INSERT (id, name)
+    assertEquals(525, new UpdateThenInsertProvider().getMaxRowsPerUpsert(User.class));
+    // UPDATE (id, name, version) + version condition + NOT EXISTS (id, name, version) + INSERT (id, name, version)
+    assertEquals(210, new UpdateThenInsertProvider().getMaxRowsPerUpsert(Item.class));
+    // INSERT is not affected by the upsert strategy
+    assertEquals(1000, new UpdateThenInsertProvider().getMaxRowsPerStatement(User.class));
+    assertEquals(700, new UpdateThenInsertProvider().getMaxRowsPerStatement(Item.class));
+
+    List<Integer> chunkSizes = new ArrayList<>();
+    assertEquals(1200, Chunks.executeUpsert(UpdateThenInsertProvider.class, Collections.nCopies(1200, new User()),
+        chunk -> {
+          chunkSizes.add(chunk.size());
+          return chunk.size();
+        }));
+    assertEquals(List.of(525, 525, 150), chunkSizes);
+
+    GizmoProvider provider = new UpdateThenInsertProvider();
+    ProviderContext context = new ProviderContext(UserMapper.class,
+        UserMapper.class.getMethod("upsertAllOnId", List.class), null);
+    List<User> users = Collections.nCopies(526, new User());
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> provider.upsertAll(context, paramMap("collection", users, "list", users)));
+    assertEquals("A statement for User can contain up to 525 rows, but there are 526 rows. Use Chunks to split the list.",
+        e.getMessage());
+  }
+
   @Test
   void testUpsert() throws Exception {
     GizmoProvider provider = new MssqlProvider();
@@ -47,13 +164,157 @@ class MssqlProviderTest {
         "merge into \"user\" with (holdlock) as \"desttbl\" "
             + "using (select #{id} as \"id\", #{name} as \"name\") as \"srctbl\" "
             + "on (\"desttbl\".\"id\" = \"srctbl\".\"id\") "
-            + "when matched then update set \"id\" = \"srctbl\".\"id\", \"name\" = \"srctbl\".\"name\" "
+            + "when matched then update set \"name\" = \"srctbl\".\"name\" "
             + "when not matched then insert (\"id\", \"name\") values (\"srctbl\".\"id\", \"srctbl\".\"name\");",
         provider.upsert(new User(),
             new ProviderContext(UserMapper.class, UserMapper.class.getMethod("upsertOnId", User.class), null))
             .toString());
   }
 
+  @Test
+  void testUpsert_IdentityKey() throws Exception {
+    GizmoProvider provider = new MssqlProvider();
+    assertEquals("merge into \"ticket\" with (holdlock) as \"desttbl\" "
+            + "using (select #{name} as \"name\", #{id} as \"id\") as \"srctbl\" "
+            + "on (\"desttbl\".\"id\" = \"srctbl\".\"id\") "
+            + "when matched then update set \"name\" = \"srctbl\".\"name\" "
+            + "when not matched then insert (\"name\", \"id\") values (\"srctbl\".\"name\", \"srctbl\".\"id\");",
+        provider.upsert(new Ticket(),
+            new ProviderContext(TicketMapper.class, TicketMapper.class.getMethod("upsertOnId", Ticket.class), null))
+            .toString());
+  }
+
+  @Test
+  void testUpsert_IdentityNonKey() throws Exception {
+    GizmoProvider provider = new MssqlProvider();
+    assertEquals("merge into \"ticket\" with (holdlock) as \"desttbl\" "
+            + "using (select #{name} as \"name\") as \"srctbl\" "
+            + "on (\"desttbl\".\"name\" = \"srctbl\".\"name\") "
+            + "when not matched then insert (\"name\") values (\"srctbl\".\"name\");",
+        provider.upsert(new Ticket(),
+            new ProviderContext(TicketMapper.class, TicketMapper.class.getMethod("upsertOnName", Ticket.class), null))
+            .toString());
+  }
+
+  @Test
+  void testUpsert_Version() throws Exception {
+    GizmoProvider provider = new MssqlProvider();
+    assertEquals(
+        "merge into \"item\" with (holdlock) as \"desttbl\" "
+            + "using (select #{id} as \"id\", #{name} as \"name\", #{version} as \"version\") as \"srctbl\" "
+            + "on (\"desttbl\".\"id\" = \"srctbl\".\"id\") "
+            + "when matched and \"desttbl\".\"version\" = \"srctbl\".\"version\" then update set "
+            + "\"name\" = \"srctbl\".\"name\", \"version\" = \"desttbl\".\"version\" + 1 "
+            + "when not matched then insert (\"id\", \"name\", \"version\") "
+            + "values (\"srctbl\".\"id\", \"srctbl\".\"name\", \"srctbl\".\"version\");",
+        provider.upsert(new Item(), new ProviderContext(ItemMapper.class,
+            ItemMapper.class.getMethod("upsertOnId", Item.class), null)).toString());
+  }
+
+  @Test
+  void testUpsert_RenamedKeyAndNonUpdatableColumn() throws Exception {
+    GizmoProvider provider = new MssqlProvider();
+    assertEquals(
+        "merge into \"account\" with (holdlock) as \"desttbl\" using (select #{accountId} as \"acct_id\","
+            + " #{branchId} as \"branch_id\", #{createdBy} as \"created_by\", #{name} as \"name\") as \"srctbl\""
+            + " on (\"desttbl\".\"acct_id\" = \"srctbl\".\"acct_id\" and \"desttbl\".\"branch_id\" = \"srctbl\".\"branch_id\")"
+            + " when matched then update set \"name\" = \"srctbl\".\"name\""
+            + " when not matched then insert (\"acct_id\", \"branch_id\", \"created_by\", \"name\")"
+            + " values (\"srctbl\".\"acct_id\", \"srctbl\".\"branch_id\", \"srctbl\".\"created_by\", \"srctbl\".\"name\");",
+        provider.upsert(new Account(), new ProviderContext(AccountMapper.class,
+            AccountMapper.class.getMethod("upsertOnAccountIdAndBranchId", Account.class), null)).toString());
+  }
+
+  @Test
+  void testUpsert_UpdateThenInsert() throws Exception {
+    GizmoProvider provider = new UpdateThenInsertProvider();
+    assertEquals(
+        "update \"user\" with (updlock, serializable) set \"name\" = #{name} where \"id\" = #{id};"
+            + " if @@rowcount = 0 insert into \"user\" (\"id\", \"name\") values (#{id}, #{name});",
+        provider.upsert(new User(),
+            new ProviderContext(UserMapper.class, UserMapper.class.getMethod("upsertOnId", User.class), null))
+            .toString());
+  }
+
+  @Test
+  void testUpsertAll_UpdateThenInsert() throws Exception {
+    GizmoProvider provider = new UpdateThenInsertProvider();
+    List<User> users = List.of(new User(), new User());
+    assertEquals(
+        "update \"user\" with (updlock, serializable) set \"name\" = #{list[0].name} where \"id\" = #{list[0].id};"
+            + " if @@rowcount = 0 insert into \"user\" (\"id\", \"name\") values (#{list[0].id}, #{list[0].name});"
+            + " update \"user\" with (updlock, serializable) set \"name\" = #{list[1].name} where \"id\" = #{list[1].id};"
+            + " if @@rowcount = 0 insert into \"user\" (\"id\", \"name\") values (#{list[1].id}, #{list[1].name});",
+        provider.upsertAll(
+            new ProviderContext(UserMapper.class, UserMapper.class.getMethod("upsertAllOnId", List.class), null),
+            paramMap("collection", users, "list", users)).toString());
+  }
+
+  @Test
+  void testUpsert_UpdateThenInsert_Version() throws Exception {
+    GizmoProvider provider = new UpdateThenInsertProvider();
+    assertEquals(
+        "update \"item\" with (updlock, serializable) set \"name\" = #{name}, \"version\" = \"version\" + 1"
+            + " where \"id\" = #{id} and \"version\" = #{version};"
+            + " if @@rowcount = 0 and not exists (select 1 from \"item\" where \"id\" = #{id})"
+            + " insert into \"item\" (\"id\", \"name\", \"version\") values (#{id}, #{name}, #{version});",
+        provider.upsert(new Item(),
+            new ProviderContext(ItemMapper.class, ItemMapper.class.getMethod("upsertOnId", Item.class), null))
+            .toString());
+  }
+
+  static interface AccountMapper {
+    void upsertOnAccountIdAndBranchId(Account account);
+  }
+
+  static class Account {
+    @Column(name = "acct_id")
+    private Integer accountId;
+    private Integer branchId;
+    @Column(updatable = false)
+    private String createdBy;
+    private String name;
+
+    public Integer getAccountId() {
+      return accountId;
+    }
+
+    public Integer getBranchId() {
+      return branchId;
+    }
+
+    public String getCreatedBy() {
+      return createdBy;
+    }
+
+    public String getName() {
+      return name;
+    }
+  }
+
+  public static class UpdateThenInsertProvider extends MssqlProvider {
+    @Override
+    protected UpsertStrategy getUpsertStrategy() {
+      return UpsertStrategy.UPDATE_THEN_INSERT;
+    }
+  }
+
+  @Test
+  void testUpsertAll() throws Exception {
+    GizmoProvider provider = new MssqlProvider();
+    List<User> users = List.of(new User(), new User());
+    assertEquals(
+        "merge into \"user\" with (holdlock) as \"desttbl\" "
+            + "using (values (#{list[0].id}, #{list[0].name}), (#{list[1].id}, #{list[1].name})) "
+            + "as \"srctbl\" (\"id\", \"name\") "
+            + "on (\"desttbl\".\"id\" = \"srctbl\".\"id\") "
+            + "when matched then update set \"name\" = \"srctbl\".\"name\" "
+            + "when not matched then insert (\"id\", \"name\") values (\"srctbl\".\"id\", \"srctbl\".\"name\");",
+        provider.upsertAll(
+            new ProviderContext(UserMapper.class, UserMapper.class.getMethod("upsertAllOnId", List.class), null),
+            paramMap("collection", users, "list", users)).toString());
+  }
+
   @Test
   void testUpdate_MultiArgs() throws Exception {
     GizmoProvider provider = new MssqlProvider();
@@ -129,8 +390,16 @@ class MssqlProviderTest {
   static interface UserMapper {
     void insert(User user);
 
+    void insertAll(List<User> users);
+
+    void insertAllReturningId(List<User> users);
+
+    void insertReturningId(User user);
+
     void upsertOnId(User user);
 
+    void upsertAllOnId(List<User> users);
+
     void update(User user, Integer id);
 
     void updateById(User user);
@@ -162,4 +431,10 @@ class MssqlProviderTest {
       this.name = name;
     }
   }
+
+  static class Wide {
+    private Integer a;
+    private Integer b;
+    private Integer c;
+  }
 }
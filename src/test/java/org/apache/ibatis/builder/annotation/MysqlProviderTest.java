@@ -25,11 +25,23 @@ package org.apache.ibatis.builder.annotation;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.List;
+
 import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.apache.ibatis.executor.BatchExecutor;
+import org.apache.ibatis.executor.BatchResult;
 import org.junit.jupiter.api.Test;
 
+import jakarta.persistence.Column;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.Version;
+import net.harawata.mgp.DirtyTracker;
 import net.harawata.mgp.GizmoProvider;
 import net.harawata.mgp.MysqlProvider;
+import net.harawata.mgp.OptimisticLocking;
 
 class MysqlProviderTest {
 
@@ -40,6 +52,28 @@ class MysqlProviderTest {
         new ProviderContext(UserMapper.class, UserMapper.class.getMethod("insert", User.class), null)).toString());
   }
 
+  @Test
+  void testInsertAll() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    ProviderContext context = new ProviderContext(UserMapper.class, UserMapper.class.getMethod("insertAll", List.class),
+        null);
+    assertEquals("insertAll", provider.resolveMethod(context).getName());
+    List<User> users = List.of(new User(), new User());
+    assertEquals(
+        "insert into `user` (`id`, `name`) values (#{list[0].id}, #{list[0].name}), (#{list[1].id}, #{list[1].name})",
+        provider.insertAll(context, paramMap("collection", users, "list", users, "users", users)).toString());
+  }
+
+  @Test
+  void testInsertReturning_NotSupported() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    ProviderContext context = new ProviderContext(UserMapper.class,
+        UserMapper.class.getMethod("insertReturningId", User.class), null);
+    IllegalStateException e = assertThrows(IllegalStateException.class,
+        () -> provider.insertReturning(context, new User()));
+    assertEquals("MysqlProvider does not support Returning. Use useGeneratedKeys instead.", e.getMessage());
+  }
+
   @Test
   void testUpsert() throws Exception {
     GizmoProvider provider = new MysqlProvider();
@@ -50,6 +84,19 @@ class MysqlProviderTest {
             .toString());
   }
 
+  @Test
+  void testUpsertAll() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    ProviderContext context = new ProviderContext(UserMapper.class, UserMapper.class.getMethod("upsertAll", List.class),
+        null);
+    assertEquals("upsertAll", provider.resolveMethod(context).getName());
+    List<User> users = List.of(new User(), new User());
+    assertEquals(
+        "insert into `user` (`id`, `name`) values (#{list[0].id}, #{list[0].name}), (#{list[1].id}, #{list[1].name})"
+            + " as `newrow` on duplicate key update `id` = `newrow`.`id`, `name` = `newrow`.`name`",
+        provider.upsertAll(context, paramMap("collection", users, "list", users)).toString());
+  }
+
   @Test
   void testUpdate_MultiArgs() throws Exception {
     GizmoProvider provider = new MysqlProvider();
@@ -121,6 +168,301 @@ class MysqlProviderTest {
             paramMap("user", new User(), "id", 1, "lastName", "foo")).toString());
   }
 
+  @Test
+  void testUpdateByIdOrName() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    assertEquals("update `user` set `id` = #{id}, `name` = #{name} where `id` = #{id} or `name` = #{name}",
+        provider.update(new ProviderContext(UserMapper.class,
+            UserMapper.class.getMethod("updateByIdOrName", User.class), null), new User()).toString());
+  }
+
+  @Test
+  void testUpdateBy_PropertyContainingKeyword() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    assertEquals("update `user` set `id` = #{id}, `name` = #{name} where `brand_name` = #{brandName}",
+        provider.update(new ProviderContext(UserMapper.class,
+            UserMapper.class.getMethod("updateByBrandName", User.class), null), new User()).toString());
+  }
+
+  @Test
+  void testUpdateBy_MissingProperty() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    ProviderContext context = new ProviderContext(UserMapper.class,
+        UserMapper.class.getMethod("updateByIdAnd", User.class), null);
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> provider.update(context, new User()));
+    assertEquals("Missing property name after 'And' in updateByIdAnd", e.getMessage());
+  }
+
+  @Test
+  void testUpdateBy_RenamedColumn() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    ProviderContext context = new ProviderContext(BookingMapper.class,
+        BookingMapper.class.getMethod("updateById", Booking.class), null);
+    assertEquals("update `booking` set `booking_id` = #{id}, `name` = #{name} where `booking_id` = #{id}",
+        provider.update(context, new Booking()).toString());
+  }
+
+  @Test
+  void testUpdate_NoParameter() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    ProviderContext context = new ProviderContext(UserMapper.class,
+        UserMapper.class.getMethod("updateById", User.class), null);
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> provider.update(context, null));
+    assertEquals("There must be a parameter.", e.getMessage());
+  }
+
+  @Test
+  void testInsertSelective() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    ProviderContext context = new ProviderContext(UserMapper.class,
+        UserMapper.class.getMethod("insertSelective", User.class), null);
+    assertEquals("insertSelective", provider.resolveMethod(context).getName());
+    assertEquals("insert into `user` (`name`) values (#{name})",
+        provider.insertSelective(user(null, "foo"), context).toString());
+    assertEquals("insert into `user` (`id`, `name`) values (#{id}, #{name})",
+        provider.insertSelective(user(1, "foo"), context).toString());
+    assertEquals("insert into `user` (`id`) values (#{id})",
+        provider.insertSelective(user(1, null), context).toString());
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> provider.insertSelective(new User(), context));
+    assertEquals("All properties of " + User.class.getName() + " are null.", e.getMessage());
+  }
+
+  @Test
+  void testUpdateSelectiveById_SingleArg_NoParam() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    ProviderContext context = new ProviderContext(UserMapper.class,
+        UserMapper.class.getMethod("updateSelectiveById", User.class), null);
+    assertEquals("updateSelective", provider.resolveMethod(context).getName());
+    assertEquals("update `user` set `id` = #{id} where `id` = #{id}",
+        provider.updateSelective(context, user(1, null)).toString());
+    assertEquals("update `user` set `id` = #{id}, `name` = #{name} where `id` = #{id}",
+        provider.updateSelective(context, user(1, "foo")).toString());
+  }
+
+  @Test
+  void testUpdateSelective_MultiArgs() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    ProviderContext context = new ProviderContext(UserMapper.class,
+        UserMapper.class.getMethod("updateSelective", User.class, Integer.class), null);
+    assertEquals("update `user` set `name` = #{user.name} where `id` = #{id}",
+        provider.updateSelective(context, paramMap("user", user(null, "foo"), "id", 1)).toString());
+  }
+
+  @Test
+  void testUpdateDirtyById() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    ProviderContext context = new ProviderContext(UserMapper.class,
+        UserMapper.class.getMethod("updateDirtyById", User.class), null);
+    assertEquals("updateDirty", provider.resolveMethod(context).getName());
+    User user = user(1, "foo");
+    // Not tracked
+    assertEquals("update `user` set `id` = #{id}, `name` = #{name} where `id` = #{id}",
+        provider.updateDirty(context, user).toString());
+    DirtyTracker.track(user);
+    // Nothing changed
+    assertEquals("update `user` set `id` = `id` where `id` = #{id}", provider.updateDirty(context, user).toString());
+    user.setName(null);
+    assertEquals("update `user` set `name` = #{name} where `id` = #{id}",
+        provider.updateDirty(context, user).toString());
+    DirtyTracker.untrack(user);
+  }
+
+  @Test
+  void testUpdateDirtyById_NothingChanged_Version() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    ProviderContext context = new ProviderContext(ItemMapper.class,
+        ItemMapper.class.getMethod("updateDirtyById", Item.class), null);
+    Item item = item("foo");
+    DirtyTracker.track(item);
+    assertEquals("update `item` set `version` = `version` + 1 where `id` = #{id} and `version` = #{version}",
+        provider.updateDirty(context, item).toString());
+    DirtyTracker.untrack(item);
+  }
+
+  @Test
+  void testUpdateDirty_MultiArgs() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    ProviderContext context = new ProviderContext(UserMapper.class,
+        UserMapper.class.getMethod("updateDirty", User.class, Integer.class), null);
+    User user = user(1, "foo");
+    DirtyTracker.track(user);
+    user.setName("bar");
+    assertEquals("update `user` set `name` = #{user.name} where `id` = #{id}",
+        provider.updateDirty(context, paramMap("user", user, "id", 1)).toString());
+    DirtyTracker.untrack(user);
+  }
+
+  @Test
+  void testUpdateById_Version() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    assertEquals("update `item` set `id` = #{id}, `name` = #{name}, `version` = `version` + 1"
+        + " where `id` = #{id} and `version` = #{version}",
+        provider.update(new ProviderContext(ItemMapper.class,
+            ItemMapper.class.getMethod("updateById", Item.class), null), new Item()).toString());
+    assertEquals("update `item` set `name` = #{item.name}, `version` = `version` + 1"
+        + " where `id` = #{id} and `version` = #{item.version}",
+        provider.updateSelective(new ProviderContext(ItemMapper.class,
+            ItemMapper.class.getMethod("updateSelective", Item.class, Integer.class), null),
+            paramMap("item", item("foo"), "id", 1)).toString());
+  }
+
+  @Test
+  void testUpdateByIdOrName_Version() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    assertEquals("update `item` set `id` = #{id}, `name` = #{name}, `version` = `version` + 1"
+        + " where (`id` = #{id} or `name` = #{name}) and `version` = #{version}",
+        provider.update(new ProviderContext(ItemMapper.class,
+            ItemMapper.class.getMethod("updateByIdOrName", Item.class), null), new Item()).toString());
+  }
+
+  @Test
+  void testUpsert_Version() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    assertEquals("insert into `item` (`id`, `name`, `version`) values (#{id}, #{name}, #{version}) as `newrow`"
+        + " on duplicate key update `id` = if(`version` = `newrow`.`version`, `newrow`.`id`, `id`),"
+        + " `name` = if(`version` = `newrow`.`version`, `newrow`.`name`, `name`),"
+        + " `version` = if(`version` = `newrow`.`version`, `version` + 1, `version`)",
+        provider.upsert(new Item(),
+            new ProviderContext(ItemMapper.class, ItemMapper.class.getMethod("upsert", Item.class), null))
+            .toString());
+  }
+
+  @Test
+  void testOptimisticLocking() {
+    Item item = item("foo");
+    assertEquals(1, OptimisticLocking.requireUpdated(1, item));
+    OptimisticLockException e = assertThrows(OptimisticLockException.class,
+        () -> OptimisticLocking.requireUpdated(0, item));
+    assertSame(item, e.getEntity());
+  }
+
+  @Test
+  void testOptimisticLocking_IncrementsVersion() {
+    Item item = item("foo");
+    item.setVersion(3);
+    OptimisticLocking.requireUpdated(1, item);
+    assertEquals(4, item.getVersion());
+    OptimisticLocking.requireUpdated(1, paramMap("item", item, "param1", item));
+    assertEquals(5, item.getVersion());
+    // The BATCH executor does not report the count until the statements are flushed
+    OptimisticLocking.requireUpdated(BatchExecutor.BATCH_UPDATE_RETURN_VALUE, item);
+    assertEquals(5, item.getVersion());
+
+    BatchResult batchResult = new BatchResult(null, "update", item);
+    batchResult.setUpdateCounts(new int[] { 1 });
+    OptimisticLocking.requireUpdated(List.of(batchResult));
+    assertEquals(6, item.getVersion());
+  }
+
+  static Item item(String name) {
+    Item item = new Item();
+    item.setName(name);
+    return item;
+  }
+
+  static User user(Integer id, String name) {
+    User user = new User();
+    user.setId(id);
+    user.setName(name);
+    return user;
+  }
+
+  @Test
+  void testInsert_Identity() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    assertEquals("insert into `ticket` (`name`) values (#{name})",
+        provider.insert(new Ticket(),
+            new ProviderContext(TicketMapper.class, TicketMapper.class.getMethod("insert", Ticket.class), null))
+            .toString());
+  }
+
+  @Test
+  void testUpsert_Identity() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    assertEquals("insert into `ticket` (`name`, `id`) values (#{name}, #{id}) as `newrow`"
+        + " on duplicate key update `name` = `newrow`.`name`",
+        provider.upsert(new Ticket(),
+            new ProviderContext(TicketMapper.class, TicketMapper.class.getMethod("upsertOnId", Ticket.class), null))
+            .toString());
+  }
+
+  @Test
+  void testIncrementById() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    assertEquals("update `post` set `views` = `views` + #{delta} where `id` = #{post.id}",
+        provider.increment(new ProviderContext(PostMapper.class,
+            PostMapper.class.getMethod("incrementViewCountById", Post.class, int.class), null),
+            paramMap("post", new Post(), "delta", 3)).toString());
+  }
+
+  @Test
+  void testIncrementById_SingleArg() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    assertEquals("update `post` set `views` = `views` + 1 where `id` = #{id}",
+        provider.increment(new ProviderContext(PostMapper.class,
+            PostMapper.class.getMethod("incrementViewCountById", Post.class), null), new Post()).toString());
+  }
+
+  @Test
+  void testSubtractByIdParam() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    assertEquals("update `post` set `views` = `views` - #{delta} where `id` = #{id}",
+        provider.increment(new ProviderContext(PostMapper.class,
+            PostMapper.class.getMethod("subtractViewCountById", Post.class, Integer.class, int.class), null),
+            paramMap("post", new Post(), "id", 1, "delta", 3)).toString());
+  }
+
+  @Test
+  void testDecrementByIdParam_NoDelta() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    assertEquals("update `post` set `views` = `views` - 1 where `id` = #{id}",
+        provider.increment(new ProviderContext(PostMapper.class,
+            PostMapper.class.getMethod("decrementViewCountById", Post.class, Integer.class), null),
+            paramMap("post", new Post(), "id", 1)).toString());
+  }
+
+  @Test
+  void testIncrementById_Version() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    assertEquals("update `counter` set `hits` = `hits` + #{delta}, `version` = `version` + 1 where `id` = #{counter.id}",
+        provider.increment(new ProviderContext(CounterMapper.class,
+            CounterMapper.class.getMethod("addHitsById", Counter.class, long.class), null),
+            paramMap("counter", new Counter(), "delta", 2L)).toString());
+  }
+
+  @Test
+  void testIncrement_NotNumber() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    ProviderContext context = new ProviderContext(ItemMapper.class,
+        ItemMapper.class.getMethod("incrementNameById", Item.class), null);
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> provider.increment(context, new Item()));
+    assertEquals("'name' of Item is not a number: incrementNameById", e.getMessage());
+  }
+
+  @Test
+  void testIncrement_MissingBy() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    ProviderContext context = new ProviderContext(PostMapper.class,
+        PostMapper.class.getMethod("addViewCount", Post.class, int.class), null);
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> provider.increment(context, paramMap("post", new Post(), "delta", 1)));
+    assertEquals("Counter update requires conditions after 'By' e.g. "
+        + "'incrementViewCountById(Bean bean, int delta)': addViewCount", e.getMessage());
+  }
+
+  @Test
+  void testIncrement_UnknownProperty() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    ProviderContext context = new ProviderContext(PostMapper.class,
+        PostMapper.class.getMethod("incrementLikesById", Post.class), null);
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> provider.increment(context, new Post()));
+    assertEquals("'likes' is not an updatable property of Post: incrementLikesById", e.getMessage());
+  }
+
   static ParamMap<Object> paramMap(Object... obj) {
     ParamMap<Object> paramMap = new ParamMap<>();
     for (int i = 0; i < obj.length; i += 2) {
@@ -132,8 +474,14 @@ class MysqlProviderTest {
   static interface UserMapper {
     void insert(User user);
 
+    void insertAll(List<User> users);
+
+    void insertReturningId(User user);
+
     void upsert(User user);
 
+    void upsertAll(List<User> users);
+
     void update(User user, Integer id);
 
     void updateById(User user);
@@ -143,6 +491,205 @@ class MysqlProviderTest {
     void updateById(User user, Integer id);
 
     void updateByIdAndLastName(User user, Integer id, String lastName);
+
+    void updateByIdOrName(User user);
+
+    void updateByBrandName(User user);
+
+    void updateByIdAnd(User user);
+
+    void insertSelective(User user);
+
+    void updateSelectiveById(User user);
+
+    void updateSelective(User user, Integer id);
+
+    void updateDirtyById(User user);
+
+    void updateDirty(User user, Integer id);
+  }
+
+  static interface ItemMapper {
+    void updateById(Item item);
+
+    void updateByIdOrName(Item item);
+
+    void updateDirtyById(Item item);
+
+    void updateSelective(Item item, Integer id);
+
+    void upsert(Item item);
+
+    void upsertOnId(Item item);
+
+    void incrementNameById(Item item);
+  }
+
+  static interface TicketMapper {
+    void insert(Ticket ticket);
+
+    void upsertOnId(Ticket ticket);
+
+    void upsertOnName(Ticket ticket);
+
+    void upsertAllOnId(List<Ticket> tickets);
+  }
+
+  static class Ticket {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+    private String name;
+
+    public Integer getId() {
+      return id;
+    }
+
+    public void setId(Integer id) {
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+  }
+
+  static interface BookingMapper {
+    void insertReturningId(Booking booking);
+
+    void updateById(Booking booking);
+
+    void insertAllReturningId(List<Booking> bookings);
+  }
+
+  static class Booking {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "booking_id")
+    private Integer id;
+    private String name;
+
+    public Integer getId() {
+      return id;
+    }
+
+    public void setId(Integer id) {
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+  }
+
+  static interface CounterMapper {
+    void addHitsById(Counter counter, long delta);
+  }
+
+  static class Counter {
+    private Integer id;
+    private long hits;
+    @Version
+    private Integer version;
+
+    public Integer getId() {
+      return id;
+    }
+
+    public void setId(Integer id) {
+      this.id = id;
+    }
+
+    public long getHits() {
+      return hits;
+    }
+
+    public void setHits(long hits) {
+      this.hits = hits;
+    }
+
+    public Integer getVersion() {
+      return version;
+    }
+
+    public void setVersion(Integer version) {
+      this.version = version;
+    }
+  }
+
+  static interface PostMapper {
+    void incrementViewCountById(Post post, int delta);
+
+    void incrementViewCountById(Post post);
+
+    void subtractViewCountById(Post post, Integer id, int delta);
+
+    void decrementViewCountById(Post post, Integer id);
+
+    void addViewCount(Post post, int delta);
+
+    void incrementLikesById(Post post);
+  }
+
+  static class Post {
+    private Integer id;
+    @Column(name = "views")
+    private Integer viewCount;
+
+    public Integer getId() {
+      return id;
+    }
+
+    public void setId(Integer id) {
+      this.id = id;
+    }
+
+    public Integer getViewCount() {
+      return viewCount;
+    }
+
+    public void setViewCount(Integer viewCount) {
+      this.viewCount = viewCount;
+    }
+  }
+
+  static class Item {
+    private Integer id;
+    private String name;
+    @Version
+    private Integer version;
+
+    public Integer getId() {
+      return id;
+    }
+
+    public void setId(Integer id) {
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public Integer getVersion() {
+      return version;
+    }
+
+    public void setVersion(Integer version) {
+      this.version = version;
+    }
   }
 
   static class User {
@@ -26,8 +26,18 @@ package org.apache.ibatis.builder.annotation;
 import static org.apache.ibatis.builder.annotation.MysqlProviderTest.paramMap;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.builder.annotation.MysqlProviderTest.Booking;
+import org.apache.ibatis.builder.annotation.MysqlProviderTest.BookingMapper;
+import org.apache.ibatis.builder.annotation.MysqlProviderTest.Item;
+import org.apache.ibatis.builder.annotation.MysqlProviderTest.ItemMapper;
+import org.apache.ibatis.builder.annotation.MysqlProviderTest.Ticket;
+import org.apache.ibatis.builder.annotation.MysqlProviderTest.TicketMapper;
 import org.junit.jupiter.api.Test;
 
+import net.harawata.mgp.Chunks;
 import net.harawata.mgp.GizmoProvider;
 import net.harawata.mgp.OracleProvider;
 
@@ -40,6 +50,128 @@ class OracleProviderTest {
         new ProviderContext(UserMapper.class, UserMapper.class.getMethod("insert", User.class), null)).toString());
   }
 
+  @Test
+  void testInsertAll() throws Exception {
+    GizmoProvider provider = new OracleProvider();
+    ProviderContext context = new ProviderContext(UserMapper.class,
+        UserMapper.class.getMethod("insertAll", List.class), null);
+    List<User> users = List.of(new User(), new User());
+    assertEquals("insert into \"USER\" (\"ID\", \"NAME\")"
+        + " select #{list[0].id}, #{list[0].name} from dual"
+        + " union all select #{list[1].id}, #{list[1].name} from dual",
+        provider.insertAll(context, paramMap("collection", users, "list", users)).toString());
+  }
+
+  @Test
+  void testChunkSizes() {
+    List<User> users = new ArrayList<>();
+    for (int i = 0; i < 1300; i++) {
+      users.add(new User());
+    }
+    List<Integer> chunkSizes = new ArrayList<>();
+    assertEquals(1300, Chunks.execute(OracleProvider.class, users, chunk -> {
+      chunkSizes.add(chunk.size());
+      return chunk.size();
+    }));
+    assertEquals(List.of(1000, 256, 32, 8, 4), chunkSizes);
+  }
+
+  @Test
+  void testInsertReturning() throws Exception {
+    GizmoProvider provider = new OracleProvider();
+    ProviderContext context = new ProviderContext(UserMapper.class,
+        UserMapper.class.getMethod("insertAllReturningId", List.class), null);
+    List<User> users = List.of(new User(), new User());
+    assertEquals("declare gizmo_keys sys.odcinumberlist := sys.odcinumberlist(); gizmo_cursor sys_refcursor;"
+        + " begin gizmo_keys.extend(2);"
+        + " insert into \"USER\" (\"ID\", \"NAME\") values (#{list[0].id}, #{list[0].name})"
+        + " returning \"ID\" into gizmo_keys(1);"
+        + " insert into \"USER\" (\"ID\", \"NAME\") values (#{list[1].id}, #{list[1].name})"
+        + " returning \"ID\" into gizmo_keys(2);"
+        + " open gizmo_cursor for select rownum - 1 \"gizmo_row\", column_value \"id\" from table(gizmo_keys);"
+        + " dbms_sql.return_result(gizmo_cursor); end;",
+        provider.insertReturning(context, paramMap("collection", users, "list", users)).toString());
+  }
+
+  @Test
+  void testInsertReturning_RenamedKey() throws Exception {
+    GizmoProvider provider = new OracleProvider();
+    ProviderContext context = new ProviderContext(BookingMapper.class,
+        BookingMapper.class.getMethod("insertReturningId", Booking.class), null);
+    assertEquals("declare gizmo_keys sys.odcinumberlist := sys.odcinumberlist(); gizmo_cursor sys_refcursor;"
+        + " begin gizmo_keys.extend(1);"
+        + " insert into \"BOOKING\" (\"NAME\") values (#{name}) returning \"BOOKING_ID\" into gizmo_keys(1);"
+        + " open gizmo_cursor for select rownum - 1 \"gizmo_row\", column_value \"id\" from table(gizmo_keys);"
+        + " dbms_sql.return_result(gizmo_cursor); end;",
+        provider.insertReturning(context, new Booking()).toString());
+  }
+
+  @Test
+  void testUpsert() throws Exception {
+    GizmoProvider provider = new OracleProvider();
+    assertEquals("merge into \"USER\" \"desttbl\""
+        + " using (select #{id} \"ID\", #{name} \"NAME\" from dual) \"srctbl\""
+        + " on (\"desttbl\".\"ID\" = \"srctbl\".\"ID\")"
+        + " when matched then update set \"desttbl\".\"NAME\" = \"srctbl\".\"NAME\""
+        + " when not matched then insert (\"ID\", \"NAME\") values (\"srctbl\".\"ID\", \"srctbl\".\"NAME\")",
+        provider.upsert(new User(),
+            new ProviderContext(UserMapper.class, UserMapper.class.getMethod("upsertOnId", User.class), null))
+            .toString());
+  }
+
+  @Test
+  void testUpsert_IdentityKey() throws Exception {
+    GizmoProvider provider = new OracleProvider();
+    assertEquals("merge into \"TICKET\" \"desttbl\""
+        + " using (select #{name} \"NAME\", #{id} \"ID\" from dual) \"srctbl\""
+        + " on (\"desttbl\".\"ID\" = \"srctbl\".\"ID\")"
+        + " when matched then update set \"desttbl\".\"NAME\" = \"srctbl\".\"NAME\""
+        + " when not matched then insert (\"NAME\", \"ID\") values (\"srctbl\".\"NAME\", \"srctbl\".\"ID\")",
+        provider.upsert(new Ticket(),
+            new ProviderContext(TicketMapper.class, TicketMapper.class.getMethod("upsertOnId", Ticket.class), null))
+            .toString());
+  }
+
+  @Test
+  void testUpsertAll() throws Exception {
+    GizmoProvider provider = new OracleProvider();
+    ProviderContext context = new ProviderContext(UserMapper.class,
+        UserMapper.class.getMethod("upsertAllOnId", List.class), null);
+    List<User> users = List.of(new User(), new User());
+    assertEquals("merge into \"USER\" \"desttbl\""
+        + " using (select #{list[0].id} \"ID\", #{list[0].name} \"NAME\" from dual"
+        + " union all select #{list[1].id} \"ID\", #{list[1].name} \"NAME\" from dual) \"srctbl\""
+        + " on (\"desttbl\".\"ID\" = \"srctbl\".\"ID\")"
+        + " when matched then update set \"desttbl\".\"NAME\" = \"srctbl\".\"NAME\""
+        + " when not matched then insert (\"ID\", \"NAME\") values (\"srctbl\".\"ID\", \"srctbl\".\"NAME\")",
+        provider.upsertAll(context, paramMap("collection", users, "list", users)).toString());
+  }
+
+  @Test
+  void testUpsert_Version() throws Exception {
+    GizmoProvider provider = new OracleProvider();
+    assertEquals("merge into \"ITEM\" \"desttbl\""
+        + " using (select #{id} \"ID\", #{name} \"NAME\", #{version} \"VERSION\" from dual) \"srctbl\""
+        + " on (\"desttbl\".\"ID\" = \"srctbl\".\"ID\")"
+        + " when matched then update set \"desttbl\".\"NAME\" = \"srctbl\".\"NAME\","
+        + " \"desttbl\".\"VERSION\" = \"desttbl\".\"VERSION\" + 1"
+        + " where \"desttbl\".\"VERSION\" = \"srctbl\".\"VERSION\""
+        + " when not matched then insert (\"ID\", \"NAME\", \"VERSION\")"
+        + " values (\"srctbl\".\"ID\", \"srctbl\".\"NAME\", \"srctbl\".\"VERSION\")",
+        provider.upsert(new Item(),
+            new ProviderContext(ItemMapper.class, ItemMapper.class.getMethod("upsertOnId", Item.class), null))
+            .toString());
+  }
+
+  @Test
+  void testUpsert_NoKey() throws Exception {
+    GizmoProvider provider = new OracleProvider();
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> provider.upsert(new User(),
+        new ProviderContext(UserMapper.class, UserMapper.class.getMethod("upsert", User.class), null)));
+    assertEquals("Upsert requires key column name(s) after 'On' e.g. 'upsertSomeBeanOnId(Bean bean)'",
+        e.getMessage());
+  }
+
   @Test
   void testUpdate_MultiArgs() throws Exception {
     GizmoProvider provider = new OracleProvider();
@@ -115,6 +247,16 @@ class OracleProviderTest {
   static interface UserMapper {
     void insert(User user);
 
+    void insertAll(List<User> users);
+
+    void insertAllReturningId(List<User> users);
+
+    void upsert(User user);
+
+    void upsertOnId(User user);
+
+    void upsertAllOnId(List<User> users);
+
     void update(User user, Integer id);
 
     void updateById(User user);
@@ -0,0 +1,94 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.apache.ibatis.builder.annotation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import net.harawata.mgp.PooledSequenceAllocator;
+
+class PooledSequenceAllocatorTest {
+
+  @Test
+  void testBlocks() throws Exception {
+    PooledSequenceAllocator allocator = new PooledSequenceAllocator(3);
+    AtomicLong sequence = new AtomicLong(1);
+    List<Long> ids = new ArrayList<>();
+    for (int i = 0; i < 7; i++) {
+      ids.add(allocator.next(() -> sequence.getAndAdd(3)));
+    }
+    assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), ids);
+    assertEquals(10, sequence.get());
+  }
+
+  @Test
+  void testConcurrentHandout() throws Exception {
+    int threads = 8;
+    int idsPerThread = 10_000;
+    int allocationSize = 50;
+    PooledSequenceAllocator allocator = new PooledSequenceAllocator(allocationSize);
+    AtomicLong sequence = new AtomicLong(1);
+    AtomicInteger fetches = new AtomicInteger();
+    Set<Long> ids = ConcurrentHashMap.newKeySet();
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < idsPerThread; i++) {
+            assertTrue(ids.add(allocator.next(() -> {
+              fetches.incrementAndGet();
+              return sequence.getAndAdd(allocationSize);
+            })));
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertEquals(threads * idsPerThread, ids.size());
+    assertEquals(threads * idsPerThread / allocationSize, fetches.get());
+  }
+
+  @Test
+  void testInvalidAllocationSize() {
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> new PooledSequenceAllocator(0));
+    assertEquals("allocationSize must be positive.", e.getMessage());
+  }
+}
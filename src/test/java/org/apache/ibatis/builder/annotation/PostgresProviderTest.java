@@ -0,0 +1,233 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.apache.ibatis.builder.annotation;
+
+import static org.apache.ibatis.builder.annotation.MysqlProviderTest.paramMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.builder.annotation.MysqlProviderTest.Item;
+import org.apache.ibatis.builder.annotation.MysqlProviderTest.ItemMapper;
+import org.apache.ibatis.builder.annotation.MysqlProviderTest.Ticket;
+import org.apache.ibatis.builder.annotation.MysqlProviderTest.TicketMapper;
+import org.junit.jupiter.api.Test;
+
+import net.harawata.mgp.GizmoProvider;
+import net.harawata.mgp.PostgresProvider;
+
+class PostgresProviderTest {
+
+  @Test
+  void testInsert() throws Exception {
+    GizmoProvider provider = new PostgresProvider();
+    assertEquals("insert into \"user\" (\"id\", \"name\") values (#{id}, #{name})", provider.insert(new User(),
+        new ProviderContext(UserMapper.class, UserMapper.class.getMethod("insert", User.class), null)).toString());
+  }
+
+  @Test
+  void testInsertAll() throws Exception {
+    GizmoProvider provider = new PostgresProvider();
+    ProviderContext context = new ProviderContext(UserMapper.class,
+        UserMapper.class.getMethod("insertAll", List.class), null);
+    List<User> users = List.of(new User(), new User());
+    assertEquals("insert into \"user\" (\"id\", \"name\")"
+        + " values (#{list[0].id}, #{list[0].name}), (#{list[1].id}, #{list[1].name})",
+        provider.insertAll(context, paramMap("collection", users, "list", users)).toString());
+  }
+
+  @Test
+  void testUpsert() throws Exception {
+    GizmoProvider provider = new PostgresProvider();
+    assertEquals("insert into \"user\" (\"id\", \"name\") values (#{id}, #{name})"
+        + " on conflict (\"id\") do update set \"name\" = excluded.\"name\"",
+        provider.upsert(new User(),
+            new ProviderContext(UserMapper.class, UserMapper.class.getMethod("upsertOnId", User.class), null))
+            .toString());
+  }
+
+  @Test
+  void testUpsert_IdentityKey() throws Exception {
+    GizmoProvider provider = new PostgresProvider();
+    assertEquals("insert into \"ticket\" (\"name\", \"id\") values (#{name}, #{id})"
+        + " on conflict (\"id\") do update set \"name\" = excluded.\"name\"",
+        provider.upsert(new Ticket(),
+            new ProviderContext(TicketMapper.class, TicketMapper.class.getMethod("upsertOnId", Ticket.class), null))
+            .toString());
+  }
+
+  @Test
+  void testUpsert_IdentityNonKey() throws Exception {
+    GizmoProvider provider = new PostgresProvider();
+    assertEquals("insert into \"ticket\" (\"name\") values (#{name}) on conflict (\"name\") do nothing",
+        provider.upsert(new Ticket(),
+            new ProviderContext(TicketMapper.class, TicketMapper.class.getMethod("upsertOnName", Ticket.class), null))
+            .toString());
+  }
+
+  @Test
+  void testUpsert_OnlyKeys() throws Exception {
+    GizmoProvider provider = new PostgresProvider();
+    assertEquals("insert into \"user\" (\"id\", \"name\") values (#{id}, #{name})"
+        + " on conflict (\"id\", \"name\") do nothing",
+        provider.upsert(new User(), new ProviderContext(UserMapper.class,
+            UserMapper.class.getMethod("upsertOnIdAndName", User.class), null)).toString());
+  }
+
+  @Test
+  void testUpsert_Version() throws Exception {
+    GizmoProvider provider = new PostgresProvider();
+    assertEquals("insert into \"item\" (\"id\", \"name\", \"version\") values (#{id}, #{name}, #{version})"
+        + " on conflict (\"id\") do update set \"name\" = excluded.\"name\","
+        + " \"version\" = \"item\".\"version\" + 1 where \"item\".\"version\" = excluded.\"version\"",
+        provider.upsert(new Item(),
+            new ProviderContext(ItemMapper.class, ItemMapper.class.getMethod("upsertOnId", Item.class), null))
+            .toString());
+  }
+
+  @Test
+  void testUpsertAll() throws Exception {
+    GizmoProvider provider = new PostgresProvider();
+    ProviderContext context = new ProviderContext(UserMapper.class,
+        UserMapper.class.getMethod("upsertAllOnId", List.class), null);
+    List<User> users = List.of(new User(), new User());
+    assertEquals("insert into \"user\" (\"id\", \"name\")"
+        + " values (#{list[0].id}, #{list[0].name}), (#{list[1].id}, #{list[1].name})"
+        + " on conflict (\"id\") do update set \"name\" = excluded.\"name\"",
+        provider.upsertAll(context, paramMap("collection", users, "list", users)).toString());
+  }
+
+  @Test
+  void testInsertAll_Unnest() throws Exception {
+    GizmoProvider provider = new UnnestProvider();
+    ProviderContext context = new ProviderContext(UserMapper.class,
+        UserMapper.class.getMethod("insertAll", List.class), null);
+    List<User> users = List.of(user(1, "a"), user(2, null), user(3, "c"));
+    Map<String, Object> param = paramMap("collection", users, "list", users);
+    assertEquals("insert into \"user\" (\"id\", \"name\") select * from unnest("
+        + "#{gizmo_id,typeHandler=org.apache.ibatis.type.ArrayTypeHandler}, "
+        + "#{gizmo_name,typeHandler=org.apache.ibatis.type.ArrayTypeHandler})",
+        provider.insertAll(context, param).toString());
+    assertArrayEquals(new Integer[] { 1, 2, 3 }, (Integer[]) param.get("gizmo_id"));
+    assertArrayEquals(new String[] { "a", null, "c" }, (String[]) param.get("gizmo_name"));
+  }
+
+  @Test
+  void testInsertAll_Unnest_SameStatement() throws Exception {
+    GizmoProvider provider = new UnnestProvider();
+    ProviderContext context = new ProviderContext(UserMapper.class,
+        UserMapper.class.getMethod("insertAll", List.class), null);
+    List<User> small = List.of(user(1, "a"));
+    List<User> large = new ArrayList<>();
+    for (int i = 0; i < 10000; i++) {
+      large.add(user(i, "user" + i));
+    }
+    assertSame(provider.insertAll(context, paramMap("collection", small, "list", small)),
+        provider.insertAll(context, paramMap("collection", large, "list", large)));
+    assertEquals(10000, provider.getMaxRowsPerStatement(User.class));
+  }
+
+  @Test
+  void testUpsertAll_Unnest() throws Exception {
+    GizmoProvider provider = new UnnestProvider();
+    ProviderContext context = new ProviderContext(UserMapper.class,
+        UserMapper.class.getMethod("upsertAllOnId", List.class), null);
+    List<User> users = List.of(user(1, "a"), user(2, "b"));
+    assertEquals("insert into \"user\" (\"id\", \"name\") select * from unnest("
+        + "#{gizmo_id,typeHandler=org.apache.ibatis.type.ArrayTypeHandler}, "
+        + "#{gizmo_name,typeHandler=org.apache.ibatis.type.ArrayTypeHandler})"
+        + " on conflict (\"id\") do update set \"name\" = excluded.\"name\"",
+        provider.upsertAll(context, paramMap("users", users, "param1", users)).toString());
+  }
+
+  @Test
+  void testUpsertAll_Unnest_IdentityKey() throws Exception {
+    GizmoProvider provider = new UnnestProvider();
+    ProviderContext context = new ProviderContext(TicketMapper.class,
+        TicketMapper.class.getMethod("upsertAllOnId", List.class), null);
+    Ticket ticket1 = new Ticket();
+    ticket1.setId(1);
+    ticket1.setName("a");
+    Ticket ticket2 = new Ticket();
+    ticket2.setId(2);
+    ticket2.setName("b");
+    List<Ticket> tickets = List.of(ticket1, ticket2);
+    Map<String, Object> param = paramMap("tickets", tickets, "param1", tickets);
+    assertEquals("insert into \"ticket\" (\"name\", \"id\") select * from unnest("
+        + "#{gizmo_name,typeHandler=org.apache.ibatis.type.ArrayTypeHandler}, "
+        + "#{gizmo_id,typeHandler=org.apache.ibatis.type.ArrayTypeHandler})"
+        + " on conflict (\"id\") do update set \"name\" = excluded.\"name\"",
+        provider.upsertAll(context, param).toString());
+    assertArrayEquals(new Integer[] { 1, 2 }, (Integer[]) param.get("gizmo_id"));
+  }
+
+  private static User user(Integer id, String name) {
+    User user = new User();
+    user.setId(id);
+    user.setName(name);
+    return user;
+  }
+
+  static class UnnestProvider extends PostgresProvider {
+    @Override
+    protected BulkInsertStrategy getBulkInsertStrategy() {
+      return BulkInsertStrategy.UNNEST;
+    }
+  }
+
+  static interface UserMapper {
+    void insert(User user);
+
+    void insertAll(List<User> users);
+
+    void upsertOnId(User user);
+
+    void upsertOnIdAndName(User user);
+
+    void upsertAllOnId(List<User> users);
+  }
+
+  static class User {
+    private Integer id;
+    private String name;
+
+    public Integer getId() {
+      return id;
+    }
+
+    public void setId(Integer id) {
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+  }
+}
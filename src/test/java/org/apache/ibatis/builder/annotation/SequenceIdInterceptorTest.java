@@ -0,0 +1,188 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.apache.ibatis.builder.annotation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.annotations.InsertProvider;
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.SequenceGenerator;
+import net.harawata.mgp.GizmoProvider;
+import net.harawata.mgp.H2Provider;
+import net.harawata.mgp.SequenceIdInterceptor;
+
+class SequenceIdInterceptorTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    Configuration configuration = new Configuration(new Environment("test", new JdbcTransactionFactory(),
+        new UnpooledDataSource("org.h2.Driver", "jdbc:h2:mem:sequence;DB_CLOSE_DELAY=-1", "sa", "")));
+    configuration.setDefaultSqlProviderType(H2Provider.class);
+    configuration.addInterceptor(new SequenceIdInterceptor());
+    configuration.addMapper(ItemMapper.class);
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession();
+        Statement statement = sqlSession.getConnection().createStatement()) {
+      statement.execute("create sequence item_seq start with 1 increment by 10");
+      statement.execute("create table item (id bigint primary key, name varchar(20))");
+      sqlSession.commit();
+    }
+  }
+
+  @Test
+  void testAssignIds() throws Exception {
+    List<Item> items = new ArrayList<>();
+    for (int i = 0; i < 25; i++) {
+      items.add(new Item(null, "multi" + i));
+    }
+    Item existing = new Item(1000L, "existing");
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ItemMapper mapper = sqlSession.getMapper(ItemMapper.class);
+      assertEquals(25, mapper.insertItems(items));
+      assertEquals(1, mapper.insertItem(existing));
+      sqlSession.commit();
+    }
+    for (int i = 0; i < 25; i++) {
+      assertEquals(i + 1, items.get(i).getId());
+    }
+    assertEquals(1000L, existing.getId());
+
+    // The rest of the third block is used by the batch
+    List<Item> batch = new ArrayList<>();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      ItemMapper mapper = sqlSession.getMapper(ItemMapper.class);
+      for (int i = 0; i < 5; i++) {
+        Item item = new Item(null, "batch" + i);
+        mapper.insertItem(item);
+        batch.add(item);
+      }
+      sqlSession.flushStatements();
+      sqlSession.commit();
+    }
+    for (int i = 0; i < 5; i++) {
+      assertEquals(i + 26, batch.get(i).getId());
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession();
+        Connection connection = sqlSession.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery("select count(*), max(id) from item where id < 1000")) {
+      rs.next();
+      assertEquals(30, rs.getInt(1));
+      assertEquals(30, rs.getLong(2));
+    }
+  }
+
+  @Test
+  void testIdentityIsNotInserted() throws Exception {
+    GizmoProvider provider = new H2Provider();
+    assertEquals("insert into \"EVENT\" (\"NAME\") values (#{name})", provider.insert(new Event(),
+        new ProviderContext(EventMapper.class, EventMapper.class.getMethod("insert", Event.class), null)).toString());
+  }
+
+  static interface ItemMapper {
+    @InsertProvider
+    int insertItem(Item item);
+
+    @InsertProvider
+    int insertItems(List<Item> items);
+  }
+
+  static interface EventMapper {
+    void insert(Event event);
+  }
+
+  static class Item {
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_gen")
+    @SequenceGenerator(name = "item_gen", sequenceName = "item_seq", allocationSize = 10)
+    private Long id;
+    private String name;
+
+    public Item() {
+      super();
+    }
+
+    Item(Long id, String name) {
+      this.id = id;
+      this.name = name;
+    }
+
+    public Long getId() {
+      return id;
+    }
+
+    public void setId(Long id) {
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+  }
+
+  static class Event {
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+    private String name;
+
+    public Integer getId() {
+      return id;
+    }
+
+    public void setId(Integer id) {
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+  }
+}
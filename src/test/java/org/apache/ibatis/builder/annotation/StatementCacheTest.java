@@ -0,0 +1,155 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.apache.ibatis.builder.annotation;
+
+import static org.apache.ibatis.builder.annotation.MysqlProviderTest.paramMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.junit.jupiter.api.Test;
+
+import net.harawata.mgp.GizmoProvider;
+import net.harawata.mgp.MssqlProvider;
+import net.harawata.mgp.MysqlProvider;
+import net.harawata.mgp.StatementCache;
+import net.harawata.mgp.StatementKey;
+
+class StatementCacheTest {
+
+  @Test
+  void testSameStatementIsReused() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    StatementCache<StatementKey, String> cache = GizmoProvider.getStatementCache();
+    ProviderContext context = new ProviderContext(UserMapper.class, UserMapper.class.getMethod("insert", User.class),
+        null);
+    CharSequence first = provider.insert(new User(), context);
+    long hits = cache.getHitCount();
+    CharSequence second = new MysqlProvider().insert(new User(), context);
+    assertSame(first, second);
+    assertEquals(hits + 1, cache.getHitCount());
+  }
+
+  @Test
+  void testDialectsAreCachedSeparately() throws Exception {
+    ProviderContext context = new ProviderContext(UserMapper.class, UserMapper.class.getMethod("insert", User.class),
+        null);
+    assertEquals("insert into `user` (`id`, `name`) values (#{id}, #{name})",
+        new MysqlProvider().insert(new User(), context).toString());
+    assertEquals("insert into \"user\" (\"id\", \"name\") values (#{id}, #{name})",
+        new MssqlProvider().insert(new User(), context).toString());
+  }
+
+  @Test
+  void testParamMapIsCachedSeparately() throws Exception {
+    GizmoProvider provider = new MysqlProvider();
+    ProviderContext context = new ProviderContext(UserMapper.class,
+        UserMapper.class.getMethod("updateById", User.class), null);
+    assertEquals("update `user` set `id` = #{id}, `name` = #{name} where `id` = #{id}",
+        provider.update(context, new User()).toString());
+    assertEquals("update `user` set `id` = #{user.id}, `name` = #{user.name} where `id` = #{user.id}",
+        provider.update(context, paramMap("user", new User())).toString());
+  }
+
+  @Test
+  void testMaxSize() {
+    StatementCache<String, String> cache = new StatementCache<>(1);
+    assertEquals("A", cache.get("a", String::toUpperCase));
+    assertEquals("B", cache.get("b", String::toUpperCase));
+    assertEquals(1, cache.size());
+    assertEquals("A", cache.get("a", k -> "X"));
+    assertEquals("B", cache.get("b", String::toUpperCase));
+    assertEquals(1, cache.getHitCount());
+    assertEquals(3, cache.getMissCount());
+  }
+
+  @Test
+  void testEntriesPerOwner() {
+    StatementCache<String, String> cache = new StatementCache<>(10,
+        k -> k.startsWith("u") ? UserMapper.class : User.class);
+    assertEquals("U1", cache.get("u1", String::toUpperCase));
+    assertEquals("X", cache.get("x", String::toUpperCase));
+    assertEquals(2, cache.size());
+    assertEquals("U1", cache.get("u1", k -> "Y"));
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertEquals("Y", cache.get("u1", k -> "Y"));
+  }
+
+  @Test
+  void testEntriesAreReleasedWithOwner() throws Exception {
+    StatementCache<Class<?>, String> cache = new StatementCache<>(10, k -> k);
+    WeakReference<ClassLoader> loader = cacheInNewClassLoader(cache);
+    assertEquals(1, cache.size());
+    for (int i = 0; i < 100 && loader.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertNull(loader.get());
+    assertEquals(0, cache.size());
+  }
+
+  private static WeakReference<ClassLoader> cacheInNewClassLoader(StatementCache<Class<?>, String> cache)
+      throws Exception {
+    URL classes = Owner.class.getProtectionDomain().getCodeSource().getLocation();
+    URLClassLoader loader = new URLClassLoader(new URL[] { classes }, null);
+    Class<?> owner = loader.loadClass(Owner.class.getName());
+    assertNotSame(Owner.class, owner);
+    cache.get(owner, Class::getName);
+    loader.close();
+    return new WeakReference<>(loader);
+  }
+
+  static class Owner {
+  }
+
+  static interface UserMapper {
+    void insert(User user);
+
+    void updateById(User user);
+  }
+
+  static class User {
+    private Integer id;
+    private String name;
+
+    public Integer getId() {
+      return id;
+    }
+
+    public void setId(Integer id) {
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+  }
+}
@@ -0,0 +1,125 @@
+/*-
+ * MIT License
+ *
+ * Copyright (c) 2025 Iwao AVE!
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.apache.ibatis.builder.annotation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.apache.ibatis.annotations.InsertProvider;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.UpdateProvider;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+import net.harawata.mgp.GizmoProvider;
+import net.harawata.mgp.MssqlProvider;
+import net.harawata.mgp.StatementPreloader;
+
+class StatementPreloaderTest {
+
+  @Test
+  void testPreload() {
+    Configuration configuration = new Configuration();
+    configuration.setDefaultSqlProviderType(MssqlProvider.class);
+    configuration.addMapper(ValidMapper.class);
+    long misses = GizmoProvider.getStatementCache().getMissCount();
+    assertEquals(5, StatementPreloader.preload(configuration));
+    assertEquals(misses + 5, GizmoProvider.getStatementCache().getMissCount());
+
+    // Statements are generated from the cache
+    long hits = GizmoProvider.getStatementCache().getHitCount();
+    assertEquals("update \"user\" set \"id\" = ?, \"name\" = ? where \"id\" = ?",
+        configuration.getMappedStatement(ValidMapper.class.getName() + ".updateById")
+            .getBoundSql(MysqlProviderTest.paramMap("user", new User(), "id", 1, "param1", new User(), "param2", 1))
+            .getSql());
+    assertEquals(hits + 1, GizmoProvider.getStatementCache().getHitCount());
+  }
+
+  @Test
+  void testReportAllInvalidMethods() {
+    Configuration configuration = new Configuration();
+    configuration.setDefaultSqlProviderType(MssqlProvider.class);
+    configuration.addMapper(InvalidMapper.class);
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> StatementPreloader.preload(configuration));
+    assertTrue(e.getMessage().startsWith("2 mapper method(s) cannot be handled by Gizmo provider:"), e.getMessage());
+    assertTrue(e.getMessage().contains(InvalidMapper.class.getName() + ".updateUser: Unable to add conditions"),
+        e.getMessage());
+    assertTrue(e.getMessage().contains(InvalidMapper.class.getName() + ".upsertUser: Upsert requires key column"),
+        e.getMessage());
+    assertEquals(2, e.getSuppressed().length);
+  }
+
+  static interface ValidMapper {
+    @Select("select * from user where id = #{id}")
+    User select(Integer id);
+
+    @InsertProvider
+    int insert(User user);
+
+    @InsertProvider
+    int upsertOnId(User user);
+
+    @UpdateProvider
+    int updateById(User user, Integer id);
+
+    @UpdateProvider
+    int updateByName(@Param("user") User user);
+
+    @UpdateProvider
+    int update(User user, Integer id);
+  }
+
+  static interface InvalidMapper {
+    @InsertProvider
+    int insert(User user);
+
+    @UpdateProvider
+    int updateUser(User user);
+
+    @InsertProvider
+    int upsertUser(User user);
+  }
+
+  static class User {
+    private Integer id;
+    private String name;
+
+    public Integer getId() {
+      return id;
+    }
+
+    public void setId(Integer id) {
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+  }
+}